@@ -0,0 +1,43 @@
+package evolv.io;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One whole tick of the classic serial loop. The board keeps its population
+ * topped up, so it stays near the same size however long this runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBenchmark {
+	@Param({ "60", "1000", "10000", "50000" })
+	int population;
+
+	Board board;
+
+	@Setup
+	public void setUp() {
+		board = Fixtures.board(population);
+	}
+
+	@Benchmark
+	public Board iterate() {
+		board.iterate(Simulation.TIME_STEP);
+		return board;
+	}
+}
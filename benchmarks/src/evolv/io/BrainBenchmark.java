@@ -0,0 +1,64 @@
+package evolv.io;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Thinking and breeding for a single brain.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrainBenchmark {
+	Brain brain;
+	double[] inputs;
+	ArrayList<Creature> oneParent;
+	ArrayList<Creature> twoParents;
+	Rng rng;
+
+	@Setup
+	public void setUp() {
+		Board board = Fixtures.board(60);
+		Creature first = board.creatures.get(0);
+		brain = first.brain;
+		inputs = new double[11];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = first.getVisionResult(i % 9);
+		}
+		oneParent = new ArrayList<Creature>();
+		oneParent.add(first);
+		twoParents = new ArrayList<Creature>(oneParent);
+		twoParents.add(board.creatures.get(1));
+		rng = new Rng(Fixtures.SEED);
+	}
+
+	@Benchmark
+	public Brain input() {
+		brain.input(inputs);
+		return brain;
+	}
+
+	@Benchmark
+	public Brain evolveOneParent() {
+		return brain.evolve(rng, oneParent);
+	}
+
+	@Benchmark
+	public Brain evolveTwoParents() {
+		return brain.evolve(rng, twoParents);
+	}
+}
@@ -0,0 +1,61 @@
+package evolv.io;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The parts of a tick that look at the whole population at once: rebuilding
+ * the spatial grid, finding and applying collisions, and every creature
+ * casting its vision rays. Each op does it for everyone on the board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreatureBenchmark {
+	@Param({ "60", "1000" })
+	int population;
+
+	Board board;
+
+	@Setup
+	public void setUp() {
+		board = Fixtures.board(population);
+	}
+
+	@Benchmark
+	public SpatialGrid rebuildGrid() {
+		board.grid.rebuild(board.rocks, board.creatures);
+		return board.grid;
+	}
+
+	@Benchmark
+	public ContactList collide() {
+		board.contacts.update(board.grid, null);
+		for (int i = 0; i < board.creatures.size(); i++) {
+			board.creatures.get(i).collide(Simulation.TIME_STEP);
+		}
+		return board.contacts;
+	}
+
+	@Benchmark
+	public Board see() {
+		for (int i = 0; i < board.creatures.size(); i++) {
+			board.creatures.get(i).see(Simulation.TIME_STEP * board.OBJECT_TIMESTEPS_PER_YEAR);
+		}
+		return board;
+	}
+}
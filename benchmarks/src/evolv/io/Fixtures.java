@@ -0,0 +1,26 @@
+package evolv.io;
+
+/**
+ * Seeded worlds for the benchmarks, so every run measures the same thing.
+ */
+class Fixtures {
+	static final int SEED = 7;
+	static final int SETTLE_TICKS = 10; // So creatures have seen, touched and thought before being measured
+
+	/**
+	 * A board kept at population creatures, on the default 100 by 100 tiles
+	 * or, for big populations, enough for about one creature per ten tiles.
+	 */
+	static Board board(int population) {
+		int size = Math.max(Simulation.BOARD_WIDTH, (int) Math.ceil(Math.sqrt(population * 10.0)));
+		Board board = new Board(size, size, Simulation.NOISE_STEP_SIZE, Simulation.MIN_TEMPERATURE,
+				Simulation.MAX_TEMPERATURE, Simulation.ROCKS_TO_ADD, population, SEED, Simulation.INITIAL_FILE_NAME,
+				Simulation.TIME_STEP);
+		// Nobody is at the keyboard, so let the brains drive.
+		board.userControl = false;
+		for (int tick = 0; tick < SETTLE_TICKS; tick++) {
+			board.iterate(Simulation.TIME_STEP);
+		}
+		return board;
+	}
+}
@@ -0,0 +1,47 @@
+package evolv.io;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Colouring every tile on the default board. Each op moves the year on a
+ * tick first, so every tile has grown and has to be worked out again, the
+ * way the viewer finds them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileBenchmark {
+	Board board;
+
+	@Setup
+	public void setUp() {
+		board = Fixtures.board(60);
+	}
+
+	@Benchmark
+	public int getColor() {
+		board.year += Simulation.TIME_STEP;
+		int colors = 0;
+		TileField tiles = board.tiles;
+		for (int y = 0; y < tiles.height; y++) {
+			for (int x = 0; x < tiles.width; x++) {
+				colors ^= tiles.getColor(tiles.index(x, y));
+			}
+		}
+		return colors;
+	}
+}
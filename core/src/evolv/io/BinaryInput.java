@@ -0,0 +1,132 @@
+package evolv.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads back what a BinaryOutput wrote, through one reused buffer.
+ */
+class BinaryInput implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	public BinaryInput(ReadableByteChannel channel) {
+		this.channel = channel;
+		buffer.limit(0);
+	}
+
+	public int readByte() throws IOException {
+		need(1);
+		return buffer.get();
+	}
+
+	public long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0;; shift += 7) {
+			need(1);
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+
+	public int readInt() throws IOException {
+		need(Integer.BYTES);
+		return buffer.getInt();
+	}
+
+	public long readLong() throws IOException {
+		need(Long.BYTES);
+		return buffer.getLong();
+	}
+
+	public float readFloat() throws IOException {
+		need(Float.BYTES);
+		return buffer.getFloat();
+	}
+
+	public double readDouble() throws IOException {
+		need(Double.BYTES);
+		return buffer.getDouble();
+	}
+
+	public String readString() throws IOException {
+		int length = readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		for (int done = 0; done < length;) {
+			need(1);
+			int count = Math.min(length - done, buffer.remaining());
+			buffer.get(bytes, done, count);
+			done += count;
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public void readBytes(byte[] into, int offset, int length) throws IOException {
+		for (int done = 0; done < length;) {
+			need(1);
+			int count = Math.min(length - done, buffer.remaining());
+			buffer.get(into, offset + done, count);
+			done += count;
+		}
+	}
+
+	public void readInts(int[] into, int offset, int length) throws IOException {
+		for (int done = 0; done < length;) {
+			need(Integer.BYTES);
+			int count = Math.min(length - done, buffer.remaining() / Integer.BYTES);
+			buffer.asIntBuffer().get(into, offset + done, count);
+			buffer.position(buffer.position() + count * Integer.BYTES);
+			done += count;
+		}
+	}
+
+	public void readLongs(long[] into, int offset, int length) throws IOException {
+		for (int done = 0; done < length;) {
+			need(Long.BYTES);
+			int count = Math.min(length - done, buffer.remaining() / Long.BYTES);
+			buffer.asLongBuffer().get(into, offset + done, count);
+			buffer.position(buffer.position() + count * Long.BYTES);
+			done += count;
+		}
+	}
+
+	public void readDoubles(double[] into, int offset, int length) throws IOException {
+		for (int done = 0; done < length;) {
+			need(Double.BYTES);
+			int count = Math.min(length - done, buffer.remaining() / Double.BYTES);
+			buffer.asDoubleBuffer().get(into, offset + done, count);
+			buffer.position(buffer.position() + count * Double.BYTES);
+			done += count;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void need(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes) {
+			return;
+		}
+		buffer.compact();
+		while (buffer.position() < bytes) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+	}
+}
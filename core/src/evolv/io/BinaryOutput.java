@@ -0,0 +1,133 @@
+package evolv.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes numbers to a channel through one reused buffer. Big-endian, so what
+ * it writes reads back with a DataInputStream too, but whole arrays go into
+ * the buffer in one bulk copy instead of a call per number.
+ */
+class BinaryOutput implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	public BinaryOutput(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	public void writeByte(int value) throws IOException {
+		room(1);
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Seven bits to a byte, low bits first, stopping once the rest are zero.
+	 * Small numbers take one byte, and so do bit patterns that are mostly
+	 * zero at the top, like two close doubles XORed together.
+	 */
+	public void writeVarLong(long value) throws IOException {
+		room(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	public void writeInt(int value) throws IOException {
+		room(Integer.BYTES);
+		buffer.putInt(value);
+	}
+
+	public void writeLong(long value) throws IOException {
+		room(Long.BYTES);
+		buffer.putLong(value);
+	}
+
+	public void writeFloat(float value) throws IOException {
+		room(Float.BYTES);
+		buffer.putFloat(value);
+	}
+
+	public void writeDouble(double value) throws IOException {
+		room(Double.BYTES);
+		buffer.putDouble(value);
+	}
+
+	/**
+	 * UTF-8, after its length in bytes. Null is written as length -1.
+	 */
+	public void writeString(String value) throws IOException {
+		if (value == null) {
+			writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(bytes.length);
+		for (int done = 0; done < bytes.length;) {
+			room(1);
+			int count = Math.min(bytes.length - done, buffer.remaining());
+			buffer.put(bytes, done, count);
+			done += count;
+		}
+	}
+
+	public void writeInts(int[] values, int offset, int length) throws IOException {
+		for (int done = 0; done < length;) {
+			room(Integer.BYTES);
+			int count = Math.min(length - done, buffer.remaining() / Integer.BYTES);
+			buffer.asIntBuffer().put(values, offset + done, count);
+			buffer.position(buffer.position() + count * Integer.BYTES);
+			done += count;
+		}
+	}
+
+	public void writeLongs(long[] values, int offset, int length) throws IOException {
+		for (int done = 0; done < length;) {
+			room(Long.BYTES);
+			int count = Math.min(length - done, buffer.remaining() / Long.BYTES);
+			buffer.asLongBuffer().put(values, offset + done, count);
+			buffer.position(buffer.position() + count * Long.BYTES);
+			done += count;
+		}
+	}
+
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		for (int done = 0; done < length;) {
+			room(Double.BYTES);
+			int count = Math.min(length - done, buffer.remaining() / Double.BYTES);
+			buffer.asDoubleBuffer().put(values, offset + done, count);
+			buffer.position(buffer.position() + count * Double.BYTES);
+			done += count;
+		}
+	}
+
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void room(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+}
@@ -0,0 +1,447 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import javax.management.JMException;
+
+class Board {
+	final Rng rng;
+	final Noise noise;
+	final int SEED;
+
+	// Board
+	int boardWidth;
+	int boardHeight;
+	TileField tiles;
+
+	// Creature
+	int creatureMinimum;
+	final float MIN_CREATURE_ENERGY = 1.2f;
+	final float MAX_CREATURE_ENERGY = 2.0f;
+	final float MINIMUM_SURVIVABLE_SIZE = 0.06f;
+	final float CREATURE_STROKE_WEIGHT = 0.6f;
+	SpatialGrid grid;
+	ContactList contacts;
+	ArrayList<Creature> creatures;
+	CreatureStore creatureStore;
+	Creature selectedCreature = null;
+	CreatureController creatureController;
+	PhasedTick phasedTick; // null runs the classic one-creature-at-a-time tick
+	int creatureIDUpTo = 0;
+	final int creatureMinimumIncrement = 5;
+	double MANUAL_BIRTH_SIZE = 1.2f;
+
+	// Time or History
+	double year = 0;
+	final float OBJECT_TIMESTEPS_PER_YEAR = 100;
+	double timeStep;
+	TimeSeries history = new TimeSeries();
+	final int FOOD_SAMPLE_TICKS = 100; // Adding up the food near bodies is slow, so it's only redone this often
+	private final double[] historySample = new double[TimeSeries.METRIC_COUNT];
+	double nearbyFood; // As of the last sample
+	int birthsThisTick = 0;
+	int deathsThisTick = 0;
+	int playSpeed = 1;
+	final TickProfiler profiler = TickProfiler.ENABLED ? new TickProfiler() : null;
+
+	// Temperature
+	float MIN_TEMPERATURE;
+	float MAX_TEMPERATURE;
+	final float THERMOMETER_MIN = -2;
+	final float THERMOMETER_MAX = 2;
+	double temperature;
+
+	// Rocks
+	final int ROCKS_TO_ADD;
+	final float MIN_ROCK_ENERGY_BASE = 0.8f;
+	final float MAX_ROCK_ENERGY_BASE = 1.6f;
+	final float ROCK_DENSITY = 5;
+	final int ROCK_COLOR;
+	ArrayList<SoftBody> rocks;
+
+	// Saving
+	int[] fileSaveCounts;
+	double[] fileSaveTimes;
+	double imageSaveInterval = 1;
+	double textSaveInterval = 1;
+	ImageSaver imageSaver;
+	CheckpointWriter checkpointWriter; // null writes checkpoints right away, on this thread
+	CheckpointChain autosaves = new CheckpointChain();
+	LineageLog lineageLog; // null keeps no record of births and deaths
+	SimulationMetrics metrics; // null keeps no metrics
+
+	// Misc or Unsorted
+	final int BACKGROUND_COLOR;
+	String folder = "TEST";
+	boolean userControl;
+
+	public Board(int w, int h, float stepSize, float min, float max, int rta, int cm, int SEED,
+			String INITIAL_FILE_NAME, double ts) {
+		this(w, h, stepSize, min, max, rta, cm, SEED, new Rng(SEED), INITIAL_FILE_NAME, ts);
+		for (int i = 0; i < ROCKS_TO_ADD; i++) {
+			rocks.add(new SoftBody(rng.random(0, boardWidth), rng.random(0, boardHeight), 0, 0, getRandomSize(),
+					ROCK_DENSITY, HsbColor.hue(ROCK_COLOR), HsbColor.saturation(ROCK_COLOR),
+					HsbColor.brightness(ROCK_COLOR), this));
+		}
+		maintainCreatureMinimum(false);
+		grid.rebuild(rocks, creatures);
+	}
+
+	/**
+	 * A board with untouched tiles and nothing on it, for Checkpoint.restore()
+	 * to fill in.
+	 */
+	Board(int w, int h, float stepSize, float min, float max, int rta, int cm, int SEED, Rng rng,
+			String INITIAL_FILE_NAME, double ts) {
+		ROCK_COLOR = HsbColor.color(0, 0, 0.5f);
+		BACKGROUND_COLOR = HsbColor.color(0, 0, 0.1f);
+		this.SEED = SEED;
+		noise = new Noise(SEED);
+		this.rng = rng;
+		boardWidth = w;
+		boardHeight = h;
+		tiles = new TileField(w, h, stepSize, this);
+		MIN_TEMPERATURE = min;
+		MAX_TEMPERATURE = max;
+
+		grid = new SpatialGrid(boardWidth, boardHeight);
+		contacts = new ContactList();
+
+		ROCKS_TO_ADD = rta;
+		rocks = new ArrayList<SoftBody>(0);
+
+		creatureMinimum = cm;
+		creatures = new ArrayList<Creature>(0);
+		creatureStore = new CreatureStore(cm);
+		folder = INITIAL_FILE_NAME;
+		fileSaveCounts = new int[4];
+		fileSaveTimes = new double[4];
+		for (int i = 0; i < 4; i++) {
+			fileSaveCounts[i] = 0;
+			fileSaveTimes[i] = -999;
+		}
+		userControl = true;
+		timeStep = ts;
+	}
+
+	public String getNextFileName(int type) {
+		String[] modes = { "manualImgs", "autoImgs", "manualCheckpoints", "autoCheckpoints" };
+		String ending = ".png";
+		if (type >= 2) {
+			ending = Checkpoint.FILE_ENDING;
+		}
+		return folder + "/" + modes[type] + "/" + String.format("%05d", fileSaveCounts[type]) + ending;
+	}
+
+	public void iterate(double timeStep) {
+		if (TickProfiler.ENABLED) {
+			profiler.startTick();
+		}
+		year += timeStep;
+		temperature = getGrowthRate(getSeason());
+		// Tiles catch up on their own growth when they are next looked at,
+		// even across the temperature turning, so there is no sweep here.
+		/*
+		 * for(int x = 0; x < boardWidth; x++) { for(int y = 0; y < boardHeight;
+		 * y++) { tiles[x][y].iterate(this, year); } }
+		 */
+		creatureStore.shiftEnergyHistory();
+		/*
+		 * for(int i = 0; i < rocks.size(); i++) {
+		 * rocks.get(i).collide(timeStep*OBJECT_TIMESTEPS_PER_YEAR); }
+		 */
+		maintainCreatureMinimum(false);
+		if (TickProfiler.ENABLED) {
+			profiler.lap(TickProfiler.BIRTHS);
+		}
+		grid.rebuild(rocks, creatures);
+		if (TickProfiler.ENABLED) {
+			profiler.lap(TickProfiler.GRID);
+			profiler.count(TickProfiler.BODIES, grid.bodyCount);
+		}
+		if (phasedTick != null) {
+			phasedTick.iterateCreatures(timeStep);
+		} else {
+			contacts.update(grid, null);
+			if (TickProfiler.ENABLED) {
+				profiler.lap(TickProfiler.CONTACTS);
+				profiler.count(TickProfiler.PAIRS, contacts.pairCount);
+			}
+			for (int i = 0; i < creatures.size(); i++) {
+				Creature me = creatures.get(i);
+				me.collide(timeStep);
+				if (TickProfiler.ENABLED) {
+					profiler.lap(TickProfiler.COLLIDE);
+				}
+				me.metabolize(timeStep);
+				if (TickProfiler.ENABLED) {
+					profiler.lap(TickProfiler.METABOLIZE);
+				}
+				if (!me.alive) {
+					i--; // metabolize() took it out of the list
+					continue;
+				}
+				// useBrain(), split up so the profiler can tell thinking from acting
+				me.think();
+				if (TickProfiler.ENABLED) {
+					profiler.lap(TickProfiler.THINK);
+				}
+				if (!userControl) {
+					me.useOutputs(timeStep);
+				}
+				applyControl(me, timeStep);
+				if (TickProfiler.ENABLED) {
+					profiler.lap(TickProfiler.ACT);
+				}
+			}
+		}
+		finishIterate(timeStep);
+	}
+
+	void applyControl(Creature me, double timeStep) {
+		if (userControl && me == selectedCreature && creatureController != null) {
+			creatureController.control(me, timeStep);
+		}
+	}
+
+	public void finishIterate(double timeStep) {
+		for (int i = 0; i < rocks.size(); i++) {
+			rocks.get(i).applyMotions(timeStep * OBJECT_TIMESTEPS_PER_YEAR);
+		}
+		if (TickProfiler.ENABLED) {
+			profiler.lap(TickProfiler.MOVE);
+		}
+		if (phasedTick != null) {
+			phasedTick.moveCreatures(timeStep * OBJECT_TIMESTEPS_PER_YEAR);
+		} else {
+			for (int i = 0; i < creatures.size(); i++) {
+				creatures.get(i).applyMotions(timeStep * OBJECT_TIMESTEPS_PER_YEAR);
+				if (TickProfiler.ENABLED) {
+					profiler.lap(TickProfiler.MOVE);
+				}
+				creatures.get(i).see(timeStep * OBJECT_TIMESTEPS_PER_YEAR);
+				if (TickProfiler.ENABLED) {
+					profiler.lap(TickProfiler.SEE);
+				}
+			}
+		}
+		if (lineageLog != null) {
+			lineageLog.endTick(year, creatureIDUpTo);
+		}
+		recordHistory();
+		if (TickProfiler.ENABLED) {
+			profiler.lap(TickProfiler.RECORD);
+			profiler.count(TickProfiler.RAYS, creatures.isEmpty() ? 0
+					: (long) creatures.size() * creatures.get(0).visionAngles.length);
+			profiler.endTick(year);
+		}
+		if (Math.floor(fileSaveTimes[1] / imageSaveInterval) != Math.floor(year / imageSaveInterval)) {
+			prepareForFileSave(1);
+		}
+		if (Math.floor(fileSaveTimes[3] / textSaveInterval) != Math.floor(year / textSaveInterval)) {
+			prepareForFileSave(3);
+		}
+	}
+
+	private void recordHistory() {
+		double totalEnergy = 0;
+		double maxEnergy = 0;
+		int maxGeneration = 0;
+		for (int i = 0; i < creatures.size(); i++) {
+			Creature creature = creatures.get(i);
+			double energy = creature.getEnergy();
+			totalEnergy += energy;
+			maxEnergy = Math.max(maxEnergy, energy);
+			maxGeneration = Math.max(maxGeneration, creature.gen);
+		}
+		if (history.getTicks() % FOOD_SAMPLE_TICKS == 0) {
+			nearbyFood = tiles.getFoodNear(grid);
+		}
+		historySample[TimeSeries.POPULATION] = creatures.size();
+		historySample[TimeSeries.MEAN_ENERGY] = creatures.isEmpty() ? 0 : totalEnergy / creatures.size();
+		historySample[TimeSeries.MAX_ENERGY] = maxEnergy;
+		historySample[TimeSeries.MAX_GENERATION] = maxGeneration;
+		historySample[TimeSeries.BIRTHS] = birthsThisTick;
+		historySample[TimeSeries.DEATHS] = deathsThisTick;
+		historySample[TimeSeries.NEARBY_FOOD] = nearbyFood;
+		history.record(year, historySample);
+		if (metrics != null) {
+			metrics.tick(year, creatures.size(), maxGeneration, birthsThisTick, deathsThisTick);
+		}
+		birthsThisTick = 0;
+		deathsThisTick = 0;
+	}
+
+	private double getGrowthRate(double theTime) {
+		double temperatureRange = MAX_TEMPERATURE - MIN_TEMPERATURE;
+		return MIN_TEMPERATURE + temperatureRange * 0.5f - temperatureRange * 0.5f * Math.cos(theTime * 2 * Math.PI);
+	}
+
+	double getGrowthOverTimeRange(double startTime, double endTime) {
+		double temperatureRange = MAX_TEMPERATURE - MIN_TEMPERATURE;
+		double m = MIN_TEMPERATURE + temperatureRange * 0.5f;
+		return (endTime - startTime) * m + (temperatureRange / Math.PI / 4.0f)
+				* (Math.sin(2 * Math.PI * startTime) - Math.sin(2 * Math.PI * endTime));
+	}
+
+	double getSeason() {
+		return (year % 1.0f);
+	}
+
+	boolean setMinTemperature(float temp) {
+		MIN_TEMPERATURE = tempBounds(THERMOMETER_MIN + temp * (THERMOMETER_MAX - THERMOMETER_MIN));
+		if (MIN_TEMPERATURE > MAX_TEMPERATURE) {
+			float placeHolder = MAX_TEMPERATURE;
+			MAX_TEMPERATURE = MIN_TEMPERATURE;
+			MIN_TEMPERATURE = placeHolder;
+			return true;
+		}
+		return false;
+	}
+
+	boolean setMaxTemperature(float temp) {
+		MAX_TEMPERATURE = tempBounds(THERMOMETER_MIN + temp * (THERMOMETER_MAX - THERMOMETER_MIN));
+		if (MIN_TEMPERATURE > MAX_TEMPERATURE) {
+			float placeHolder = MAX_TEMPERATURE;
+			MAX_TEMPERATURE = MIN_TEMPERATURE;
+			MIN_TEMPERATURE = placeHolder;
+			return true;
+		}
+		return false;
+	}
+
+	private float tempBounds(float temp) {
+		return Math.min(Math.max(temp, THERMOMETER_MIN), THERMOMETER_MAX);
+	}
+
+	float getHighTempProportion() {
+		return (MAX_TEMPERATURE - THERMOMETER_MIN) / (THERMOMETER_MAX - THERMOMETER_MIN);
+	}
+
+	float getLowTempProportion() {
+		return (MIN_TEMPERATURE - THERMOMETER_MIN) / (THERMOMETER_MAX - THERMOMETER_MIN);
+	}
+
+	private void maintainCreatureMinimum(boolean choosePreexisting) {
+		while (creatures.size() < creatureMinimum) {
+			if (choosePreexisting) {
+				Creature c = getRandomCreature();
+				c.addEnergy(c.SAFE_SIZE);
+				c.reproduce(c.SAFE_SIZE, timeStep);
+			} else {
+				Creature creature = new Creature(this);
+				creatures.add(creature);
+				birthsThisTick++;
+				if (lineageLog != null) {
+					lineageLog.birth(creature, new Creature[0]);
+				}
+			}
+		}
+	}
+
+	private Creature getRandomCreature() {
+		int index = (int) (rng.random(0, creatures.size()));
+		return creatures.get(index);
+	}
+
+	private double getRandomSize() {
+		return Math.pow(rng.random(MIN_ROCK_ENERGY_BASE, MAX_ROCK_ENERGY_BASE), 4);
+	}
+
+	void prepareForFileSave(int type) {
+		fileSaveTimes[type] = -999999;
+	}
+
+	/**
+	 * Writes whatever prepareForFileSave() asked for. Returns whether it
+	 * wrote anything.
+	 */
+	boolean fileSave() {
+		boolean saved = false;
+		for (int i = 0; i < 4; i++) {
+			if (fileSaveTimes[i] < -99999) {
+				double pending = fileSaveTimes[i];
+				fileSaveTimes[i] = year;
+				long start = System.nanoTime();
+				if (i < 2) {
+					if (imageSaver != null) {
+						imageSaver.saveImage(getNextFileName(i));
+					}
+				} else if (!saveCheckpoint(getNextFileName(i), i == 3 ? autosaves : null)) {
+					// The writer is still busy with earlier ones; try again
+					// next tick.
+					fileSaveTimes[i] = pending;
+					continue;
+				}
+				if (i == 3 && metrics != null) {
+					double stallMillis = (System.nanoTime() - start) / 1e6;
+					metrics.autosaved(stallMillis,
+							checkpointWriter != null ? checkpointWriter.getLastLatencyMillis() : stallMillis);
+				}
+				fileSaveCounts[i]++;
+				saved = true;
+			}
+		}
+		return saved;
+	}
+
+	/**
+	 * Starts keeping SimulationMetrics and registers them over JMX, under
+	 * evolv.io:type=SimulationMetrics with this board's seed.
+	 */
+	public void registerMetrics() throws JMException {
+		SimulationMetrics metrics = new SimulationMetrics(SEED);
+		metrics.register();
+		this.metrics = metrics;
+	}
+
+	public void unregisterMetrics() throws JMException {
+		if (metrics != null) {
+			metrics.unregister();
+			metrics = null;
+		}
+	}
+
+	/**
+	 * Autosaves go in a chain of keyframes and deltas; anything else is
+	 * saved whole.
+	 */
+	private boolean saveCheckpoint(String fileName, CheckpointChain chain) {
+		Path path = Paths.get(fileName);
+		if (checkpointWriter != null) {
+			return checkpointWriter.offer(this, path, chain);
+		}
+		try {
+			Checkpoint checkpoint = Checkpoint.capture(this);
+			if (chain != null) {
+				chain.save(checkpoint, path);
+			} else {
+				checkpoint.save(path);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return true;
+	}
+
+	public Creature getCreatureAt(float x, float y) {
+		return grid.creatureAt(x, y);
+	}
+
+	public Creature getCreatureById(int id) {
+		for (int i = 0; i < creatures.size(); i++) {
+			if (creatures.get(i).id == id) {
+				return creatures.get(i);
+			}
+		}
+		return null;
+	}
+
+	public void unselect() {
+		selectedCreature = null;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,188 @@
+package evolv.io;
+
+import java.util.ArrayList;
+
+class Brain {
+	// Brain
+	final int MEMORY_COUNT = 1;
+	final int BRAIN_WIDTH = 3;
+	final int BRAIN_HEIGHT = 11 + MEMORY_COUNT + 1;
+	final double AXON_START_MUTABILITY = 0.0005f;
+	final double STARTING_AXON_VARIABILITY = 1.0f;
+	final double MUTABILITY_MUTABILITY = 0.7f;
+	final int MUTATE_POWER = 9;
+	final double MUTATE_MULTI = Math.pow(0.5f, MUTATE_POWER);
+	final int AXON_COUNT = (BRAIN_WIDTH - 1) * (BRAIN_HEIGHT - 1) * BRAIN_HEIGHT;
+
+	// One row of BRAIN_HEIGHT input weights per neuron in layers 1 and up,
+	// layer by layer; see weightIndex().
+	double[] weights;
+	double[] mutabilities;
+	double[][] neurons;
+	Genome genome; // As the lineage log archived it, or null if it didn't
+
+	// labels
+	String[] inputLabels = new String[BRAIN_HEIGHT];
+	String[] outputLabels = new String[BRAIN_HEIGHT];
+
+	public Brain(Rng rng, double[] tweights, double[] tmutabilities, double[][] tneurons) {
+		// initialize brain
+		if (tweights == null) {
+			weights = new double[AXON_COUNT];
+			mutabilities = new double[AXON_COUNT];
+			for (int x = 0; x < BRAIN_WIDTH - 1; x++) {
+				for (int y = 0; y < BRAIN_HEIGHT; y++) {
+					for (int z = 0; z < BRAIN_HEIGHT - 1; z++) {
+						int axon = weightIndex(x, y, z);
+						weights[axon] = (rng.nextDouble() * 2 - 1) * STARTING_AXON_VARIABILITY;
+						mutabilities[axon] = AXON_START_MUTABILITY;
+					}
+				}
+			}
+			neurons = new double[BRAIN_WIDTH][BRAIN_HEIGHT];
+			for (int x = 0; x < BRAIN_WIDTH; x++) {
+				for (int y = 0; y < BRAIN_HEIGHT; y++) {
+					if (y == BRAIN_HEIGHT - 1) {
+						neurons[x][y] = 1;
+					} else {
+						neurons[x][y] = 0;
+					}
+				}
+			}
+		} else {
+			weights = tweights;
+			mutabilities = tmutabilities;
+			neurons = tneurons;
+		}
+
+		// initialize labels
+		String[] baseInput = { "0Hue", "0Sat", "0Bri", "1Hue", "1Sat", "1Bri", "2Hue", "2Sat", "2Bri", "Size",
+				"MHue" };
+		String[] baseOutput = { "BHue", "Accel.", "Turn", "Eat", "Fight", "Birth", "How funny?", "How popular?",
+				"How generous?", "How smart?", "MHue" };
+		for (int i = 0; i < 11; i++) {
+			inputLabels[i] = baseInput[i];
+			outputLabels[i] = baseOutput[i];
+		}
+		for (int i = 0; i < MEMORY_COUNT; i++) {
+			inputLabels[i + 11] = "memory";
+			outputLabels[i + 11] = "memory";
+		}
+		inputLabels[BRAIN_HEIGHT - 1] = "const.";
+		outputLabels[BRAIN_HEIGHT - 1] = "const.";
+	}
+
+	// this would be a static method, but processing doesn't like mixing
+	// types
+	public Brain evolve(Rng rng, ArrayList<Creature> parents) {
+		int parentsTotal = parents.size();
+		double[] newWeights = new double[AXON_COUNT];
+		double[] newMutabilities = new double[AXON_COUNT];
+		double[][] newNeurons = new double[BRAIN_WIDTH][BRAIN_HEIGHT];
+		float randomParentRotation = rng.random(0, 1);
+		// Walked in the same order as the Axon[][][] this replaced, so a seed
+		// still draws the same mutations.
+		for (int x = 0; x < BRAIN_WIDTH - 1; x++) {
+			for (int y = 0; y < BRAIN_HEIGHT; y++) {
+				for (int z = 0; z < BRAIN_HEIGHT - 1; z++) {
+					float axonAngle = (float) Math.atan2((y + z) / 2.0f - BRAIN_HEIGHT / 2.0f, x - BRAIN_WIDTH / 2)
+							/ (2 * (float) Math.PI) + (float) Math.PI;
+					Brain parentForAxon = parents
+							.get((int) (((axonAngle + randomParentRotation) % 1.0f) * parentsTotal)).brain;
+					int axon = weightIndex(x, y, z);
+					double mutability = parentForAxon.mutabilities[axon];
+					double mutabilityMutate = Math.pow(0.5f, pmRan(rng) * MUTABILITY_MUTABILITY);
+					newWeights[axon] = parentForAxon.weights[axon] + r(rng) * mutability / MUTATE_MULTI;
+					newMutabilities[axon] = mutability * mutabilityMutate;
+				}
+			}
+		}
+		for (int x = 0; x < BRAIN_WIDTH; x++) {
+			for (int y = 0; y < BRAIN_HEIGHT; y++) {
+				float axonAngle = (float) Math.atan2(y - BRAIN_HEIGHT / 2.0f, x - BRAIN_WIDTH / 2) / (2 * (float) Math.PI)
+						+ (float) Math.PI;
+				Brain parentForAxon = parents
+						.get((int) (((axonAngle + randomParentRotation) % 1.0f) * parentsTotal)).brain;
+				newNeurons[x][y] = parentForAxon.neurons[x][y];
+			}
+		}
+		return new Brain(rng, newWeights, newMutabilities, newNeurons);
+	}
+
+	public void input(double[] inputs) {
+		int end = BRAIN_WIDTH - 1;
+		for (int i = 0; i < 11; i++) {
+			neurons[0][i] = inputs[i];
+		}
+		for (int i = 0; i < MEMORY_COUNT; i++) {
+			neurons[0][11 + i] = neurons[end][11 + i];
+		}
+		neurons[0][BRAIN_HEIGHT - 1] = 1;
+		for (int x = 1; x < BRAIN_WIDTH; x++) {
+			double[] previous = neurons[x - 1];
+			double[] layer = neurons[x];
+			int row = weightIndex(x - 1, 0, 0);
+			for (int y = 0; y < BRAIN_HEIGHT - 1; y++, row += BRAIN_HEIGHT) {
+				double total = 0;
+				for (int input = 0; input < BRAIN_HEIGHT; input++) {
+					total += previous[input] * weights[row + input];
+				}
+				if (x == BRAIN_WIDTH - 1) {
+					layer[y] = total;
+				} else {
+					layer[y] = sigmoid(total);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Works out layer x from layer x - 1 the way input() does, but on a flat
+	 * copy of the neurons laid out layer by layer from base.
+	 */
+	public void runLayer(int x, double[] flatNeurons, int base) {
+		int previous = base + (x - 1) * BRAIN_HEIGHT;
+		int layer = base + x * BRAIN_HEIGHT;
+		int row = weightIndex(x - 1, 0, 0);
+		boolean last = x == BRAIN_WIDTH - 1;
+		for (int y = 0; y < BRAIN_HEIGHT - 1; y++, row += BRAIN_HEIGHT) {
+			double total = 0;
+			for (int input = 0; input < BRAIN_HEIGHT; input++) {
+				total += flatNeurons[previous + input] * weights[row + input];
+			}
+			flatNeurons[layer + y] = last ? total : sigmoid(total);
+		}
+	}
+
+	/**
+	 * The weight from neuron input of layer x to neuron output of layer x + 1.
+	 */
+	public double getWeight(int x, int input, int output) {
+		return weights[weightIndex(x, input, output)];
+	}
+
+	private int weightIndex(int x, int input, int output) {
+		return (x * (BRAIN_HEIGHT - 1) + output) * BRAIN_HEIGHT + input;
+	}
+
+	public double[] outputs() {
+		int end = BRAIN_WIDTH - 1;
+		double[] output = new double[11];
+		for (int i = 0; i < 11; i++) {
+			output[i] = neurons[end][i];
+		}
+		return output;
+	}
+
+	private double r(Rng rng) {
+		return Math.pow(pmRan(rng), MUTATE_POWER);
+	}
+
+	private double pmRan(Rng rng) {
+		return rng.nextDouble() * 2 - 1;
+	}
+
+	private double sigmoid(double input) {
+		return 1.0f / (1.0f + Math.pow(2.71828182846f, -input));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package evolv.io;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs every creature's brain for a tick in one go, rather than one call to
+ * Brain.input() per creature between everything else it does. Inputs for the
+ * whole population are gathered into one flat matrix, the brains run a block
+ * of creatures at a time and one layer at a time across the block, and the
+ * results are copied back to each Brain before anyone acts.
+ *
+ * Every creature has its own weights, so this is many small matrix-vector
+ * products, not one big matrix product. Blocking keeps a block's neurons in
+ * cache while each layer sweeps over it, and blocks are what get spread over
+ * the pool. The sums are the same ones Brain.input() does, in the same
+ * order, so the results are identical.
+ */
+class BrainBatch {
+	// Creatures per block; their neurons take about 20kB.
+	static final int BLOCK = 64;
+
+	// BRAIN_WIDTH * BRAIN_HEIGHT neurons per creature, layer by layer
+	private double[] neurons = new double[0];
+
+	public void think(Creature[] creatures, int count, CreatureStore store, ForkJoinPool pool) {
+		if (count == 0) {
+			return;
+		}
+		Brain shape = creatures[0].brain;
+		int stride = shape.BRAIN_WIDTH * shape.BRAIN_HEIGHT;
+		if (neurons.length < count * stride) {
+			neurons = new double[Math.max(count * stride, neurons.length * 2)];
+		}
+		final double[] batch = neurons;
+		ParallelRange.run(pool, count, BLOCK, (from, to) -> {
+			for (int start = from; start < to; start += BLOCK) {
+				thinkBlock(creatures, start, Math.min(start + BLOCK, to), stride, store, batch);
+			}
+		});
+	}
+
+	private void thinkBlock(Creature[] creatures, int from, int to, int stride, CreatureStore store,
+			double[] batch) {
+		for (int i = from; i < to; i++) {
+			gather(creatures[i], store, batch, i * stride);
+		}
+		int width = creatures[from].brain.BRAIN_WIDTH;
+		for (int x = 1; x < width; x++) {
+			for (int i = from; i < to; i++) {
+				creatures[i].brain.runLayer(x, batch, i * stride);
+			}
+		}
+		for (int i = from; i < to; i++) {
+			scatter(creatures[i].brain, batch, i * stride);
+		}
+	}
+
+	/**
+	 * Fills in the input layer the way Creature.think() and Brain.input() do.
+	 */
+	private void gather(Creature creature, CreatureStore store, double[] batch, int base) {
+		Brain brain = creature.brain;
+		int end = brain.BRAIN_WIDTH - 1;
+		System.arraycopy(store.visionResults, creature.slot * CreatureStore.VISION_RESULT_COUNT, batch, base,
+				CreatureStore.VISION_RESULT_COUNT);
+		batch[base + 9] = store.energy[creature.slot];
+		batch[base + 10] = creature.mouthHue;
+		for (int i = 0; i < brain.MEMORY_COUNT; i++) {
+			batch[base + 11 + i] = brain.neurons[end][11 + i];
+		}
+		batch[base + brain.BRAIN_HEIGHT - 1] = 1;
+		// The last neuron of every later layer is a constant too, and feeds
+		// the layer after it.
+		for (int x = 1; x < brain.BRAIN_WIDTH; x++) {
+			batch[base + (x + 1) * brain.BRAIN_HEIGHT - 1] = brain.neurons[x][brain.BRAIN_HEIGHT - 1];
+		}
+	}
+
+	private void scatter(Brain brain, double[] batch, int base) {
+		int height = brain.BRAIN_HEIGHT;
+		System.arraycopy(batch, base, brain.neurons[0], 0, height);
+		// Past the input layer the last neuron is a constant; leave it be.
+		for (int x = 1; x < brain.BRAIN_WIDTH; x++) {
+			System.arraycopy(batch, base + x * height, brain.neurons[x], 0, height - 1);
+		}
+	}
+}
@@ -0,0 +1,636 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Everything needed to carry a board on exactly where it left off: tiles,
+ * rocks, creatures with their brains and random streams, the board's own
+ * random stream, the year and its history. A restored board plays out the
+ * same as the one that was saved, and its history carries on from there.
+ *
+ * capture() copies what the simulation will go on changing and shares what
+ * it never changes again, like brain weights, so taking one is cheap. Of the
+ * tiles only the food in chunks something has touched is kept; everything
+ * else about them comes back from the seed. Written out it's a versioned
+ * binary file, mostly big runs of doubles in the same column layout the
+ * board keeps them in. That's a keyframe; CheckpointDelta writes one as the
+ * difference from the last.
+ */
+class Checkpoint {
+	static final int MAGIC = 0x4556494F; // "EVIO"
+	static final int VERSION = 6;
+	static final String FILE_ENDING = ".evio";
+	static final int KEYFRAME = 0;
+	static final int DELTA = 1;
+
+	// What's kept per body, in this order. Creatures have the extra four.
+	static final int PX = 0;
+	static final int PY = 1;
+	static final int VX = 2;
+	static final int VY = 3;
+	static final int ENERGY = 4;
+	static final int DENSITY = 5;
+	static final int HUE = 6;
+	static final int SATURATION = 7;
+	static final int BRIGHTNESS = 8;
+	static final int BIRTH_TIME = 9;
+	static final int FIGHT_LEVEL = 10;
+	static final int ROCK_VALUES = 11;
+	static final int ROTATION = 11;
+	static final int VR = 12;
+	static final int MOUTH_HUE = 13;
+	static final int DEATH_CAUSE = 14; // Set by fights and births after one tick's metabolize() for the next's
+	static final int CREATURE_VALUES = 15;
+
+	// Board
+	int boardWidth;
+	int boardHeight;
+	int seed;
+	int rocksToAdd;
+	int creatureMinimum;
+	int creatureIDUpTo;
+	float minTemperature;
+	float maxTemperature;
+	double year;
+	double timeStep;
+	double temperature;
+	double imageSaveInterval;
+	double textSaveInterval;
+	String folder;
+	boolean userControl;
+	long rngState0;
+	long rngState1;
+	int[] fileSaveCounts;
+	double[] fileSaveTimes;
+	double nearbyFood;
+	TimeSeries history;
+
+	// Tiles, by chunk as numbered in TileField, with TileField.CHUNK_TILES
+	// each. A chunk nothing has touched yet is null, and is made from the
+	// noise again the same as it would have been.
+	float stepSize;
+	double[][] foodLevel;
+	double[][] lastUpdateTime;
+
+	// Rocks
+	int rockCount;
+	double[] rockValues; // ROCK_VALUES per rock
+
+	// Creatures, in creature store slot order
+	int creatureCount;
+	int visionRays;
+	int brainWidth;
+	int brainHeight;
+	int[] listOrder; // The slot of each creature in board.creatures, in order
+	double[] creatureValues; // CREATURE_VALUES per creature
+	double[] previousEnergy; // As in CreatureStore
+	double[] visionResults; // As in CreatureStore
+	double[] visionOccludedX; // visionRays per creature
+	double[] visionOccludedY;
+	int[] id;
+	int[] gen;
+	String[] name;
+	String[] parents;
+	long[] rngStates; // Two per creature
+	double[][] weights; // The brains' own arrays, which they never change
+	double[][] mutabilities;
+	double[] neurons; // brainWidth * brainHeight per creature, layer by layer
+
+	public static Checkpoint capture(Board board) {
+		Checkpoint checkpoint = new Checkpoint();
+		checkpoint.captureBoard(board);
+		checkpoint.captureTiles(board.tiles);
+		checkpoint.captureRocks(board.rocks);
+		checkpoint.captureCreatures(board);
+		return checkpoint;
+	}
+
+	private void captureBoard(Board board) {
+		boardWidth = board.boardWidth;
+		boardHeight = board.boardHeight;
+		seed = board.SEED;
+		rocksToAdd = board.ROCKS_TO_ADD;
+		creatureMinimum = board.creatureMinimum;
+		creatureIDUpTo = board.creatureIDUpTo;
+		minTemperature = board.MIN_TEMPERATURE;
+		maxTemperature = board.MAX_TEMPERATURE;
+		year = board.year;
+		timeStep = board.timeStep;
+		temperature = board.temperature;
+		imageSaveInterval = board.imageSaveInterval;
+		textSaveInterval = board.textSaveInterval;
+		folder = board.folder;
+		userControl = board.userControl;
+		rngState0 = board.rng.state0();
+		rngState1 = board.rng.state1();
+		fileSaveCounts = board.fileSaveCounts.clone();
+		fileSaveTimes = board.fileSaveTimes.clone();
+		nearbyFood = board.nearbyFood;
+		history = board.history.copy();
+	}
+
+	private void captureTiles(TileField tiles) {
+		stepSize = tiles.stepSize;
+		foodLevel = new double[tiles.getChunkCount()][];
+		lastUpdateTime = new double[foodLevel.length][];
+		for (int number = 0; number < foodLevel.length; number++) {
+			TileField.Chunk chunk = tiles.peekChunk(number);
+			if (chunk != null) {
+				foodLevel[number] = chunk.foodLevel.clone();
+				lastUpdateTime[number] = chunk.lastUpdateTime.clone();
+			}
+		}
+	}
+
+	private void captureRocks(ArrayList<SoftBody> rocks) {
+		rockCount = rocks.size();
+		rockValues = new double[rockCount * ROCK_VALUES];
+		for (int i = 0; i < rockCount; i++) {
+			captureBody(rocks.get(i), rockValues, i * ROCK_VALUES);
+		}
+	}
+
+	private void captureCreatures(Board board) {
+		CreatureStore store = board.creatureStore;
+		Creature first = store.size > 0 ? store.creatures[0] : null;
+		allocateCreatures(store.size, first != null ? first.visionAngles.length : 0,
+				first != null ? first.brain.BRAIN_WIDTH : 0, first != null ? first.brain.BRAIN_HEIGHT : 0);
+		for (int i = 0; i < creatureCount; i++) {
+			listOrder[i] = board.creatures.get(i).slot;
+		}
+		System.arraycopy(store.previousEnergy, 0, previousEnergy, 0, previousEnergy.length);
+		System.arraycopy(store.visionResults, 0, visionResults, 0, visionResults.length);
+		for (int slot = 0; slot < creatureCount; slot++) {
+			Creature creature = store.creatures[slot];
+			int base = slot * CREATURE_VALUES;
+			captureBody(creature, creatureValues, base);
+			creatureValues[base + ROTATION] = store.rotation[slot];
+			creatureValues[base + VR] = store.vr[slot];
+			creatureValues[base + MOUTH_HUE] = creature.mouthHue;
+			creatureValues[base + DEATH_CAUSE] = creature.deathCause;
+			System.arraycopy(creature.visionOccludedX, 0, visionOccludedX, slot * visionRays, visionRays);
+			System.arraycopy(creature.visionOccludedY, 0, visionOccludedY, slot * visionRays, visionRays);
+			id[slot] = creature.id;
+			gen[slot] = creature.gen;
+			name[slot] = creature.name;
+			parents[slot] = creature.parents;
+			rngStates[slot * 2] = creature.rng.state0();
+			rngStates[slot * 2 + 1] = creature.rng.state1();
+			Brain brain = creature.brain;
+			weights[slot] = brain.weights;
+			mutabilities[slot] = brain.mutabilities;
+			for (int x = 0; x < brainWidth; x++) {
+				System.arraycopy(brain.neurons[x], 0, neurons, (slot * brainWidth + x) * brainHeight, brainHeight);
+			}
+		}
+	}
+
+	private static void captureBody(SoftBody body, double[] into, int base) {
+		into[base + PX] = body.getPx();
+		into[base + PY] = body.getPy();
+		into[base + VX] = body.getVx();
+		into[base + VY] = body.getVy();
+		into[base + ENERGY] = body.getEnergy();
+		into[base + DENSITY] = body.density;
+		into[base + HUE] = body.hue;
+		into[base + SATURATION] = body.saturation;
+		into[base + BRIGHTNESS] = body.brightness;
+		into[base + BIRTH_TIME] = body.birthTime;
+		into[base + FIGHT_LEVEL] = body.fightLevel;
+	}
+
+	/**
+	 * A new board in exactly the state this was captured from. Nothing
+	 * running on the old one, like the phased tick or the image saver, comes
+	 * along; set those up again on the new board.
+	 */
+	public Board restore() {
+		Board board = new Board(boardWidth, boardHeight, stepSize, minTemperature, maxTemperature, rocksToAdd,
+				creatureMinimum, seed, new Rng(rngState0, rngState1), folder, timeStep);
+		board.creatureIDUpTo = creatureIDUpTo;
+		board.year = year;
+		board.temperature = temperature;
+		board.imageSaveInterval = imageSaveInterval;
+		board.textSaveInterval = textSaveInterval;
+		board.userControl = userControl;
+		board.fileSaveCounts = fileSaveCounts.clone();
+		board.fileSaveTimes = fileSaveTimes.clone();
+		board.nearbyFood = nearbyFood;
+		board.history = history.copy();
+		restoreTiles(board.tiles);
+		restoreRocks(board);
+		restoreCreatures(board);
+		board.grid.rebuild(board.rocks, board.creatures);
+		return board;
+	}
+
+	private void restoreTiles(TileField tiles) {
+		for (int number = 0; number < foodLevel.length; number++) {
+			if (foodLevel[number] != null) {
+				tiles.restore(number, foodLevel[number], lastUpdateTime[number]);
+			}
+		}
+	}
+
+	private void restoreRocks(Board board) {
+		for (int i = 0; i < rockCount; i++) {
+			int base = i * ROCK_VALUES;
+			SoftBody rock = new SoftBody(rockValues[base + PX], rockValues[base + PY], rockValues[base + VX],
+					rockValues[base + VY], rockValues[base + ENERGY], rockValues[base + DENSITY],
+					rockValues[base + HUE], rockValues[base + SATURATION], rockValues[base + BRIGHTNESS], board);
+			rock.birthTime = rockValues[base + BIRTH_TIME];
+			rock.fightLevel = rockValues[base + FIGHT_LEVEL];
+			board.rocks.add(rock);
+		}
+	}
+
+	private void restoreCreatures(Board board) {
+		CreatureStore store = board.creatureStore;
+		for (int slot = 0; slot < creatureCount; slot++) {
+			double[][] brainNeurons = new double[brainWidth][brainHeight];
+			for (int x = 0; x < brainWidth; x++) {
+				System.arraycopy(neurons, (slot * brainWidth + x) * brainHeight, brainNeurons[x], 0, brainHeight);
+			}
+			Brain brain = new Brain(null, weights[slot], mutabilities[slot], brainNeurons);
+			if (brain.BRAIN_WIDTH != brainWidth || brain.BRAIN_HEIGHT != brainHeight) {
+				throw new IllegalStateException("Checkpoint brains are " + brainWidth + " by " + brainHeight
+						+ " neurons, not " + brain.BRAIN_WIDTH + " by " + brain.BRAIN_HEIGHT);
+			}
+			Creature creature = new Creature(board, new Rng(rngStates[slot * 2], rngStates[slot * 2 + 1]), brain);
+			int base = slot * CREATURE_VALUES;
+			store.px[slot] = creatureValues[base + PX];
+			store.py[slot] = creatureValues[base + PY];
+			store.vx[slot] = creatureValues[base + VX];
+			store.vy[slot] = creatureValues[base + VY];
+			store.energy[slot] = creatureValues[base + ENERGY];
+			store.density[slot] = creatureValues[base + DENSITY];
+			store.rotation[slot] = creatureValues[base + ROTATION];
+			store.vr[slot] = creatureValues[base + VR];
+			creature.density = creatureValues[base + DENSITY];
+			creature.hue = creatureValues[base + HUE];
+			creature.saturation = creatureValues[base + SATURATION];
+			creature.brightness = creatureValues[base + BRIGHTNESS];
+			creature.birthTime = creatureValues[base + BIRTH_TIME];
+			creature.fightLevel = creatureValues[base + FIGHT_LEVEL];
+			creature.mouthHue = creatureValues[base + MOUTH_HUE];
+			creature.deathCause = (int) creatureValues[base + DEATH_CAUSE];
+			System.arraycopy(visionOccludedX, slot * visionRays, creature.visionOccludedX, 0, visionRays);
+			System.arraycopy(visionOccludedY, slot * visionRays, creature.visionOccludedY, 0, visionRays);
+			creature.id = id[slot];
+			creature.gen = gen[slot];
+			creature.name = name[slot];
+			creature.parents = parents[slot];
+		}
+		System.arraycopy(previousEnergy, 0, store.previousEnergy, 0, previousEnergy.length);
+		System.arraycopy(visionResults, 0, store.visionResults, 0, visionResults.length);
+		for (int i = 0; i < creatureCount; i++) {
+			board.creatures.add(store.creatures[listOrder[i]]);
+		}
+	}
+
+	/**
+	 * How many doubles creatureState() fills in per creature.
+	 */
+	int creatureStateLength() {
+		return CREATURE_VALUES + CreatureStore.ENERGY_HISTORY_LENGTH + CreatureStore.VISION_RESULT_COUNT
+				+ 2 * visionRays + brainWidth * brainHeight;
+	}
+
+	/**
+	 * Gathers every double that can change over a creature's life into one
+	 * run, in a fixed order, for deltas to compare.
+	 */
+	void creatureState(int slot, double[] into) {
+		int offset = 0;
+		offset = copy(creatureValues, slot, CREATURE_VALUES, into, offset);
+		offset = copy(previousEnergy, slot, CreatureStore.ENERGY_HISTORY_LENGTH, into, offset);
+		offset = copy(visionResults, slot, CreatureStore.VISION_RESULT_COUNT, into, offset);
+		offset = copy(visionOccludedX, slot, visionRays, into, offset);
+		offset = copy(visionOccludedY, slot, visionRays, into, offset);
+		copy(neurons, slot, brainWidth * brainHeight, into, offset);
+	}
+
+	/**
+	 * The other way round from creatureState().
+	 */
+	void setCreatureState(int slot, double[] from) {
+		int offset = 0;
+		offset = paste(from, offset, creatureValues, slot, CREATURE_VALUES);
+		offset = paste(from, offset, previousEnergy, slot, CreatureStore.ENERGY_HISTORY_LENGTH);
+		offset = paste(from, offset, visionResults, slot, CreatureStore.VISION_RESULT_COUNT);
+		offset = paste(from, offset, visionOccludedX, slot, visionRays);
+		offset = paste(from, offset, visionOccludedY, slot, visionRays);
+		paste(from, offset, neurons, slot, brainWidth * brainHeight);
+	}
+
+	private static int copy(double[] column, int slot, int perCreature, double[] into, int offset) {
+		System.arraycopy(column, slot * perCreature, into, offset, perCreature);
+		return offset + perCreature;
+	}
+
+	private static int paste(double[] from, int offset, double[] column, int slot, int perCreature) {
+		System.arraycopy(from, offset, column, slot * perCreature, perCreature);
+		return offset + perCreature;
+	}
+
+	/**
+	 * Makes room for count creatures of the given shape, all zero.
+	 */
+	void allocateCreatures(int count, int visionRays, int brainWidth, int brainHeight) {
+		creatureCount = count;
+		this.visionRays = visionRays;
+		this.brainWidth = brainWidth;
+		this.brainHeight = brainHeight;
+		listOrder = new int[count];
+		creatureValues = new double[count * CREATURE_VALUES];
+		previousEnergy = new double[count * CreatureStore.ENERGY_HISTORY_LENGTH];
+		visionResults = new double[count * CreatureStore.VISION_RESULT_COUNT];
+		visionOccludedX = new double[count * visionRays];
+		visionOccludedY = new double[count * visionRays];
+		id = new int[count];
+		gen = new int[count];
+		name = new String[count];
+		parents = new String[count];
+		rngStates = new long[count * 2];
+		weights = new double[count][];
+		mutabilities = new double[count][];
+		neurons = new double[count * brainWidth * brainHeight];
+	}
+
+	/**
+	 * Everything about one creature, for a delta to describe a newborn.
+	 */
+	void writeCreature(int slot, BinaryOutput out, double[] scratch) throws IOException {
+		creatureState(slot, scratch);
+		out.writeDoubles(scratch, 0, creatureStateLength());
+		out.writeInt(id[slot]);
+		out.writeInt(gen[slot]);
+		out.writeString(name[slot]);
+		out.writeString(parents[slot]);
+		out.writeLong(rngStates[slot * 2]);
+		out.writeLong(rngStates[slot * 2 + 1]);
+		out.writeInt(weights[slot].length);
+		out.writeDoubles(weights[slot], 0, weights[slot].length);
+		out.writeDoubles(mutabilities[slot], 0, mutabilities[slot].length);
+	}
+
+	void readCreature(int slot, BinaryInput in, double[] scratch) throws IOException {
+		in.readDoubles(scratch, 0, creatureStateLength());
+		setCreatureState(slot, scratch);
+		id[slot] = in.readInt();
+		gen[slot] = in.readInt();
+		name[slot] = in.readString();
+		parents[slot] = in.readString();
+		rngStates[slot * 2] = in.readLong();
+		rngStates[slot * 2 + 1] = in.readLong();
+		int axons = in.readInt();
+		weights[slot] = readDoubles(in, axons);
+		mutabilities[slot] = readDoubles(in, axons);
+	}
+
+	public void write(BinaryOutput out) throws IOException {
+		writeHeader(out, KEYFRAME, Double.NaN);
+		writeBoard(out);
+
+		out.writeFloat(stepSize);
+		out.writeInt(foodLevel.length);
+		int made = 0;
+		for (double[] food : foodLevel) {
+			if (food != null) {
+				made++;
+			}
+		}
+		out.writeInt(made);
+		for (int number = 0; number < foodLevel.length; number++) {
+			if (foodLevel[number] != null) {
+				out.writeInt(number);
+				out.writeDoubles(foodLevel[number], 0, TileField.CHUNK_TILES);
+				out.writeDoubles(lastUpdateTime[number], 0, TileField.CHUNK_TILES);
+			}
+		}
+
+		writeRocks(out);
+
+		out.writeInt(creatureCount);
+		out.writeInt(visionRays);
+		out.writeInt(brainWidth);
+		out.writeInt(brainHeight);
+		out.writeInts(listOrder, 0, creatureCount);
+		out.writeDoubles(creatureValues, 0, creatureValues.length);
+		out.writeDoubles(previousEnergy, 0, previousEnergy.length);
+		out.writeDoubles(visionResults, 0, visionResults.length);
+		out.writeDoubles(visionOccludedX, 0, visionOccludedX.length);
+		out.writeDoubles(visionOccludedY, 0, visionOccludedY.length);
+		out.writeInts(id, 0, creatureCount);
+		out.writeInts(gen, 0, creatureCount);
+		for (int i = 0; i < creatureCount; i++) {
+			out.writeString(name[i]);
+			out.writeString(parents[i]);
+		}
+		out.writeLongs(rngStates, 0, rngStates.length);
+		for (int i = 0; i < creatureCount; i++) {
+			out.writeInt(weights[i].length);
+			out.writeDoubles(weights[i], 0, weights[i].length);
+			out.writeDoubles(mutabilities[i], 0, mutabilities[i].length);
+		}
+		out.writeDoubles(neurons, 0, neurons.length);
+		history.writeState(out, null);
+	}
+
+	/**
+	 * Reads a keyframe. Deltas only make sense on top of the checkpoint
+	 * before them; CheckpointChain reads those.
+	 */
+	public static Checkpoint read(BinaryInput in) throws IOException {
+		Header header = readHeader(in);
+		if (header.kind != KEYFRAME) {
+			throw new IOException("This checkpoint is a delta on year " + header.baseYear
+					+ "; load it through CheckpointChain");
+		}
+		return readKeyframe(header, in);
+	}
+
+	static Checkpoint readKeyframe(Header header, BinaryInput in) throws IOException {
+		Checkpoint checkpoint = new Checkpoint();
+		checkpoint.year = header.year;
+		checkpoint.readBoard(in);
+
+		checkpoint.stepSize = in.readFloat();
+		int chunks = in.readInt();
+		checkpoint.foodLevel = new double[chunks][];
+		checkpoint.lastUpdateTime = new double[chunks][];
+		int made = in.readInt();
+		for (int i = 0; i < made; i++) {
+			int number = in.readInt();
+			checkpoint.foodLevel[number] = readDoubles(in, TileField.CHUNK_TILES);
+			checkpoint.lastUpdateTime[number] = readDoubles(in, TileField.CHUNK_TILES);
+		}
+
+		checkpoint.readRocks(in);
+
+		int count = in.readInt();
+		checkpoint.allocateCreatures(count, in.readInt(), in.readInt(), in.readInt());
+		in.readInts(checkpoint.listOrder, 0, count);
+		in.readDoubles(checkpoint.creatureValues, 0, checkpoint.creatureValues.length);
+		in.readDoubles(checkpoint.previousEnergy, 0, checkpoint.previousEnergy.length);
+		in.readDoubles(checkpoint.visionResults, 0, checkpoint.visionResults.length);
+		in.readDoubles(checkpoint.visionOccludedX, 0, checkpoint.visionOccludedX.length);
+		in.readDoubles(checkpoint.visionOccludedY, 0, checkpoint.visionOccludedY.length);
+		in.readInts(checkpoint.id, 0, count);
+		in.readInts(checkpoint.gen, 0, count);
+		for (int i = 0; i < count; i++) {
+			checkpoint.name[i] = in.readString();
+			checkpoint.parents[i] = in.readString();
+		}
+		in.readLongs(checkpoint.rngStates, 0, count * 2);
+		for (int i = 0; i < count; i++) {
+			int axons = in.readInt();
+			checkpoint.weights[i] = readDoubles(in, axons);
+			checkpoint.mutabilities[i] = readDoubles(in, axons);
+		}
+		in.readDoubles(checkpoint.neurons, 0, checkpoint.neurons.length);
+		checkpoint.history = TimeSeries.readState(in, null);
+		return checkpoint;
+	}
+
+	/**
+	 * What kind of checkpoint a file holds and for when, read without the
+	 * rest of it.
+	 */
+	static class Header {
+		int kind;
+		double year;
+		double baseYear; // For a delta, the year of the checkpoint it builds on
+	}
+
+	void writeHeader(BinaryOutput out, int kind, double baseYear) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(kind);
+		out.writeDouble(year);
+		out.writeDouble(baseYear);
+	}
+
+	static Header readHeader(BinaryInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not an evolv.io checkpoint");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Can't read checkpoint version " + version + ", only " + VERSION);
+		}
+		Header header = new Header();
+		header.kind = in.readInt();
+		header.year = in.readDouble();
+		header.baseYear = in.readDouble();
+		return header;
+	}
+
+	/**
+	 * Everything about the board but its tiles and bodies. Small, so deltas
+	 * write it whole too.
+	 */
+	void writeBoard(BinaryOutput out) throws IOException {
+		out.writeInt(boardWidth);
+		out.writeInt(boardHeight);
+		out.writeInt(seed);
+		out.writeInt(rocksToAdd);
+		out.writeInt(creatureMinimum);
+		out.writeInt(creatureIDUpTo);
+		out.writeFloat(minTemperature);
+		out.writeFloat(maxTemperature);
+		out.writeDouble(timeStep);
+		out.writeDouble(temperature);
+		out.writeDouble(imageSaveInterval);
+		out.writeDouble(textSaveInterval);
+		out.writeString(folder);
+		out.writeInt(userControl ? 1 : 0);
+		out.writeLong(rngState0);
+		out.writeLong(rngState1);
+		out.writeInt(fileSaveCounts.length);
+		out.writeInts(fileSaveCounts, 0, fileSaveCounts.length);
+		out.writeDoubles(fileSaveTimes, 0, fileSaveTimes.length);
+		out.writeDouble(nearbyFood);
+	}
+
+	void readBoard(BinaryInput in) throws IOException {
+		boardWidth = in.readInt();
+		boardHeight = in.readInt();
+		seed = in.readInt();
+		rocksToAdd = in.readInt();
+		creatureMinimum = in.readInt();
+		creatureIDUpTo = in.readInt();
+		minTemperature = in.readFloat();
+		maxTemperature = in.readFloat();
+		timeStep = in.readDouble();
+		temperature = in.readDouble();
+		imageSaveInterval = in.readDouble();
+		textSaveInterval = in.readDouble();
+		folder = in.readString();
+		userControl = in.readInt() != 0;
+		rngState0 = in.readLong();
+		rngState1 = in.readLong();
+		fileSaveCounts = new int[in.readInt()];
+		fileSaveTimes = new double[fileSaveCounts.length];
+		in.readInts(fileSaveCounts, 0, fileSaveCounts.length);
+		in.readDoubles(fileSaveTimes, 0, fileSaveTimes.length);
+		nearbyFood = in.readDouble();
+	}
+
+	void writeRocks(BinaryOutput out) throws IOException {
+		out.writeInt(rockCount);
+		out.writeDoubles(rockValues, 0, rockValues.length);
+	}
+
+	void readRocks(BinaryInput in) throws IOException {
+		rockCount = in.readInt();
+		rockValues = readDoubles(in, rockCount * ROCK_VALUES);
+	}
+
+	static double[] readDoubles(BinaryInput in, int length) throws IOException {
+		double[] values = new double[length];
+		in.readDoubles(values, 0, length);
+		return values;
+	}
+
+	public void save(Path path) throws IOException {
+		writeFile(path, this::write);
+	}
+
+	public static Checkpoint load(Path path) throws IOException {
+		try (BinaryInput in = open(path)) {
+			return read(in);
+		}
+	}
+
+	interface Contents {
+		void writeTo(BinaryOutput out) throws IOException;
+	}
+
+	/**
+	 * Writes to a file next to the target first and then moves it over, so a
+	 * crash halfway through never leaves a broken checkpoint behind.
+	 */
+	static void writeFile(Path path, Contents contents) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		Path partial = Paths.get(path + ".part");
+		try (BinaryOutput out = new BinaryOutput(FileChannel.open(partial, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+			contents.writeTo(out);
+		}
+		Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	static BinaryInput open(Path path) throws IOException {
+		return new BinaryInput(FileChannel.open(path, StandardOpenOption.READ));
+	}
+}
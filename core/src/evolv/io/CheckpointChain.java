@@ -0,0 +1,106 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Autosaves as a chain: a full keyframe, then deltas that each build on the
+ * save before, then another keyframe every KEYFRAME_INTERVAL saves so a
+ * load never has to replay too many. Files in a chain sort by name in the
+ * order they were saved.
+ *
+ * save() keeps the last checkpoint it wrote to diff the next one against, so
+ * only one thread should save through a chain at a time.
+ */
+class CheckpointChain {
+	static final int KEYFRAME_INTERVAL = 10;
+
+	private Checkpoint previous;
+	private int sinceKeyframe = 0;
+
+	public void save(Checkpoint checkpoint, Path path) throws IOException {
+		Checkpoint base = previous;
+		// If this write fails, the next save starts over with a keyframe.
+		previous = null;
+		if (base == null || sinceKeyframe >= KEYFRAME_INTERVAL - 1 || !CheckpointDelta.fits(base, checkpoint)) {
+			checkpoint.save(path);
+			sinceKeyframe = 0;
+		} else {
+			Checkpoint.writeFile(path, out -> CheckpointDelta.write(base, checkpoint, out));
+			sinceKeyframe++;
+		}
+		previous = checkpoint;
+	}
+
+	/**
+	 * The newest checkpoint in folder from year or before, built up from the
+	 * keyframe before it.
+	 */
+	public static Checkpoint load(Path folder, double year) throws IOException {
+		List<Path> files = list(folder);
+		Checkpoint.Header[] headers = readHeaders(files);
+		int newest = -1;
+		for (int i = 0; i < files.size(); i++) {
+			if (headers[i].year <= year) {
+				newest = i;
+			}
+		}
+		if (newest < 0) {
+			throw new IOException("No checkpoint in " + folder + " from year " + year + " or before");
+		}
+		return loadThrough(files, headers, newest);
+	}
+
+	/**
+	 * The checkpoint in file, which may be a delta on the ones before it in
+	 * the same folder.
+	 */
+	public static Checkpoint load(Path file) throws IOException {
+		Path absolute = file.toAbsolutePath().normalize();
+		List<Path> files = list(absolute.getParent());
+		int index = files.indexOf(absolute);
+		if (index < 0) {
+			throw new IOException("No checkpoint " + file);
+		}
+		return loadThrough(files, readHeaders(files), index);
+	}
+
+	private static Checkpoint loadThrough(List<Path> files, Checkpoint.Header[] headers, int index)
+			throws IOException {
+		int keyframe = index;
+		while (keyframe >= 0 && headers[keyframe].kind != Checkpoint.KEYFRAME) {
+			keyframe--;
+		}
+		if (keyframe < 0) {
+			throw new IOException("No keyframe before " + files.get(index));
+		}
+		Checkpoint checkpoint = Checkpoint.load(files.get(keyframe));
+		for (int i = keyframe + 1; i <= index; i++) {
+			try (BinaryInput in = Checkpoint.open(files.get(i))) {
+				checkpoint = CheckpointDelta.read(checkpoint, Checkpoint.readHeader(in), in);
+			}
+		}
+		return checkpoint;
+	}
+
+	private static List<Path> list(Path folder) throws IOException {
+		try (Stream<Path> entries = Files.list(folder.toAbsolutePath().normalize())) {
+			return entries.filter(path -> path.getFileName().toString().endsWith(Checkpoint.FILE_ENDING)).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	private static Checkpoint.Header[] readHeaders(List<Path> files) throws IOException {
+		Checkpoint.Header[] headers = new Checkpoint.Header[files.size()];
+		for (int i = 0; i < headers.length; i++) {
+			try (BinaryInput in = Checkpoint.open(files.get(i))) {
+				headers[i] = Checkpoint.readHeader(in);
+			}
+		}
+		return headers;
+	}
+}
@@ -0,0 +1,251 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Writes a checkpoint as the difference from the one saved before it, and
+ * builds it back up on top of that one.
+ *
+ * The board section and the rocks are small and go in whole. A tile's
+ * stored food only changes when something reads or eats it, so only those
+ * tiles are written, chunk by chunk. A chunk made since the last checkpoint
+ * is written the same way against all zeros. Creatures are listed by id in slot order. A newborn is
+ * written in full; anyone else as each double of its state XORed with what
+ * it was last time, which comes to a byte for a value that didn't move and a
+ * few bytes of low mantissa bits for one that moved a little. Brains, names
+ * and the like never change, so only newborns carry them. The ids that died
+ * are listed too. The history only carries the buckets finished since.
+ */
+class CheckpointDelta {
+	private static final int BORN = 0;
+	private static final int LIVED = 1;
+	private static final double[] UNTOUCHED = new double[TileField.CHUNK_TILES];
+
+	/**
+	 * Whether checkpoint can be written as a delta on base at all.
+	 */
+	public static boolean fits(Checkpoint base, Checkpoint checkpoint) {
+		if (base.boardWidth != checkpoint.boardWidth || base.boardHeight != checkpoint.boardHeight
+				|| base.stepSize != checkpoint.stepSize || base.visionRays != checkpoint.visionRays
+				|| base.brainWidth != checkpoint.brainWidth || base.brainHeight != checkpoint.brainHeight) {
+			return false;
+		}
+		// Chunks are never unmade, so this only fails if base isn't from before
+		for (int number = 0; number < base.foodLevel.length; number++) {
+			if (base.foodLevel[number] != null && checkpoint.foodLevel[number] == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static void write(Checkpoint base, Checkpoint checkpoint, BinaryOutput out) throws IOException {
+		if (!fits(base, checkpoint)) {
+			throw new IllegalArgumentException("Checkpoints are of different boards");
+		}
+		checkpoint.writeHeader(out, Checkpoint.DELTA, base.year);
+		checkpoint.writeBoard(out);
+		writeTiles(base, checkpoint, out);
+		checkpoint.writeRocks(out);
+		writeCreatures(base, checkpoint, out);
+		checkpoint.history.writeState(out, base.history);
+	}
+
+	/**
+	 * The checkpoint a delta describes, given the one before it. The header
+	 * has already been read.
+	 */
+	public static Checkpoint read(Checkpoint base, Checkpoint.Header header, BinaryInput in) throws IOException {
+		if (header.baseYear != base.year) {
+			throw new IOException(
+					"Delta builds on year " + header.baseYear + ", but the checkpoint before it is year " + base.year);
+		}
+		Checkpoint checkpoint = new Checkpoint();
+		checkpoint.year = header.year;
+		checkpoint.readBoard(in);
+		readTiles(base, checkpoint, in);
+		checkpoint.readRocks(in);
+		readCreatures(base, checkpoint, in);
+		checkpoint.history = TimeSeries.readState(in, base.history);
+		return checkpoint;
+	}
+
+	private static void writeTiles(Checkpoint base, Checkpoint checkpoint, BinaryOutput out) throws IOException {
+		int chunks = checkpoint.foodLevel.length;
+		// How many tiles in each chunk changed, or -1 to leave it out
+		int[] changedTiles = new int[chunks];
+		int changedChunks = 0;
+		for (int number = 0; number < chunks; number++) {
+			changedTiles[number] = -1;
+			if (checkpoint.foodLevel[number] == null) {
+				continue;
+			}
+			int changed = 0;
+			for (int tile = 0; tile < TileField.CHUNK_TILES; tile++) {
+				if (tileChanged(base, checkpoint, number, tile)) {
+					changed++;
+				}
+			}
+			if (changed > 0 || base.foodLevel[number] == null) {
+				changedTiles[number] = changed;
+				changedChunks++;
+			}
+		}
+		out.writeInt(changedChunks);
+		int lastChunk = 0;
+		for (int number = 0; number < chunks; number++) {
+			if (changedTiles[number] < 0) {
+				continue;
+			}
+			out.writeVarLong(number - lastChunk);
+			lastChunk = number;
+			out.writeVarLong(changedTiles[number]);
+			double[] baseFood = orUntouched(base.foodLevel[number]);
+			double[] baseTimes = orUntouched(base.lastUpdateTime[number]);
+			int last = 0;
+			for (int tile = 0; tile < TileField.CHUNK_TILES; tile++) {
+				if (tileChanged(base, checkpoint, number, tile)) {
+					out.writeVarLong(tile - last);
+					last = tile;
+					out.writeVarLong(xor(checkpoint.foodLevel[number][tile], baseFood[tile]));
+					out.writeVarLong(xor(checkpoint.lastUpdateTime[number][tile], baseTimes[tile]));
+				}
+			}
+		}
+	}
+
+	private static boolean tileChanged(Checkpoint base, Checkpoint checkpoint, int number, int tile) {
+		return xor(checkpoint.foodLevel[number][tile], orUntouched(base.foodLevel[number])[tile]) != 0
+				|| xor(checkpoint.lastUpdateTime[number][tile], orUntouched(base.lastUpdateTime[number])[tile]) != 0;
+	}
+
+	private static double[] orUntouched(double[] chunk) {
+		return chunk != null ? chunk : UNTOUCHED;
+	}
+
+	private static void readTiles(Checkpoint base, Checkpoint checkpoint, BinaryInput in) throws IOException {
+		checkpoint.stepSize = base.stepSize;
+		checkpoint.foodLevel = base.foodLevel.clone();
+		checkpoint.lastUpdateTime = base.lastUpdateTime.clone();
+		int changedChunks = in.readInt();
+		int number = 0;
+		for (int i = 0; i < changedChunks; i++) {
+			number += (int) in.readVarLong();
+			// Base's arrays are shared with it, so they're copied before changing
+			double[] food = orUntouched(base.foodLevel[number]).clone();
+			double[] times = orUntouched(base.lastUpdateTime[number]).clone();
+			int changed = (int) in.readVarLong();
+			int tile = 0;
+			for (int j = 0; j < changed; j++) {
+				tile += (int) in.readVarLong();
+				food[tile] = unxor(food[tile], in.readVarLong());
+				times[tile] = unxor(times[tile], in.readVarLong());
+			}
+			checkpoint.foodLevel[number] = food;
+			checkpoint.lastUpdateTime[number] = times;
+		}
+	}
+
+	private static void writeCreatures(Checkpoint base, Checkpoint checkpoint, BinaryOutput out)
+			throws IOException {
+		int count = checkpoint.creatureCount;
+		out.writeInt(count);
+		out.writeInt(checkpoint.visionRays);
+		out.writeInt(checkpoint.brainWidth);
+		out.writeInt(checkpoint.brainHeight);
+		out.writeInts(checkpoint.listOrder, 0, count);
+
+		HashMap<Integer, Integer> baseSlots = slotsById(base);
+		HashMap<Integer, Integer> slots = slotsById(checkpoint);
+		int deaths = 0;
+		for (int slot = 0; slot < base.creatureCount; slot++) {
+			if (!slots.containsKey(base.id[slot])) {
+				deaths++;
+			}
+		}
+		out.writeInt(deaths);
+		for (int slot = 0; slot < base.creatureCount; slot++) {
+			if (!slots.containsKey(base.id[slot])) {
+				out.writeInt(base.id[slot]);
+			}
+		}
+
+		int stateLength = checkpoint.creatureStateLength();
+		double[] before = new double[stateLength];
+		double[] after = new double[stateLength];
+		for (int slot = 0; slot < count; slot++) {
+			out.writeInt(checkpoint.id[slot]);
+			Integer baseSlot = baseSlots.get(checkpoint.id[slot]);
+			if (baseSlot == null) {
+				out.writeByte(BORN);
+				checkpoint.writeCreature(slot, out, after);
+				continue;
+			}
+			out.writeByte(LIVED);
+			base.creatureState(baseSlot, before);
+			checkpoint.creatureState(slot, after);
+			for (int i = 0; i < stateLength; i++) {
+				out.writeVarLong(xor(after[i], before[i]));
+			}
+			out.writeVarLong(checkpoint.rngStates[slot * 2] ^ base.rngStates[baseSlot * 2]);
+			out.writeVarLong(checkpoint.rngStates[slot * 2 + 1] ^ base.rngStates[baseSlot * 2 + 1]);
+		}
+	}
+
+	private static void readCreatures(Checkpoint base, Checkpoint checkpoint, BinaryInput in) throws IOException {
+		int count = in.readInt();
+		checkpoint.allocateCreatures(count, in.readInt(), in.readInt(), in.readInt());
+		in.readInts(checkpoint.listOrder, 0, count);
+
+		// Everyone who died is simply not listed below, so the ids are only
+		// there for anyone following the lineage.
+		int deaths = in.readInt();
+		for (int i = 0; i < deaths; i++) {
+			in.readInt();
+		}
+
+		HashMap<Integer, Integer> baseSlots = slotsById(base);
+		double[] state = new double[checkpoint.creatureStateLength()];
+		for (int slot = 0; slot < count; slot++) {
+			int id = in.readInt();
+			if (in.readByte() == BORN) {
+				checkpoint.readCreature(slot, in, state);
+				continue;
+			}
+			Integer baseSlot = baseSlots.get(id);
+			if (baseSlot == null) {
+				throw new IOException("Delta changes creature " + id + ", who isn't in the checkpoint before it");
+			}
+			base.creatureState(baseSlot, state);
+			for (int i = 0; i < state.length; i++) {
+				state[i] = unxor(state[i], in.readVarLong());
+			}
+			checkpoint.setCreatureState(slot, state);
+			checkpoint.id[slot] = id;
+			checkpoint.gen[slot] = base.gen[baseSlot];
+			checkpoint.name[slot] = base.name[baseSlot];
+			checkpoint.parents[slot] = base.parents[baseSlot];
+			checkpoint.weights[slot] = base.weights[baseSlot];
+			checkpoint.mutabilities[slot] = base.mutabilities[baseSlot];
+			checkpoint.rngStates[slot * 2] = base.rngStates[baseSlot * 2] ^ in.readVarLong();
+			checkpoint.rngStates[slot * 2 + 1] = base.rngStates[baseSlot * 2 + 1] ^ in.readVarLong();
+		}
+	}
+
+	private static HashMap<Integer, Integer> slotsById(Checkpoint checkpoint) {
+		HashMap<Integer, Integer> slots = new HashMap<Integer, Integer>(checkpoint.creatureCount * 2);
+		for (int slot = 0; slot < checkpoint.creatureCount; slot++) {
+			slots.put(checkpoint.id[slot], slot);
+		}
+		return slots;
+	}
+
+	private static long xor(double a, double b) {
+		return Double.doubleToRawLongBits(a) ^ Double.doubleToRawLongBits(b);
+	}
+
+	private static double unxor(double value, long bits) {
+		return Double.longBitsToDouble(Double.doubleToRawLongBits(value) ^ bits);
+	}
+}
@@ -0,0 +1,156 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes checkpoints on a background thread, so the board only stops long
+ * enough to capture one and never waits on the disk.
+ *
+ * Only a few checkpoints can be waiting at once. When the disk can't keep
+ * up, offer() turns the next one away instead of piling up copies of the
+ * world in memory, and the board tries again on a later tick. The limit is
+ * kept by queueDepth alone, so the executor's own queue never turns a task
+ * away that queueDepth let through.
+ */
+class CheckpointWriter {
+	static final int QUEUE_CAPACITY = 2;
+
+	private final ThreadPoolExecutor executor;
+	private final int capacity;
+	// Captured and not yet on disk, including the one being written
+	private int queueDepth = 0;
+	private long written = 0;
+	private long deferred = 0;
+	private long failed = 0;
+	private double lastLatencyMillis = 0;
+	private double maxLatencyMillis = 0;
+	private IOException lastError;
+
+	public CheckpointWriter() {
+		this(QUEUE_CAPACITY);
+	}
+
+	public CheckpointWriter(int queueCapacity) {
+		capacity = queueCapacity + 1;
+		executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "Checkpoint writer");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Captures the board and queues it to be written to path, as the next
+	 * link in chain if there is one. Returns false without capturing anything
+	 * if the queue is full.
+	 */
+	public boolean offer(Board board, Path path, CheckpointChain chain) {
+		synchronized (this) {
+			if (queueDepth >= capacity) {
+				deferred++;
+				return false;
+			}
+			queueDepth++;
+		}
+		boolean queued = false;
+		try {
+			long start = System.nanoTime();
+			Checkpoint checkpoint = Checkpoint.capture(board);
+			executor.execute(() -> write(checkpoint, path, chain, start));
+			queued = true;
+		} finally {
+			if (!queued) {
+				synchronized (this) {
+					queueDepth--;
+					notifyAll();
+				}
+			}
+		}
+		return true;
+	}
+
+	private void write(Checkpoint checkpoint, Path path, CheckpointChain chain, long start) {
+		IOException error = null;
+		boolean saved = false;
+		try {
+			if (chain != null) {
+				chain.save(checkpoint, path);
+			} else {
+				checkpoint.save(path);
+			}
+			saved = true;
+		} catch (IOException e) {
+			error = e;
+		} catch (RuntimeException e) {
+			error = new IOException("Couldn't write " + path, e);
+		} finally {
+			double latencyMillis = (System.nanoTime() - start) / 1e6;
+			// Whatever happened, this one is off the queue, or drain() would
+			// wait on it forever.
+			synchronized (this) {
+				queueDepth--;
+				if (saved) {
+					written++;
+					lastLatencyMillis = latencyMillis;
+					maxLatencyMillis = Math.max(maxLatencyMillis, latencyMillis);
+				} else {
+					failed++;
+					if (error != null) {
+						lastError = error;
+					}
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits until everything offered so far is on disk, or has failed.
+	 */
+	public synchronized void drain() throws InterruptedException {
+		while (queueDepth > 0) {
+			wait();
+		}
+	}
+
+	public synchronized int getQueueDepth() {
+		return queueDepth;
+	}
+
+	public synchronized long getWritten() {
+		return written;
+	}
+
+	/**
+	 * How many times offer() turned a checkpoint away because the queue was
+	 * full.
+	 */
+	public synchronized long getDeferred() {
+		return deferred;
+	}
+
+	public synchronized long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * From the start of capturing the last checkpoint written to it being on
+	 * disk.
+	 */
+	public synchronized double getLastLatencyMillis() {
+		return lastLatencyMillis;
+	}
+
+	public synchronized double getMaxLatencyMillis() {
+		return maxLatencyMillis;
+	}
+
+	public synchronized IOException getLastError() {
+		return lastError;
+	}
+}
@@ -0,0 +1,149 @@
+package evolv.io;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Every pair of bodies close enough to touch or fight this tick, each pair
+ * listed once. Built from the spatial grid at the start of a tick and read
+ * by collide(), fight() and reproduce() through each body's grid index.
+ *
+ * Distances are worked out once per pair from where the bodies were when the
+ * grid was rebuilt. Nothing moves between then and the end of the act phase,
+ * so they hold for the whole tick. When the grid's tile lists haven't changed
+ * since the last update, the pairs are kept and only the distances redone.
+ */
+class ContactList {
+	// Bodies per chunk when the work is spread over a pool
+	static final int GRAIN = 256;
+
+	private long builtVersion = -1;
+
+	int pairCount;
+	int[] pairA = new int[0];
+	int[] pairB = new int[0];
+	// From B to A
+	double[] dx = new double[0];
+	double[] dy = new double[0];
+	double[] distanceSquared = new double[0];
+	// How hard the pair pushes apart per unit of dx and dy; 0 if not touching
+	double[] push = new double[0];
+
+	// Contacts of body i are contactsOf[contactStart[i]] up to
+	// contactsOf[contactStart[i + 1]], in pair order.
+	int[] contactStart = new int[1];
+	int[] contactsOf = new int[0];
+
+	private int[] pairsFrom = new int[1];
+	private int[] found = new int[0];
+
+	public void update(SpatialGrid grid, ForkJoinPool pool) {
+		if (grid.version != builtVersion) {
+			findPairs(grid, pool);
+			builtVersion = grid.version;
+		}
+		measurePairs(grid, pool);
+	}
+
+	public int other(int contact, int body) {
+		return pairA[contact] == body ? pairB[contact] : pairA[contact];
+	}
+
+	/**
+	 * +1 if body is the A side of the contact, -1 if it's the B side, so
+	 * dx and dy point away from the other body.
+	 */
+	public double side(int contact, int body) {
+		return pairA[contact] == body ? 1 : -1;
+	}
+
+	private void findPairs(SpatialGrid grid, ForkJoinPool pool) {
+		int bodyCount = grid.bodyCount;
+		if (pairsFrom.length < bodyCount + 1) {
+			pairsFrom = new int[Math.max(bodyCount + 1, pairsFrom.length * 2)];
+		}
+		final int[] counts = pairsFrom;
+		ParallelRange.run(pool, bodyCount, GRAIN, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				counts[i + 1] = grid.pairsAfter(i, null, 0);
+			}
+		});
+		pairsFrom[0] = 0;
+		for (int i = 0; i < bodyCount; i++) {
+			pairsFrom[i + 1] += pairsFrom[i];
+		}
+		pairCount = pairsFrom[bodyCount];
+		ensurePairCapacity(pairCount);
+		final int[] offsets = pairsFrom;
+		final int[] others = found;
+		ParallelRange.run(pool, bodyCount, GRAIN, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				int start = offsets[i];
+				int end = start + grid.pairsAfter(i, others, start);
+				for (int p = start; p < end; p++) {
+					pairA[p] = i;
+					pairB[p] = others[p];
+				}
+			}
+		});
+
+		// Index the pairs by body, both ways round.
+		if (contactStart.length < bodyCount + 1) {
+			contactStart = new int[Math.max(bodyCount + 1, contactStart.length * 2)];
+		}
+		for (int i = 0; i <= bodyCount; i++) {
+			contactStart[i] = 0;
+		}
+		for (int p = 0; p < pairCount; p++) {
+			contactStart[pairA[p] + 1]++;
+			contactStart[pairB[p] + 1]++;
+		}
+		for (int i = 0; i < bodyCount; i++) {
+			contactStart[i + 1] += contactStart[i];
+		}
+		if (contactsOf.length < pairCount * 2) {
+			contactsOf = new int[Math.max(pairCount * 2, contactsOf.length * 2)];
+		}
+		// pairsFrom is free again; reuse it as the fill cursor.
+		System.arraycopy(contactStart, 0, pairsFrom, 0, bodyCount);
+		for (int p = 0; p < pairCount; p++) {
+			contactsOf[pairsFrom[pairA[p]]++] = p;
+			contactsOf[pairsFrom[pairB[p]]++] = p;
+		}
+	}
+
+	private void measurePairs(SpatialGrid grid, ForkJoinPool pool) {
+		ParallelRange.run(pool, pairCount, GRAIN, (from, to) -> {
+			for (int p = from; p < to; p++) {
+				int a = pairA[p];
+				int b = pairB[p];
+				double pairDx = grid.bodyX[a] - grid.bodyX[b];
+				double pairDy = grid.bodyY[a] - grid.bodyY[b];
+				double pairDistanceSquared = pairDx * pairDx + pairDy * pairDy;
+				double combinedRadius = grid.bodyRadius[a] + grid.bodyRadius[b];
+				dx[p] = pairDx;
+				dy[p] = pairDy;
+				distanceSquared[p] = pairDistanceSquared;
+				if (pairDistanceSquared < combinedRadius * combinedRadius) {
+					double force = combinedRadius * grid.body(a).COLLISION_FORCE;
+					push[p] = force / Math.sqrt(pairDistanceSquared);
+				} else {
+					push[p] = 0;
+				}
+			}
+		});
+	}
+
+	private void ensurePairCapacity(int count) {
+		if (pairA.length >= count) {
+			return;
+		}
+		int capacity = Math.max(count, pairA.length * 2);
+		pairA = new int[capacity];
+		pairB = new int[capacity];
+		dx = new double[capacity];
+		dy = new double[capacity];
+		distanceSquared = new double[capacity];
+		push = new double[capacity];
+		found = new int[capacity];
+	}
+}
@@ -0,0 +1,603 @@
+package evolv.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class Creature extends SoftBody {
+	// Energy
+	double ACCELERATION_ENERGY = 0.18f;
+	double ACCELERATION_BACK_ENERGY = 0.24f;
+	double SWIM_ENERGY = 0.008f;
+	double TURN_ENERGY = 0.06f;
+	double EAT_ENERGY = 0.05f;
+	double EAT_SPEED = 0.5f; // 1 is instant, 0 is nonexistent, 0.001 is
+								// verrry slow.
+	double EAT_WHILE_MOVING_INEFFICIENCY_MULTIPLIER = 2.0f; // The bigger
+															// this number
+															// is, the less
+															// effiently
+															// creatures eat
+															// when they're
+															// moving.
+	double FIGHT_ENERGY = 0.06f;
+	double INJURED_ENERGY = 0.25f;
+	double METABOLISM_ENERGY = 0.004f;
+	double AGE_FACTOR = 1; // 0 no ageing
+	double currentEnergy;
+	final int ENERGY_HISTORY_LENGTH = CreatureStore.ENERGY_HISTORY_LENGTH;
+
+	// Family
+	String name;
+	String parents;
+	int gen;
+	int id;
+
+	// Vision or View or Preference
+	double MAX_VISION_DISTANCE = 10;
+	final double FOOD_SENSITIVITY = 0.3f;
+	double[] visionAngles = { 0, -0.4f, 0.4f };
+	double[] visionDistances = { 0, 0.7f, 0.7f };
+	// double visionAngle;
+	// double visionDistance;
+	double[] visionOccludedX = new double[visionAngles.length];
+	double[] visionOccludedY = new double[visionAngles.length];
+
+	Brain brain;
+	final float BRIGHTNESS_THRESHOLD = 0.7f;
+
+	// Misc or Unsorted
+	float preferredRank = 8;
+	float CROSS_SIZE = 0.022f;
+	double mouthHue;
+	final double SAFE_SIZE = 1.25f;
+	final double MATURE_AGE = 0.01f;
+
+	NameGenerator nameGenerator;
+	Rng rng; // This creature's own stream, split off the board's
+	int deathCause = LineageLog.STARVED; // What last cost it energy, since its last metabolize()
+	// Where this creature's state lives in board.creatureStore. Moves when
+	// other creatures die; -1 once this one has.
+	int slot;
+
+	private static List<CreatureAction> CreatureActions = Arrays.asList(new CreatureAction.AdjustHue(),
+			new CreatureAction.Accelerate(), new CreatureAction.Rotate(), new CreatureAction.Eat(),
+			new CreatureAction.Fight(), new CreatureAction.Reproduce(), new CreatureAction.None(),
+			new CreatureAction.None(), new CreatureAction.None(), new CreatureAction.None(),
+			new CreatureAction.AdjustMouthHue());
+
+	public Creature(Board tb) {
+		this(tb.rng.random(0, tb.boardWidth), tb.rng.random(0, tb.boardHeight), 0, 0,
+				tb.rng.random(tb.MIN_CREATURE_ENERGY, tb.MAX_CREATURE_ENERGY), 1, tb.rng.random(0, 1), 1, 1, tb,
+				tb.rng.random(0, 2 * (float) Math.PI), 0, "", "[PRIMORDIAL]", true, null, 1, tb.rng.random(0, 1));
+	}
+
+	public Creature(double tpx, double tpy, double tvx, double tvy, double tenergy, double tdensity, double thue,
+			double tsaturation, double tbrightness, Board tb, double rot, double tvr, String tname, String tparents,
+			boolean mutateName, Brain brain, int tgen, double tmouthHue) {
+
+		super(tpx, tpy, tvx, tvy, tenergy, tdensity, thue, tsaturation, tbrightness, tb);
+		rng = board.rng.split();
+		nameGenerator = new NameGenerator(rng);
+
+		if (brain == null)
+			brain = new Brain(rng, null, null, null);
+		this.brain = brain;
+
+		setRotation(rot);
+		setVr(tvr);
+		isCreature = true;
+		id = board.creatureIDUpTo + 1;
+		if (tname.length() >= 1) {
+			if (mutateName) {
+				name = nameGenerator.mutateName(tname);
+			} else {
+				name = tname;
+			}
+			name = nameGenerator.sanitizeName(name);
+		} else {
+			name = nameGenerator.newName();
+		}
+		parents = tparents;
+		board.creatureIDUpTo++;
+		// visionAngle = 0;
+		// visionDistance = 0;
+		// visionEndX = getVisionStartX();
+		// visionEndY = getVisionStartY();
+		gen = tgen;
+		mouthHue = tmouthHue;
+	}
+
+	/**
+	 * A creature coming back from a checkpoint. Draws nothing from the
+	 * board's rng; Checkpoint.restore() fills in everything else.
+	 */
+	Creature(Board tb, Rng rng, Brain brain) {
+		super(0, 0, 0, 0, 0, 0, 0, 0, 0, tb);
+		this.rng = rng;
+		nameGenerator = new NameGenerator(rng);
+		this.brain = brain;
+		isCreature = true;
+	}
+
+	@Override
+	void initState(double tpx, double tpy, double tvx, double tvy, double tenergy) {
+		slot = board.creatureStore.allocate(this);
+		CreatureStore store = board.creatureStore;
+		store.px[slot] = tpx;
+		store.py[slot] = tpy;
+		store.vx[slot] = tvx;
+		store.vy[slot] = tvy;
+		store.energy[slot] = tenergy;
+		store.density[slot] = density;
+	}
+
+	@Override
+	public double getPx() {
+		return board.creatureStore.px[slot];
+	}
+
+	@Override
+	public void setPx(double px) {
+		board.creatureStore.px[slot] = px;
+	}
+
+	@Override
+	public double getPy() {
+		return board.creatureStore.py[slot];
+	}
+
+	@Override
+	public void setPy(double py) {
+		board.creatureStore.py[slot] = py;
+	}
+
+	@Override
+	public double getVx() {
+		return board.creatureStore.vx[slot];
+	}
+
+	@Override
+	public void setVx(double vx) {
+		board.creatureStore.vx[slot] = vx;
+	}
+
+	@Override
+	public double getVy() {
+		return board.creatureStore.vy[slot];
+	}
+
+	@Override
+	public void setVy(double vy) {
+		board.creatureStore.vy[slot] = vy;
+	}
+
+	@Override
+	public double getEnergy() {
+		return board.creatureStore.energy[slot];
+	}
+
+	@Override
+	public void setEnergy(double energy) {
+		board.creatureStore.energy[slot] = energy;
+	}
+
+	public double getRotation() {
+		return board.creatureStore.rotation[slot];
+	}
+
+	public void setRotation(double rotation) {
+		board.creatureStore.rotation[slot] = rotation;
+	}
+
+	public double getVr() {
+		return board.creatureStore.vr[slot];
+	}
+
+	public void setVr(double vr) {
+		board.creatureStore.vr[slot] = vr;
+	}
+
+	public double getVisionResult(int i) {
+		return board.creatureStore.visionResults[slot * CreatureStore.VISION_RESULT_COUNT + i];
+	}
+
+	public void useBrain(double timeStep, boolean useOutput) {
+		think();
+		if (useOutput) {
+			useOutputs(timeStep);
+		}
+	}
+
+	/**
+	 * Feeds what this creature currently sees into its brain. Only touches
+	 * this creature, so every creature can think at once.
+	 */
+	public void think() {
+		double inputs[] = new double[11];
+		for (int i = 0; i < 9; i++) {
+			inputs[i] = getVisionResult(i);
+		}
+		inputs[9] = getEnergy();
+		inputs[10] = mouthHue;
+		brain.input(inputs);
+	}
+
+	public void useOutputs(double timeStep) {
+		double[] output = brain.outputs();
+		for (int i = 0; i < output.length; i++) {
+			CreatureActions.get(i).doAction(this, output[i], timeStep);
+		}
+	}
+
+	public void metabolize(double timeStep) {
+		double age = AGE_FACTOR * (board.year - birthTime); // the older the
+															// more work
+															// necessary
+		loseEnergy(getEnergy() * METABOLISM_ENERGY * age * timeStep);
+
+		if (getEnergy() < SAFE_SIZE) {
+			if (board.lineageLog != null) {
+				board.lineageLog.death(this, deathCause);
+			}
+			returnToEarth();
+			board.creatures.remove(this);
+			board.deathsThisTick++;
+		}
+		deathCause = LineageLog.STARVED;
+	}
+
+	public void accelerate(double amount, double timeStep) {
+		double multiplied = amount * timeStep / getMass();
+		setVx(getVx() + Math.cos(getRotation()) * multiplied);
+		setVy(getVy() + Math.sin(getRotation()) * multiplied);
+		if (amount >= 0) {
+			loseEnergy(amount * ACCELERATION_ENERGY * timeStep);
+		} else {
+			loseEnergy(Math.abs(amount * ACCELERATION_BACK_ENERGY * timeStep));
+		}
+	}
+
+	public void rotate(double amount, double timeStep) {
+		setVr(getVr() + 0.04f * amount * timeStep / getMass());
+		loseEnergy(Math.abs(amount * TURN_ENERGY * getEnergy() * timeStep));
+	}
+
+	public int getRandomCoveredTile() {
+		double radius = (float) getRadius();
+		double px = getPx();
+		double py = getPy();
+		double choiceX = 0;
+		double choiceY = 0;
+		while (dist((float) px, (float) py, (float) choiceX, (float) choiceY) > radius) {
+			choiceX = (rng.nextDouble() * 2 * radius - radius) + px;
+			choiceY = (rng.nextDouble() * 2 * radius - radius) + py;
+		}
+		int x = xBound((int) choiceX);
+		int y = yBound((int) choiceY);
+		return board.tiles.index(x, y);
+	}
+
+	public void eat(double attemptedAmount, double timeStep) {
+		double amount = attemptedAmount / (1.0f + distance(0, 0, getVx(), getVy()) * EAT_WHILE_MOVING_INEFFICIENCY_MULTIPLIER); // The
+																														// faster
+																														// you're
+																														// moving,
+																														// the
+																														// less
+																														// efficiently
+																														// you
+																														// can
+																														// eat.
+		if (amount < 0) {
+			dropEnergy(-amount * timeStep);
+			loseEnergy(-attemptedAmount * EAT_ENERGY * timeStep);
+		} else {
+			TileField tiles = board.tiles;
+			int coveredTile = getRandomCoveredTile();
+			double foodLevel = tiles.getStoredFoodLevel(coveredTile);
+			double foodToEat = foodLevel * (1 - Math.pow((1 - EAT_SPEED), amount * timeStep));
+			if (foodToEat > foodLevel) {
+				foodToEat = foodLevel;
+			}
+			tiles.removeFood(coveredTile, foodToEat, true);
+			double foodDistance = Math.abs(tiles.getFoodType(coveredTile) - mouthHue);
+			double multiplier = 1.0f - foodDistance / FOOD_SENSITIVITY;
+			if (multiplier >= 0) {
+				addEnergy(foodToEat * multiplier);
+			} else {
+				loseEnergy(-foodToEat * multiplier);
+			}
+			loseEnergy(attemptedAmount * EAT_ENERGY * timeStep);
+		}
+	}
+
+	public void fight(double amount, double timeStep) {
+		if (amount > 0 && board.year - birthTime >= MATURE_AGE) {
+			fightLevel = amount;
+			loseEnergy(fightLevel * FIGHT_ENERGY * getEnergy() * timeStep);
+			ContactList contacts = board.contacts;
+			for (int entry = firstContact(); entry < lastContact(); entry++) {
+				int contact = contacts.contactsOf[entry];
+				SoftBody collider = board.grid.body(contacts.other(contact, gridIndex));
+				if (collider.isCreature && collider.alive) {
+					double combinedRadius = getRadius() * FIGHT_RANGE + collider.getRadius();
+					if (contacts.distanceSquared[contact] < combinedRadius * combinedRadius) {
+						((Creature) collider).dropEnergy(fightLevel * INJURED_ENERGY * timeStep);
+						((Creature) collider).deathCause = LineageLog.INJURED;
+					}
+				}
+			}
+		} else {
+			fightLevel = 0;
+		}
+	}
+
+	/**
+	 * Where this creature's entries in board.contacts start. A creature born
+	 * since the last rebuild has none.
+	 */
+	private int firstContact() {
+		return gridIndex >= 0 ? board.contacts.contactStart[gridIndex] : 0;
+	}
+
+	private int lastContact() {
+		return gridIndex >= 0 ? board.contacts.contactStart[gridIndex + 1] : 0;
+	}
+
+	public void loseEnergy(double energyLost) {
+		if (energyLost > 0) {
+			setEnergy(getEnergy() - energyLost);
+		}
+	}
+
+	public void dropEnergy(double energyLost) {
+		if (energyLost > 0) {
+			energyLost = Math.min(energyLost, getEnergy());
+			setEnergy(getEnergy() - energyLost);
+			board.tiles.addFood(getRandomCoveredTile(), energyLost, hue, true);
+		}
+	}
+
+	public void see(double timeStep) {
+		double px = getPx();
+		double py = getPy();
+		double rotation = getRotation();
+		double[] visionResults = board.creatureStore.visionResults;
+		int results = slot * CreatureStore.VISION_RESULT_COUNT;
+		Raycaster raycaster = Raycaster.forThisThread();
+		for (int k = 0; k < visionAngles.length; k++) {
+			double visionTotalAngle = rotation + visionAngles[k];
+			double cos = Math.cos(visionTotalAngle);
+			double sin = Math.sin(visionTotalAngle);
+			double endX = px + visionDistances[k] * cos;
+			double endY = py + visionDistances[k] * sin;
+
+			if (raycaster.cast(board.grid, this, px, py, visionTotalAngle, visionDistances[k])) {
+				SoftBody body = raycaster.hitBody;
+				visionOccludedX[k] = px + raycaster.hitDistance * cos;
+				visionOccludedY[k] = py + raycaster.hitDistance * sin;
+				visionResults[results + k * 3] = body.hue;
+				visionResults[results + k * 3 + 1] = body.saturation;
+				visionResults[results + k * 3 + 2] = body.brightness;
+			} else {
+				visionOccludedX[k] = endX;
+				visionOccludedY[k] = endY;
+				seeGroundAt(endX, endY, visionResults, results + k * 3);
+			}
+		}
+	}
+
+	/**
+	 * Writes the hue, saturation and brightness of the ground at (x, y) to
+	 * into from offset on.
+	 */
+	public void seeGroundAt(double x, double y, double[] into, int offset) {
+		if (x >= 0 && x < board.boardWidth && y >= 0 && y < board.boardHeight) {
+			int tile = board.tiles.index((int) (x), (int) (y));
+			// A phased tick runs see() on many threads at once, so it can only
+			// peek at the shared tiles.
+			board.tiles.getHsb(tile, board.phasedTick == null, into, offset);
+		} else {
+			into[offset] = HsbColor.hue(board.BACKGROUND_COLOR);
+			into[offset + 1] = HsbColor.saturation(board.BACKGROUND_COLOR);
+			into[offset + 2] = HsbColor.brightness(board.BACKGROUND_COLOR);
+		}
+	}
+
+	public double distance(double x1, double y1, double x2, double y2) {
+		return (Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1)));
+	}
+
+	public void returnToEarth() {
+		alive = false;
+		int pieces = 20;
+		double radius = (float) getRadius();
+		for (int i = 0; i < pieces; i++) {
+			board.tiles.addFood(getRandomCoveredTile(), getEnergy() / pieces, hue, true);
+		}
+		if (board.selectedCreature == this) {
+			board.unselect();
+		}
+		board.creatureStore.free(slot);
+		slot = -1;
+	}
+
+	public void reproduce(double babySize, double timeStep) {
+		int highestGen = 0;
+		if (babySize >= 0) {
+			ArrayList<Creature> parents = new ArrayList<Creature>(0);
+			parents.add(this);
+			double availableEnergy = getBabyEnergy();
+			ContactList contacts = board.contacts;
+			for (int entry = firstContact(); entry < lastContact(); entry++) {
+				int contact = contacts.contactsOf[entry];
+				SoftBody possibleParent = board.grid.body(contacts.other(contact, gridIndex));
+				if (possibleParent.isCreature && possibleParent.alive
+						&& ((Creature) possibleParent).brain.outputs()[9] > -1) {
+					// Must be a WILLING creature to also give birth.
+					double combinedRadius = getRadius() * FIGHT_RANGE + possibleParent.getRadius();
+					if (contacts.distanceSquared[contact] < combinedRadius * combinedRadius) {
+						parents.add((Creature) possibleParent);
+						availableEnergy += ((Creature) possibleParent).getBabyEnergy();
+					}
+				}
+			}
+			if (availableEnergy > babySize) {
+				double newPX = rng.random(-0.01f, 0.01f);
+				double newPY = rng.random(-0.01f, 0.01f); // To
+																		// avoid
+																		// landing
+				// directly on
+				// parents,
+				// resulting in
+				// division by 0)
+				double newHue = 0;
+				double newSaturation = 0;
+				double newBrightness = 0;
+				double newMouthHue = 0;
+				int parentsTotal = parents.size();
+				String[] parentNames = new String[parentsTotal];
+				Creature[] babyParents = new Creature[parentsTotal];
+				Brain newBrain = brain.evolve(rng, parents);
+				for (int i = 0; i < parentsTotal; i++) {
+					int chosenIndex = (int) rng.random(0, parents.size());
+					Creature parent = parents.get(chosenIndex);
+					parents.remove(chosenIndex);
+					parent.setEnergy(parent.getEnergy() - babySize * (parent.getBabyEnergy() / availableEnergy));
+					parent.deathCause = LineageLog.GAVE_BIRTH;
+					newPX += parent.getPx() / parentsTotal;
+					newPY += parent.getPy() / parentsTotal;
+					newHue += parent.hue / parentsTotal;
+					newSaturation += parent.saturation / parentsTotal;
+					newBrightness += parent.brightness / parentsTotal;
+					newMouthHue += parent.mouthHue / parentsTotal;
+					parentNames[i] = parent.name;
+					babyParents[i] = parent;
+					if (parent.gen > highestGen) {
+						highestGen = parent.gen;
+					}
+				}
+				newSaturation = 1;
+				newBrightness = 1;
+				Creature baby = new Creature(newPX, newPY, 0, 0, babySize, density, newHue, newSaturation,
+						newBrightness, board, rng.random(0, 2 * (float) Math.PI), 0, stitchName(parentNames),
+						andifyParents(parentNames), true, newBrain, highestGen + 1, newMouthHue);
+				board.creatures.add(baby);
+				board.birthsThisTick++;
+				if (board.lineageLog != null) {
+					board.lineageLog.birth(baby, babyParents);
+				}
+			}
+		}
+	}
+
+	public String stitchName(String[] s) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < s.length; i++) {
+			float portion = ((float) s[i].length()) / s.length;
+			int start = Math.min(Math.max(Math.round(portion * i), 0), s[i].length());
+			int end = Math.min(Math.max(Math.round(portion * (i + 1)), 0), s[i].length());
+			result.append(s[i], start, end);
+		}
+		return result.toString();
+	}
+
+	public String andifyParents(String[] s) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < s.length; i++) {
+			if (i >= 1) {
+				result.append(" & ");
+			}
+			result.append(capitalize(s[i]));
+		}
+		return result.toString();
+	}
+
+	public String getCreatureName() {
+		return capitalize(name);
+	}
+
+	public String capitalize(String n) {
+		return n.substring(0, 1).toUpperCase() + n.substring(1, n.length());
+	}
+
+	@Override
+	public void applyMotions(double timeStep) {
+		swim();
+		super.applyMotions(timeStep);
+		setRotation(getRotation() + getVr());
+		setVr(getVr() * Math.max(0, 1 - FRICTION / getMass()));
+	}
+
+	public void swim() {
+		if (board.tiles.isWater(getRandomCoveredTile())) {
+			loseEnergy(SWIM_ENERGY * getEnergy());
+		}
+	}
+
+	public double getEnergyUsage(double timeStep) {
+		int oldest = slot * ENERGY_HISTORY_LENGTH + ENERGY_HISTORY_LENGTH - 1;
+		return (getEnergy() - board.creatureStore.previousEnergy[oldest]) / ENERGY_HISTORY_LENGTH / timeStep;
+	}
+
+	public double getBabyEnergy() {
+		return getEnergy() - SAFE_SIZE;
+	}
+
+	public void addEnergy(double amount) {
+		setEnergy(getEnergy() + amount);
+	}
+
+
+	public double measure(int choice) {
+		int sign = 1 - 2 * (choice % 2);
+		if (choice < 2) {
+			return sign * getEnergy();
+		} else if (choice < 4) {
+			return sign * birthTime;
+		} else if (choice == 6 || choice == 7) {
+			return sign * gen;
+		}
+		return 0;
+	}
+
+	public void setHue(double set) {
+		hue = Math.min(Math.max(set, 0), 1);
+	}
+
+	public void setMouthHue(double set) {
+		mouthHue = Math.min(Math.max(set, 0), 1);
+	}
+
+	public void setSaturarion(double set) {
+		saturation = Math.min(Math.max(set, 0), 1);
+	}
+
+	public void setBrightness(double set) {
+		brightness = Math.min(Math.max(set, 0), 1);
+	}
+
+	/*
+	 * public void setVisionAngle(double set) { visionAngle =
+	 * set;//Math.min(Math.max(set, -Math.PI/2), Math.PI/2); while(visionAngle <
+	 * -Math.PI) { visionAngle += Math.PI*2; } while(visionAngle > Math.PI) {
+	 * visionAngle -= Math.PI*2; } } public void setVisionDistance(double set) {
+	 * visionDistance = Math.min(Math.max(set, 0), MAX_VISION_DISTANCE); }
+	 */
+	/*
+	 * public double getVisionStartX() { return
+	 * px;//+getRadius()*Math.cos(rotation); } public double getVisionStartY() {
+	 * return py;//+getRadius()*Math.sin(rotation); }
+	 */
+
+	public double getVisionEndX(int i) {
+		double visionTotalAngle = getRotation() + visionAngles[i];
+		return getPx() + visionDistances[i] * Math.cos(visionTotalAngle);
+	}
+
+	public double getVisionEndY(int i) {
+		double visionTotalAngle = getRotation() + visionAngles[i];
+		return getPy() + visionDistances[i] * Math.sin(visionTotalAngle);
+	}
+}
\ No newline at end of file
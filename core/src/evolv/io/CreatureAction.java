@@ -64,7 +64,7 @@ public interface CreatureAction {
 			if (creature.board.year - creature.birthTime < creature.MATURE_AGE) {
 				return; // This creature is too young
 			}
-			if (creature.energy <= creature.SAFE_SIZE) {
+			if (creature.getEnergy() <= creature.SAFE_SIZE) {
 				return; // This creature is too small
 			}
 
@@ -0,0 +1,8 @@
+package evolv.io;
+
+/**
+ * Steers the selected creature by hand while the board is under user control.
+ */
+interface CreatureController {
+	void control(Creature creature, double timeStep);
+}
@@ -0,0 +1,148 @@
+package evolv.io;
+
+/**
+ * Physics and energy state for every living creature, kept as one primitive
+ * column per field instead of inside the Creature objects. A creature is
+ * only a handle holding its slot; slots are dense, so loops over the columns
+ * walk straight through memory.
+ *
+ * When a creature dies, the last slot is moved into the hole it leaves, so
+ * slots change. Hold on to the Creature, not the slot number.
+ */
+class CreatureStore {
+	static final int ENERGY_HISTORY_LENGTH = 6;
+	static final int VISION_RESULT_COUNT = 9;
+
+	int size;
+	Creature[] creatures;
+	double[] px;
+	double[] py;
+	double[] vx;
+	double[] vy;
+	double[] energy;
+	double[] rotation;
+	double[] vr;
+	double[] density; // Never changes after birth; kept here for integrate()
+	double[] previousEnergy; // ENERGY_HISTORY_LENGTH per slot, newest first
+	double[] visionResults; // VISION_RESULT_COUNT per slot
+
+	public CreatureStore(int initialCapacity) {
+		allocateColumns(Math.max(initialCapacity, 1));
+	}
+
+	public int allocate(Creature creature) {
+		if (size == creatures.length) {
+			grow();
+		}
+		int slot = size++;
+		creatures[slot] = creature;
+		px[slot] = 0;
+		py[slot] = 0;
+		vx[slot] = 0;
+		vy[slot] = 0;
+		energy[slot] = 0;
+		rotation[slot] = 0;
+		vr[slot] = 0;
+		density[slot] = 0;
+		for (int i = 0; i < ENERGY_HISTORY_LENGTH; i++) {
+			previousEnergy[slot * ENERGY_HISTORY_LENGTH + i] = 0;
+		}
+		for (int i = 0; i < VISION_RESULT_COUNT; i++) {
+			visionResults[slot * VISION_RESULT_COUNT + i] = 0;
+		}
+		return slot;
+	}
+
+	public void free(int slot) {
+		int last = --size;
+		if (slot != last) {
+			Creature moved = creatures[last];
+			creatures[slot] = moved;
+			moved.slot = slot;
+			px[slot] = px[last];
+			py[slot] = py[last];
+			vx[slot] = vx[last];
+			vy[slot] = vy[last];
+			energy[slot] = energy[last];
+			rotation[slot] = rotation[last];
+			vr[slot] = vr[last];
+			density[slot] = density[last];
+			System.arraycopy(previousEnergy, last * ENERGY_HISTORY_LENGTH, previousEnergy,
+					slot * ENERGY_HISTORY_LENGTH, ENERGY_HISTORY_LENGTH);
+			System.arraycopy(visionResults, last * VISION_RESULT_COUNT, visionResults, slot * VISION_RESULT_COUNT,
+					VISION_RESULT_COUNT);
+		}
+		creatures[last] = null;
+	}
+
+	/**
+	 * Pushes every creature's current energy onto the front of its history.
+	 */
+	public void shiftEnergyHistory() {
+		for (int slot = 0; slot < size; slot++) {
+			int base = slot * ENERGY_HISTORY_LENGTH;
+			System.arraycopy(previousEnergy, base, previousEnergy, base + 1, ENERGY_HISTORY_LENGTH - 1);
+			previousEnergy[base] = energy[slot];
+		}
+	}
+
+	/**
+	 * Moves and slows down every creature at once. Does the same sums as
+	 * SoftBody.applyMotions() and Creature.applyMotions(), minus swimming and
+	 * keeping the position grid up to date, which the caller has to handle.
+	 */
+	public void integrate(double timeStep, int boardWidth, int boardHeight, float energyDensity, float friction) {
+		for (int slot = 0; slot < size; slot++) {
+			double e = energy[slot];
+			double radius = e <= 0 ? 0 : Math.sqrt(e / energyDensity / Math.PI);
+			double drag = Math.max(0, 1 - friction / (e / energyDensity * density[slot]));
+			px[slot] = Math.min(Math.max(px[slot] + vx[slot] * timeStep, radius), boardWidth - radius);
+			py[slot] = Math.min(Math.max(py[slot] + vy[slot] * timeStep, radius), boardHeight - radius);
+			vx[slot] *= drag;
+			vy[slot] *= drag;
+			rotation[slot] += vr[slot];
+			vr[slot] *= drag;
+		}
+	}
+
+	private void grow() {
+		int oldCapacity = creatures.length;
+		Creature[] oldCreatures = creatures;
+		double[] oldPx = px;
+		double[] oldPy = py;
+		double[] oldVx = vx;
+		double[] oldVy = vy;
+		double[] oldEnergy = energy;
+		double[] oldRotation = rotation;
+		double[] oldVr = vr;
+		double[] oldDensity = density;
+		double[] oldPreviousEnergy = previousEnergy;
+		double[] oldVisionResults = visionResults;
+		allocateColumns(oldCapacity * 2);
+		System.arraycopy(oldCreatures, 0, creatures, 0, size);
+		System.arraycopy(oldPx, 0, px, 0, size);
+		System.arraycopy(oldPy, 0, py, 0, size);
+		System.arraycopy(oldVx, 0, vx, 0, size);
+		System.arraycopy(oldVy, 0, vy, 0, size);
+		System.arraycopy(oldEnergy, 0, energy, 0, size);
+		System.arraycopy(oldRotation, 0, rotation, 0, size);
+		System.arraycopy(oldVr, 0, vr, 0, size);
+		System.arraycopy(oldDensity, 0, density, 0, size);
+		System.arraycopy(oldPreviousEnergy, 0, previousEnergy, 0, size * ENERGY_HISTORY_LENGTH);
+		System.arraycopy(oldVisionResults, 0, visionResults, 0, size * VISION_RESULT_COUNT);
+	}
+
+	private void allocateColumns(int capacity) {
+		creatures = new Creature[capacity];
+		px = new double[capacity];
+		py = new double[capacity];
+		vx = new double[capacity];
+		vy = new double[capacity];
+		energy = new double[capacity];
+		rotation = new double[capacity];
+		vr = new double[capacity];
+		density = new double[capacity];
+		previousEnergy = new double[capacity * ENERGY_HISTORY_LENGTH];
+		visionResults = new double[capacity * VISION_RESULT_COUNT];
+	}
+}
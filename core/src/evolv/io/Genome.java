@@ -0,0 +1,53 @@
+package evolv.io;
+
+/**
+ * A brain's weights and mutabilities squeezed down for archiving: each
+ * weight as a byte times a scale shared by its layer, each mutability as a
+ * 16-bit fixed-point logarithm. Close enough to study how brains evolved,
+ * but not to carry a run on from, so checkpoints keep the exact doubles.
+ *
+ * The doubles are only worked out when asked for.
+ */
+class Genome {
+	final int id; // The creature it belongs to
+	final int layers;
+	final int axonsPerLayer;
+	final float[] scales; // One per layer
+	final byte[] weights; // Laid out like Brain.weights
+	final short[] mutabilities; // log2 in sixteenths
+	final int depth; // How many deltas back its nearest keyframe is
+
+	Genome(int id, int layers, int axonsPerLayer, float[] scales, byte[] weights, short[] mutabilities, int depth) {
+		this.id = id;
+		this.layers = layers;
+		this.axonsPerLayer = axonsPerLayer;
+		this.scales = scales;
+		this.weights = weights;
+		this.mutabilities = mutabilities;
+		this.depth = depth;
+	}
+
+	public double getWeight(int axon) {
+		return weights[axon] * scales[axon / axonsPerLayer];
+	}
+
+	public double getMutability(int axon) {
+		return GenomeCodec.fromLogMutability(mutabilities[axon]);
+	}
+
+	public double[] decodeWeights() {
+		double[] decoded = new double[weights.length];
+		for (int axon = 0; axon < decoded.length; axon++) {
+			decoded[axon] = getWeight(axon);
+		}
+		return decoded;
+	}
+
+	public double[] decodeMutabilities() {
+		double[] decoded = new double[mutabilities.length];
+		for (int axon = 0; axon < decoded.length; axon++) {
+			decoded[axon] = getMutability(axon);
+		}
+		return decoded;
+	}
+}
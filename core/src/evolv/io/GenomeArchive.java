@@ -0,0 +1,96 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every genome in a lineage log, kept encoded and only decoded when asked
+ * for. Decoding one decodes the parents it was written as a delta on, back
+ * to the nearest keyframe, and the most recently decoded are kept around so
+ * walking down a family tree doesn't redo them.
+ */
+class GenomeArchive {
+	static final int CACHE_SIZE = 1 << 12;
+
+	private byte[] bytes = new byte[1 << 16];
+	private int size = 0;
+	private int[] offsets = new int[1 << 10]; // By creature id, -1 if not archived
+	private int[] lengths = new int[1 << 10];
+	private final Map<Integer, Genome> decoded = new LinkedHashMap<Integer, Genome>(CACHE_SIZE, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Genome> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	public GenomeArchive() {
+		Arrays.fill(offsets, -1);
+	}
+
+	/**
+	 * Reads in the genome of every birth in a lineage log.
+	 */
+	public static GenomeArchive read(Path lineageLog) throws IOException {
+		GenomeArchive archive = new GenomeArchive();
+		LineageLog.read(lineageLog, new LineageLog.Reader() {
+			@Override
+			public void birth(int id, int[] parentIds, int gen, double year, double x, double y, ByteBuffer genome) {
+				archive.add(id, genome);
+			}
+
+			@Override
+			public void death(int id, double year, int cause) {
+			}
+		});
+		return archive;
+	}
+
+	public void add(int id, ByteBuffer genome) {
+		if (id >= offsets.length) {
+			int oldLength = offsets.length;
+			offsets = Arrays.copyOf(offsets, Math.max(oldLength * 2, id + 1));
+			lengths = Arrays.copyOf(lengths, offsets.length);
+			Arrays.fill(offsets, oldLength, offsets.length, -1);
+		}
+		int length = genome.remaining();
+		if (size + length > bytes.length) {
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+		}
+		genome.get(bytes, size, length);
+		offsets[id] = size;
+		lengths[id] = length;
+		size += length;
+	}
+
+	public boolean contains(int id) {
+		return id >= 0 && id < offsets.length && offsets[id] >= 0;
+	}
+
+	/**
+	 * Bytes taken by the encoded genomes.
+	 */
+	public int getEncodedSize() {
+		return size;
+	}
+
+	public Genome get(int id) {
+		Genome genome = decoded.get(id);
+		if (genome != null) {
+			return genome;
+		}
+		if (!contains(id)) {
+			throw new IllegalArgumentException("No genome archived for creature " + id);
+		}
+		ByteBuffer in = ByteBuffer.wrap(bytes, offsets[id], lengths[id]);
+		int referenceId = GenomeCodec.referenceOf(in);
+		// Walks at most GenomeCodec.MAX_DEPTH parents back
+		Genome reference = referenceId >= 0 ? get(referenceId) : null;
+		genome = GenomeCodec.read(id, in, reference);
+		decoded.put(id, genome);
+		return genome;
+	}
+}
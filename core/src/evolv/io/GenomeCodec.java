@@ -0,0 +1,258 @@
+package evolv.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns brains into Genomes and Genomes into bytes.
+ *
+ * A child's weights are its parent's plus mutations that are mostly smaller
+ * than a byte's step, so quantized on the parent's layer scales most of
+ * them come out the same as the parent's. A child is written as which bytes
+ * differ and by how much, unless a weight has outgrown its parent's scale,
+ * and then that layer is written whole on a new scale.
+ * Mutabilities are kept as fixed-point logarithms. They all drift by up to
+ * a factor of 1.6 every generation, so each is written as how many steps it
+ * moved, which fits in a byte.
+ *
+ * Decoding a delta needs the parent's Genome first, so every
+ * MAX_DEPTH generations a genome is written whole as a keyframe instead.
+ */
+class GenomeCodec {
+	static final int MAX_DEPTH = 32;
+	static final int KEYFRAME = 0;
+	static final int DELTA = 1;
+	// How a layer of a delta is written
+	static final int SPARSE = 0; // Gaps between the weights that changed
+	static final int MASKED = 1; // A bit per weight for whether it changed
+	static final int WHOLE = 2;
+	// A new scale leaves this many of the byte's steps spare, so children
+	// whose weights grew a little still fit on their parent's scale.
+	private static final int HEADROOM = 15;
+	private static final int LOG_MUTABILITY_STEPS = 16; // Per doubling
+
+	/**
+	 * Quantizes a brain, on the reference's layer scales wherever they're
+	 * big enough. Without a reference, each layer gets its own scale.
+	 */
+	public static Genome quantize(int id, Brain brain, Genome reference) {
+		int layers = brain.BRAIN_WIDTH - 1;
+		int axonsPerLayer = (brain.BRAIN_HEIGHT - 1) * brain.BRAIN_HEIGHT;
+		if (reference != null && (reference.layers != layers || reference.axonsPerLayer != axonsPerLayer
+				|| reference.depth + 1 >= MAX_DEPTH)) {
+			reference = null;
+		}
+		float[] scales = new float[layers];
+		byte[] weights = new byte[layers * axonsPerLayer];
+		for (int layer = 0; layer < layers; layer++) {
+			int from = layer * axonsPerLayer;
+			double largest = largestWeight(brain.weights, from, axonsPerLayer);
+			float scale;
+			if (reference != null && reference.scales[layer] * Byte.MAX_VALUE >= largest) {
+				scale = reference.scales[layer];
+			} else {
+				scale = (float) (largest / (Byte.MAX_VALUE - HEADROOM));
+			}
+			scales[layer] = scale;
+			for (int axon = from; axon < from + axonsPerLayer; axon++) {
+				weights[axon] = scale == 0 ? 0 : (byte) Math.round(brain.weights[axon] / scale);
+			}
+		}
+		short[] mutabilities = new short[brain.mutabilities.length];
+		for (int axon = 0; axon < mutabilities.length; axon++) {
+			mutabilities[axon] = toLogMutability(brain.mutabilities[axon]);
+		}
+		return new Genome(id, layers, axonsPerLayer, scales, weights, mutabilities,
+				reference != null ? reference.depth + 1 : 0);
+	}
+
+	private static double largestWeight(double[] weights, int from, int count) {
+		double largest = 0;
+		for (int axon = from; axon < from + count; axon++) {
+			largest = Math.max(largest, Math.abs(weights[axon]));
+		}
+		return largest;
+	}
+
+	/**
+	 * Writes genome as a delta on reference, or whole if it has none. The
+	 * reference must be the one quantize() was given.
+	 */
+	public static void write(Genome genome, Genome reference, ByteBuffer out) {
+		if (genome.depth == 0) {
+			out.put((byte) KEYFRAME);
+			putVarInt(out, genome.layers);
+			putVarInt(out, genome.axonsPerLayer);
+			for (int layer = 0; layer < genome.layers; layer++) {
+				out.putFloat(genome.scales[layer]);
+				out.put(genome.weights, layer * genome.axonsPerLayer, genome.axonsPerLayer);
+			}
+			for (short mutability : genome.mutabilities) {
+				out.putShort(mutability);
+			}
+			return;
+		}
+		out.put((byte) DELTA);
+		putVarInt(out, reference.id);
+		for (int layer = 0; layer < genome.layers; layer++) {
+			int from = layer * genome.axonsPerLayer;
+			int to = from + genome.axonsPerLayer;
+			if (genome.scales[layer] != reference.scales[layer]) {
+				out.put((byte) WHOLE);
+				out.putFloat(genome.scales[layer]);
+				out.put(genome.weights, from, genome.axonsPerLayer);
+				continue;
+			}
+			int changed = 0;
+			for (int axon = from; axon < to; axon++) {
+				if (genome.weights[axon] != reference.weights[axon]) {
+					changed++;
+				}
+			}
+			// A gap costs about a byte, and the mask a bit for every weight
+			if (changed * Byte.SIZE < genome.axonsPerLayer) {
+				out.put((byte) SPARSE);
+				putVarInt(out, changed);
+				int last = from;
+				for (int axon = from; axon < to; axon++) {
+					if (genome.weights[axon] != reference.weights[axon]) {
+						putVarInt(out, axon - last);
+						putVarInt(out, zigZag(genome.weights[axon] - reference.weights[axon]));
+						last = axon;
+					}
+				}
+				continue;
+			}
+			out.put((byte) MASKED);
+			for (int axon = from; axon < to; axon += Byte.SIZE) {
+				int mask = 0;
+				for (int bit = 0; bit < Byte.SIZE && axon + bit < to; bit++) {
+					if (genome.weights[axon + bit] != reference.weights[axon + bit]) {
+						mask |= 1 << bit;
+					}
+				}
+				out.put((byte) mask);
+			}
+			for (int axon = from; axon < to; axon++) {
+				if (genome.weights[axon] != reference.weights[axon]) {
+					putVarInt(out, zigZag(genome.weights[axon] - reference.weights[axon]));
+				}
+			}
+		}
+		for (int axon = 0; axon < genome.mutabilities.length; axon++) {
+			putVarInt(out, zigZag(genome.mutabilities[axon] - reference.mutabilities[axon]));
+		}
+	}
+
+	/**
+	 * The id of the genome a delta was written against, or -1 for a
+	 * keyframe. Leaves in where it was.
+	 */
+	public static int referenceOf(ByteBuffer in) {
+		int start = in.position();
+		int reference = in.get() == DELTA ? getVarInt(in) : -1;
+		in.position(start);
+		return reference;
+	}
+
+	/**
+	 * Reads back what write() wrote. A delta needs the reference
+	 * referenceOf() names.
+	 */
+	public static Genome read(int id, ByteBuffer in, Genome reference) {
+		if (in.get() == KEYFRAME) {
+			int layers = getVarInt(in);
+			int axonsPerLayer = getVarInt(in);
+			float[] scales = new float[layers];
+			byte[] weights = new byte[layers * axonsPerLayer];
+			for (int layer = 0; layer < layers; layer++) {
+				scales[layer] = in.getFloat();
+				in.get(weights, layer * axonsPerLayer, axonsPerLayer);
+			}
+			short[] mutabilities = new short[weights.length];
+			for (int axon = 0; axon < mutabilities.length; axon++) {
+				mutabilities[axon] = in.getShort();
+			}
+			return new Genome(id, layers, axonsPerLayer, scales, weights, mutabilities, 0);
+		}
+		getVarInt(in); // The reference's id, already looked up
+		int layers = reference.layers;
+		int axonsPerLayer = reference.axonsPerLayer;
+		float[] scales = reference.scales.clone();
+		byte[] weights = reference.weights.clone();
+		for (int layer = 0; layer < layers; layer++) {
+			int from = layer * axonsPerLayer;
+			int to = from + axonsPerLayer;
+			int mode = in.get();
+			if (mode == WHOLE) {
+				scales[layer] = in.getFloat();
+				in.get(weights, from, axonsPerLayer);
+			} else if (mode == SPARSE) {
+				int changed = getVarInt(in);
+				int axon = from;
+				for (int i = 0; i < changed; i++) {
+					axon += getVarInt(in);
+					weights[axon] += unZigZag(getVarInt(in));
+				}
+			} else {
+				byte[] masks = new byte[(axonsPerLayer + Byte.SIZE - 1) / Byte.SIZE];
+				in.get(masks);
+				for (int axon = from; axon < to; axon++) {
+					if ((masks[(axon - from) / Byte.SIZE] & 1 << (axon - from) % Byte.SIZE) != 0) {
+						weights[axon] += unZigZag(getVarInt(in));
+					}
+				}
+			}
+		}
+		short[] mutabilities = new short[reference.mutabilities.length];
+		for (int axon = 0; axon < mutabilities.length; axon++) {
+			mutabilities[axon] = (short) (reference.mutabilities[axon] + unZigZag(getVarInt(in)));
+		}
+		return new Genome(id, layers, axonsPerLayer, scales, weights, mutabilities, reference.depth + 1);
+	}
+
+	/**
+	 * log2 of a mutability in sixteenths, which keeps it within about 2% and
+	 * covers any mutability a double can hold.
+	 */
+	static short toLogMutability(double mutability) {
+		if (!(mutability > 0)) {
+			return Short.MIN_VALUE;
+		}
+		long sixteenths = Math.round(Math.log(mutability) / Math.log(2) * LOG_MUTABILITY_STEPS);
+		return (short) Math.max(Short.MIN_VALUE + 1, Math.min(Short.MAX_VALUE, sixteenths));
+	}
+
+	static double fromLogMutability(short sixteenths) {
+		if (sixteenths == Short.MIN_VALUE) {
+			return 0;
+		}
+		return Math.pow(2, sixteenths / (double) LOG_MUTABILITY_STEPS);
+	}
+
+	private static int zigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void putVarInt(ByteBuffer out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	private static int getVarInt(ByteBuffer in) {
+		int value = 0;
+		for (int shift = 0;; shift += 7) {
+			byte b = in.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+}
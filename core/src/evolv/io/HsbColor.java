@@ -0,0 +1,115 @@
+package evolv.io;
+
+/**
+ * Packed ARGB colors built from hue, saturation and brightness in the 0..1
+ * range, matching Processing's colorMode(HSB, 1.0f).
+ */
+final class HsbColor {
+	private HsbColor() {
+	}
+
+	public static int color(float hue, float saturation, float brightness) {
+		return color(hue, saturation, brightness, 1);
+	}
+
+	public static int color(float hue, float saturation, float brightness, float alpha) {
+		hue = clamp(hue);
+		saturation = clamp(saturation);
+		brightness = clamp(brightness);
+		alpha = clamp(alpha);
+		float r, g, b;
+		if (saturation == 0) {
+			r = g = b = brightness;
+		} else {
+			float which = (hue - (int) hue) * 6.0f;
+			float f = which - (int) which;
+			float p = brightness * (1.0f - saturation);
+			float q = brightness * (1.0f - saturation * f);
+			float t = brightness * (1.0f - (saturation * (1.0f - f)));
+			switch ((int) which) {
+			case 0:
+				r = brightness;
+				g = t;
+				b = p;
+				break;
+			case 1:
+				r = q;
+				g = brightness;
+				b = p;
+				break;
+			case 2:
+				r = p;
+				g = brightness;
+				b = t;
+				break;
+			case 3:
+				r = p;
+				g = q;
+				b = brightness;
+				break;
+			case 4:
+				r = t;
+				g = p;
+				b = brightness;
+				break;
+			default:
+				r = brightness;
+				g = p;
+				b = q;
+				break;
+			}
+		}
+		return ((int) (255 * alpha) << 24) | ((int) (255 * r) << 16) | ((int) (255 * g) << 8) | (int) (255 * b);
+	}
+
+	public static float hue(int color) {
+		int r = (color >> 16) & 0xff;
+		int g = (color >> 8) & 0xff;
+		int b = color & 0xff;
+		int max = Math.max(r, Math.max(g, b));
+		int min = Math.min(r, Math.min(g, b));
+		if (max == 0 || max == min) {
+			return 0;
+		}
+		float range = max - min;
+		float redc = (max - r) / range;
+		float greenc = (max - g) / range;
+		float bluec = (max - b) / range;
+		float hue;
+		if (r == max) {
+			hue = bluec - greenc;
+		} else if (g == max) {
+			hue = 2.0f + redc - bluec;
+		} else {
+			hue = 4.0f + greenc - redc;
+		}
+		hue = hue / 6.0f;
+		if (hue < 0) {
+			hue = hue + 1.0f;
+		}
+		return hue;
+	}
+
+	public static float saturation(int color) {
+		int r = (color >> 16) & 0xff;
+		int g = (color >> 8) & 0xff;
+		int b = color & 0xff;
+		int max = Math.max(r, Math.max(g, b));
+		int min = Math.min(r, Math.min(g, b));
+		if (max == 0) {
+			return 0;
+		}
+		return ((float) (max - min)) / ((float) max);
+	}
+
+	public static float brightness(int color) {
+		int r = (color >> 16) & 0xff;
+		int g = (color >> 8) & 0xff;
+		int b = color & 0xff;
+		return ((float) Math.max(r, Math.max(g, b))) / 255.0f;
+	}
+
+	private static float clamp(float value) {
+		return Math.min(Math.max(value, 0), 1);
+	}
+}
@@ -0,0 +1,9 @@
+package evolv.io;
+
+/**
+ * Writes the current frame to disk when the board schedules a screenshot. The
+ * headless core has no frame, so the board skips images when none is set.
+ */
+interface ImageSaver {
+	void saveImage(String fileName);
+}
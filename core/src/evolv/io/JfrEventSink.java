@@ -0,0 +1,14 @@
+package evolv.io;
+
+/**
+ * Commits a profiled tick as TickEvent and TickPhaseEvents. Built apart from
+ * the rest for Java 11, where JFR came in, and only loaded by name from
+ * TickProfiler once it has found JFR there.
+ */
+class JfrEventSink implements TickProfiler.EventSink {
+	@Override
+	public void commit(long tickNanos, long[] phaseNanos, long[] counters, double year) {
+		TickPhaseEvent.commit(phaseNanos, year);
+		TickEvent.commit(tickNanos, counters, year);
+	}
+}
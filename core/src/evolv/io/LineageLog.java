@@ -0,0 +1,326 @@
+package evolv.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Every birth and death, appended to a memory-mapped file as small binary
+ * records keyed by creature id. The family tree of a long run can be worked
+ * out afterwards from the file, without keeping dead creatures or strings of
+ * their parents' names around.
+ *
+ * Each birth also archives the child's brain as a Genome, written as a delta
+ * on one of its parents' when it has one (see GenomeCodec), so a record of
+ * every brain that ever lived costs a few hundred bytes a birth rather than
+ * thousands. GenomeArchive reads them back.
+ *
+ * Events are gathered in a buffer during a tick, and endTick() copies them
+ * into the mapped file in one go. The file is mapped a region at a time and
+ * grows as it fills. Its header holds how much of it has been written, and
+ * the year and next creature id as of the last tick, bumped after each tick,
+ * so a crash never leaves half an event behind.
+ *
+ * A log belongs to one run. Opening it for a new board starts it over.
+ * Opening it for a board resumed from a checkpoint cuts off everything after
+ * the checkpoint's year, since the resumed run will hand out those ids again
+ * to different creatures. A log from a different seed, or one that stops
+ * short of the checkpoint, can't be carried on and isn't touched.
+ */
+class LineageLog implements Closeable {
+	static final int MAGIC = 0x4C494E45; // "LINE"
+	static final int VERSION = 3;
+	static final int HEADER_SIZE = 32;
+	// Where things are in the header, after the magic number and version
+	private static final int LENGTH = 8;
+	private static final int YEAR = 16;
+	private static final int SEED = 24;
+	private static final int ID_UP_TO = 28;
+	static final int REGION_SIZE = 1 << 24;
+
+	static final int BIRTH = 1;
+	static final int DEATH = 2;
+
+	// Why a creature died: what last cost it energy before it ran too low
+	static final int STARVED = 0;
+	static final int INJURED = 1;
+	static final int GAVE_BIRTH = 2;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private MappedByteBuffer region; // Mapped from length on
+	private long length; // Bytes written, header included
+	private double year;
+	private int idUpTo;
+	private ByteBuffer tick = ByteBuffer.allocate(1 << 12);
+	private final ByteBuffer genome = ByteBuffer.allocate(1 << 12); // Big enough for any brain's
+	private long births = 0;
+	private long deaths = 0;
+
+	/**
+	 * Opens the log at path for board: a new one if the board has never
+	 * ticked, or the old one cut back to the board's year if it's carrying on
+	 * from a checkpoint.
+	 */
+	public LineageLog(Path path, Board board) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			boolean fresh = channel.size() < HEADER_SIZE || board.year == 0;
+			if (!fresh) {
+				ByteBuffer old = ByteBuffer.allocate(HEADER_SIZE);
+				channel.read(old, 0);
+				checkHeader(old, path);
+				if (old.getInt(SEED) != board.SEED) {
+					throw new IOException(path + " is from a run with seed " + old.getInt(SEED) + ", not "
+							+ board.SEED);
+				}
+				if (old.getDouble(YEAR) < board.year) {
+					throw new IOException(path + " stops at year " + old.getDouble(YEAR)
+							+ ", before the checkpoint's year " + board.year);
+				}
+				length = positionAfter(channel, old.getLong(LENGTH), board.year);
+			} else {
+				length = HEADER_SIZE;
+			}
+			channel.truncate(length);
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putInt(SEED, board.SEED);
+		year = board.year;
+		idUpTo = board.creatureIDUpTo;
+		writeHeader();
+		mapFrom(length, 0);
+	}
+
+	public void birth(Creature child, Creature[] parents) {
+		Genome reference = reference(child.brain, parents);
+		Genome childGenome = GenomeCodec.quantize(child.id, child.brain, reference);
+		child.brain.genome = childGenome;
+		genome.clear();
+		GenomeCodec.write(childGenome, reference, genome);
+		genome.flip();
+		room(1 + 4 + 8 + 4 + 8 + 8 + 4 + 4 * parents.length + 4 + genome.remaining());
+		tick.put((byte) BIRTH);
+		tick.putInt(child.id);
+		tick.putDouble(child.board.year);
+		tick.putInt(child.gen);
+		tick.putDouble(child.getPx());
+		tick.putDouble(child.getPy());
+		tick.putInt(parents.length);
+		for (Creature parent : parents) {
+			tick.putInt(parent.id);
+		}
+		tick.putInt(genome.remaining());
+		tick.put(genome);
+		births++;
+	}
+
+	/**
+	 * The archived genome of whichever parent the child's weights are
+	 * closest to, so its delta is smallest. Parents restored from a
+	 * checkpoint weren't archived in this run and can't be used.
+	 */
+	private static Genome reference(Brain child, Creature[] parents) {
+		Genome best = null;
+		int bestChanged = Integer.MAX_VALUE;
+		for (Creature parent : parents) {
+			Genome candidate = parent.brain.genome;
+			if (candidate == null || candidate.weights.length != child.weights.length) {
+				continue;
+			}
+			int changed = 0;
+			for (int axon = 0; axon < child.weights.length; axon++) {
+				double step = candidate.scales[axon / candidate.axonsPerLayer];
+				if (Math.abs(child.weights[axon] - candidate.getWeight(axon)) > step / 2) {
+					changed++;
+				}
+			}
+			if (changed < bestChanged) {
+				best = candidate;
+				bestChanged = changed;
+			}
+		}
+		return best;
+	}
+
+	public void death(Creature creature, int cause) {
+		room(1 + 4 + 8 + 1);
+		tick.put((byte) DEATH);
+		tick.putInt(creature.id);
+		tick.putDouble(creature.board.year);
+		tick.put((byte) cause);
+		deaths++;
+	}
+
+	/**
+	 * Appends this tick's events to the file, and notes that the log is
+	 * whole up to year, with ids below idUpTo handed out.
+	 */
+	public void endTick(double year, int idUpTo) {
+		this.year = year;
+		this.idUpTo = idUpTo;
+		if (tick.position() == 0) {
+			writeHeader();
+			return;
+		}
+		tick.flip();
+		if (region.remaining() < tick.remaining()) {
+			try {
+				mapFrom(length, tick.remaining());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		length += tick.remaining();
+		region.put(tick);
+		tick.clear();
+		writeHeader();
+	}
+
+	private void writeHeader() {
+		header.putDouble(YEAR, year);
+		header.putInt(ID_UP_TO, idUpTo);
+		header.putLong(LENGTH, length); // Last, so the rest is in place once it counts
+	}
+
+	/**
+	 * Whether nothing has been written to the file yet, in this run or any
+	 * before.
+	 */
+	public boolean isEmpty() {
+		return length == HEADER_SIZE && tick.position() == 0;
+	}
+
+	public long getBirths() {
+		return births;
+	}
+
+	public long getDeaths() {
+		return deaths;
+	}
+
+	/**
+	 * Writes out what's left and trims the file to what was written.
+	 */
+	@Override
+	public void close() throws IOException {
+		endTick(year, idUpTo);
+		region.force();
+		header.force();
+		region = null;
+		channel.truncate(length);
+		channel.close();
+	}
+
+	private void mapFrom(long position, int atLeast) throws IOException {
+		region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(REGION_SIZE, atLeast));
+	}
+
+	private void room(int bytes) {
+		if (tick.remaining() < bytes) {
+			ByteBuffer bigger = ByteBuffer.allocate(Math.max(tick.capacity() * 2, tick.position() + bytes));
+			tick.flip();
+			bigger.put(tick);
+			tick = bigger;
+		}
+	}
+
+	private static void checkHeader(ByteBuffer header, Path path) throws IOException {
+		if (header.getInt(0) != MAGIC) {
+			throw new IOException(path + " is not a lineage log");
+		}
+		if (header.getInt(4) != VERSION) {
+			throw new IOException("Can't read lineage log version " + header.getInt(4) + ", only " + VERSION);
+		}
+	}
+
+	interface Reader {
+		/**
+		 * genome holds the child's encoded Genome, only until this returns.
+		 */
+		void birth(int id, int[] parentIds, int gen, double year, double x, double y, ByteBuffer genome);
+
+		void death(int id, double year, int cause);
+	}
+
+	/**
+	 * Hands every event in the log to reader, in the order they happened.
+	 */
+	public static void read(Path path, Reader reader) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			if (channel.read(header) < HEADER_SIZE) {
+				throw new IOException(path + " is not a lineage log");
+			}
+			checkHeader(header, path);
+			walk(channel, header.getLong(LENGTH), Double.POSITIVE_INFINITY, reader);
+		}
+	}
+
+	/**
+	 * Where the first event after year starts, or length if there's none.
+	 */
+	private static long positionAfter(FileChannel channel, long length, double year) throws IOException {
+		return walk(channel, length, year, null);
+	}
+
+	/**
+	 * Reads events from the start of the log up to length, handing them to
+	 * reader if there is one, and stops before the first one after
+	 * untilYear. Returns where it stopped. Leaves the channel open.
+	 */
+	private static long walk(FileChannel channel, long length, double untilYear, Reader reader) throws IOException {
+		channel.position(HEADER_SIZE);
+		BinaryInput in = new BinaryInput(channel);
+		byte[] genome = new byte[1 << 12];
+		long position = HEADER_SIZE;
+		while (position < length) {
+			int type = in.readByte();
+			int id = in.readInt();
+			double year = in.readDouble();
+			if (year > untilYear) {
+				break;
+			}
+			if (type == BIRTH) {
+				int gen = in.readInt();
+				double x = in.readDouble();
+				double y = in.readDouble();
+				int[] parentIds = new int[in.readInt()];
+				in.readInts(parentIds, 0, parentIds.length);
+				int genomeLength = in.readInt();
+				if (genomeLength > genome.length) {
+					genome = new byte[genomeLength];
+				}
+				in.readBytes(genome, 0, genomeLength);
+				if (reader != null) {
+					reader.birth(id, parentIds, gen, year, x, y, ByteBuffer.wrap(genome, 0, genomeLength));
+				}
+				position += 1 + 4 + 8 + 4 + 8 + 8 + 4 + 4 * parentIds.length + 4 + genomeLength;
+			} else if (type == DEATH) {
+				int cause = in.readByte();
+				if (reader != null) {
+					reader.death(id, year, cause);
+				}
+				position += 1 + 4 + 8 + 1;
+			} else {
+				throw new IOException("Unknown lineage event " + type + " at byte " + position);
+			}
+		}
+		return position;
+	}
+}
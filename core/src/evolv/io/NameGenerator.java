@@ -4,13 +4,13 @@ class NameGenerator {
 	/**
 	 * 
 	 */
-	private final EvolvioColor evolvioColor;
+	private final Rng rng;
 
 	/**
-	 * @param evolvioColor
+	 * @param rng
 	 */
-	NameGenerator(EvolvioColor evolvioColor) {
-		this.evolvioColor = evolvioColor;
+	NameGenerator(Rng rng) {
+		this.rng = rng;
 	}
 
 	final int MIN_NAME_LENGTH = 3;
@@ -21,7 +21,7 @@ class NameGenerator {
 
 	public String newName() {
 		String nameSoFar = "";
-		int chosenLength = (int) (this.evolvioColor.random(MIN_NAME_LENGTH, MAX_NAME_LENGTH));
+		int chosenLength = (int) (this.rng.random(MIN_NAME_LENGTH, MAX_NAME_LENGTH));
 		for (int i = 0; i < chosenLength; i++) {
 			nameSoFar += getRandomChar();
 		}
@@ -30,28 +30,30 @@ class NameGenerator {
 
 	public String mutateName(String input) {
 		if (input.length() >= 3) {
-			if (this.evolvioColor.random(0, 1) < 0.2f) {
-				int removeIndex = (int) this.evolvioColor.random(0, input.length());
+			if (this.rng.random(0, 1) < 0.2f) {
+				int removeIndex = (int) this.rng.random(0, input.length());
 				input = input.substring(0, removeIndex) + input.substring(removeIndex + 1, input.length());
 			}
 		}
 		if (input.length() <= 9) {
-			if (this.evolvioColor.random(0, 1) < 0.2f) {
-				int insertIndex = (int) this.evolvioColor.random(0, input.length() + 1);
+			if (this.rng.random(0, 1) < 0.2f) {
+				int insertIndex = (int) this.rng.random(0, input.length() + 1);
 				input = input.substring(0, insertIndex) + getRandomChar()
 						+ input.substring(insertIndex, input.length());
 			}
 		}
-		int changeIndex = (int) this.evolvioColor.random(0, input.length());
+		int changeIndex = (int) this.rng.random(0, input.length());
 		input = input.substring(0, changeIndex) + getRandomChar()
 				+ input.substring(changeIndex + 1, input.length());
 		return input;
 	}
 
 	public char getRandomChar() {
-		float letterFactor = this.evolvioColor.random(0, 100);
+		float letterFactor = this.rng.random(0, 100);
 		int letterChoice = 0;
-		while (letterFactor > 0) {
+		// Float rounding can leave a sliver of a roll near 100 after taking
+		// off every frequency; that's a z too.
+		while (letterFactor > 0 && letterChoice < LETTER_FREQUENCIES.length) {
 			letterFactor -= LETTER_FREQUENCIES[letterChoice];
 			letterChoice++;
 		}
@@ -80,7 +82,7 @@ class NameGenerator {
 				} else if (input.length() >= MAX_NAME_LENGTH) {
 					chanceOfAddingChar = 0.0f;
 				}
-				if (this.evolvioColor.random(0, 1) < chanceOfAddingChar) {
+				if (this.rng.random(0, 1) < chanceOfAddingChar) {
 					char extraChar = ' ';
 					while (extraChar == ' ' || (isVowel(ch) == isVowel(extraChar))) {
 						extraChar = getRandomChar();
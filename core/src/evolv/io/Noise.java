@@ -0,0 +1,109 @@
+package evolv.io;
+
+import java.util.Random;
+
+/**
+ * Perlin noise, ported from Processing so that a seed produces the same
+ * terrain in the headless core as it did in the sketch.
+ */
+class Noise {
+	private static final int PERLIN_YWRAPB = 4;
+	private static final int PERLIN_YWRAP = 1 << PERLIN_YWRAPB;
+	private static final int PERLIN_ZWRAPB = 8;
+	private static final int PERLIN_ZWRAP = 1 << PERLIN_ZWRAPB;
+	private static final int PERLIN_SIZE = 4095;
+	private static final float DEG_TO_RAD = (float) Math.PI / 180.0f;
+	private static final float SINCOS_PRECISION = 0.5f;
+	private static final int SINCOS_LENGTH = (int) (360f / SINCOS_PRECISION);
+	private static final float[] COS_TABLE = new float[SINCOS_LENGTH];
+
+	static {
+		for (int i = 0; i < SINCOS_LENGTH; i++) {
+			COS_TABLE[i] = (float) Math.cos(i * DEG_TO_RAD * SINCOS_PRECISION);
+		}
+	}
+
+	private final int octaves = 4;
+	private final float ampFalloff = 0.5f;
+	private final float[] perlin = new float[PERLIN_SIZE + 1];
+
+	public Noise(long seed) {
+		Random random = new Random(seed);
+		for (int i = 0; i < PERLIN_SIZE + 1; i++) {
+			perlin[i] = random.nextFloat();
+		}
+	}
+
+	public float noise(float x, float y) {
+		return noise(x, y, 0);
+	}
+
+	public float noise(float x, float y, float z) {
+		if (x < 0)
+			x = -x;
+		if (y < 0)
+			y = -y;
+		if (z < 0)
+			z = -z;
+
+		int xi = (int) x, yi = (int) y, zi = (int) z;
+		float xf = x - xi;
+		float yf = y - yi;
+		float zf = z - zi;
+		float rxf, ryf;
+
+		float r = 0;
+		float ampl = 0.5f;
+
+		float n1, n2, n3;
+
+		for (int i = 0; i < octaves; i++) {
+			int of = xi + (yi << PERLIN_YWRAPB) + (zi << PERLIN_ZWRAPB);
+
+			rxf = fade(xf);
+			ryf = fade(yf);
+
+			n1 = perlin[of & PERLIN_SIZE];
+			n1 += rxf * (perlin[(of + 1) & PERLIN_SIZE] - n1);
+			n2 = perlin[(of + PERLIN_YWRAP) & PERLIN_SIZE];
+			n2 += rxf * (perlin[(of + PERLIN_YWRAP + 1) & PERLIN_SIZE] - n2);
+			n1 += ryf * (n2 - n1);
+
+			of += PERLIN_ZWRAP;
+			n2 = perlin[of & PERLIN_SIZE];
+			n2 += rxf * (perlin[(of + 1) & PERLIN_SIZE] - n2);
+			n3 = perlin[(of + PERLIN_YWRAP) & PERLIN_SIZE];
+			n3 += rxf * (perlin[(of + PERLIN_YWRAP + 1) & PERLIN_SIZE] - n3);
+			n2 += ryf * (n3 - n2);
+
+			n1 += fade(zf) * (n2 - n1);
+
+			r += n1 * ampl;
+			ampl *= ampFalloff;
+			xi <<= 1;
+			xf *= 2;
+			yi <<= 1;
+			yf *= 2;
+			zi <<= 1;
+			zf *= 2;
+
+			if (xf >= 1.0f) {
+				xi++;
+				xf--;
+			}
+			if (yf >= 1.0f) {
+				yi++;
+				yf--;
+			}
+			if (zf >= 1.0f) {
+				zi++;
+				zf--;
+			}
+		}
+		return r;
+	}
+
+	private float fade(float i) {
+		return 0.5f * (1.0f - COS_TABLE[(int) (i * (SINCOS_LENGTH >> 1)) % SINCOS_LENGTH]);
+	}
+}
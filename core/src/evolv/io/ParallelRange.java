@@ -0,0 +1,54 @@
+package evolv.io;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a loop over 0 until count in chunks on a ForkJoinPool, or straight
+ * through on the calling thread when there is no pool.
+ */
+final class ParallelRange {
+	interface Body {
+		void run(int from, int to);
+	}
+
+	private ParallelRange() {
+	}
+
+	public static void run(ForkJoinPool pool, int count, int grain, Body body) {
+		if (count <= 0) {
+			return;
+		}
+		if (pool == null || count <= grain) {
+			body.run(0, count);
+		} else {
+			pool.invoke(new Chunk(0, count, grain, body));
+		}
+	}
+
+	private static class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int grain;
+		private final Body body;
+
+		Chunk(int from, int to, int grain, Body body) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				body.run(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Chunk(from, middle, grain, body), new Chunk(middle, to, grain, body));
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package evolv.io;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Runs the creature half of a tick in phases instead of one creature at a
+ * time, so the expensive parts can be spread over a ForkJoinPool.
+ *
+ * Sense (collide) and think (BrainBatch) run in parallel. Nothing moves
+ * during them and each creature only writes to itself, so they all see the
+ * same frozen board. Acting (metabolism, eating, fighting, births) then runs
+ * on the calling thread in list order, which keeps runs repeatable. After
+ * movement, see() runs in parallel again for the next tick's inputs.
+ *
+ * Unlike the serial tick, creatures do not react to moves made earlier in
+ * the same tick, and creatures born during the tick wait until the next one
+ * to act.
+ */
+class PhasedTick {
+	// Below this many creatures a task just runs its range itself.
+	static final int SPLIT_THRESHOLD = 32;
+
+	private final Board board;
+	private final ForkJoinPool pool;
+	private final BrainBatch brainBatch = new BrainBatch();
+	private Creature[] tickCreatures = new Creature[0];
+
+	public PhasedTick(Board board, int parallelism) {
+		this.board = board;
+		this.pool = new ForkJoinPool(parallelism);
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	public void iterateCreatures(double timeStep) {
+		int count = board.creatures.size();
+		tickCreatures = board.creatures.toArray(tickCreatures);
+
+		TickProfiler profiler = board.profiler;
+		board.contacts.update(board.grid, pool);
+		if (TickProfiler.ENABLED) {
+			profiler.lap(TickProfiler.CONTACTS);
+			profiler.count(TickProfiler.PAIRS, board.contacts.pairCount);
+		}
+		forEach(tickCreatures, count, creature -> creature.collide(timeStep));
+		if (TickProfiler.ENABLED) {
+			profiler.lap(TickProfiler.COLLIDE);
+		}
+		brainBatch.think(tickCreatures, count, board.creatureStore, pool);
+		if (TickProfiler.ENABLED) {
+			profiler.lap(TickProfiler.THINK);
+		}
+
+		for (int i = 0; i < count; i++) {
+			Creature me = tickCreatures[i];
+			me.metabolize(timeStep);
+			if (TickProfiler.ENABLED) {
+				profiler.lap(TickProfiler.METABOLIZE);
+			}
+			if (!me.alive) {
+				continue;
+			}
+			if (!board.userControl) {
+				me.useOutputs(timeStep);
+			}
+			board.applyControl(me, timeStep);
+			if (TickProfiler.ENABLED) {
+				profiler.lap(TickProfiler.ACT);
+			}
+		}
+		// Don't hold on to creatures that died this tick.
+		for (int i = 0; i < count; i++) {
+			tickCreatures[i] = null;
+		}
+	}
+
+	public void moveCreatures(double objectTimeStep) {
+		int count = board.creatures.size();
+		if (count == 0) {
+			return;
+		}
+		tickCreatures = board.creatures.toArray(tickCreatures);
+		for (int i = 0; i < count; i++) {
+			tickCreatures[i].swim();
+		}
+		Creature any = tickCreatures[0];
+		board.creatureStore.integrate(objectTimeStep, board.boardWidth, board.boardHeight, any.ENERGY_DENSITY,
+				any.FRICTION);
+		board.grid.rebuild(board.rocks, board.creatures);
+		if (TickProfiler.ENABLED) {
+			board.profiler.lap(TickProfiler.MOVE);
+		}
+		forEach(tickCreatures, count, creature -> creature.see(objectTimeStep));
+		if (TickProfiler.ENABLED) {
+			board.profiler.lap(TickProfiler.SEE);
+		}
+		for (int i = 0; i < count; i++) {
+			tickCreatures[i] = null;
+		}
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private void forEach(Creature[] creatures, int count, Consumer<Creature> action) {
+		ParallelRange.run(pool, count, SPLIT_THRESHOLD, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				action.accept(creatures[i]);
+			}
+		});
+	}
+}
@@ -0,0 +1,116 @@
+package evolv.io;
+
+import java.util.Arrays;
+
+/**
+ * Finds what a vision ray runs into. The ray walks exactly the tiles it
+ * passes through, in order (Amanatides and Woo's grid traversal), and stops
+ * as soon as the nearest body hit so far is closer than the next tile
+ * boundary, since anything listed further on can only be hit further away.
+ *
+ * Casting allocates nothing. Each thread has its own Raycaster, and a body
+ * listed in several tiles along one ray is only tested once: it is stamped
+ * with the ray's number the first time, rather than looked up in a list.
+ */
+class Raycaster {
+	private static final ThreadLocal<Raycaster> FOR_THREAD = ThreadLocal.withInitial(Raycaster::new);
+
+	// The last ray each body, by grid index, was tested against
+	private int[] testedOnRay = new int[0];
+	private int ray;
+
+	// What the last cast hit, if anything
+	SoftBody hitBody;
+	double hitDistance;
+
+	public static Raycaster forThisThread() {
+		return FOR_THREAD.get();
+	}
+
+	/**
+	 * Casts a ray of the given length and angle from (startX, startY) and
+	 * finds the nearest living body other than self that it touches. The hit
+	 * distance is where the ray enters the body, which is negative when it
+	 * starts inside one.
+	 */
+	public boolean cast(SpatialGrid grid, SoftBody self, double startX, double startY, double angle,
+			double length) {
+		startRay(grid.bodyCount);
+		hitBody = null;
+		hitDistance = Double.POSITIVE_INFINITY;
+		double cos = Math.cos(angle);
+		double sin = Math.sin(angle);
+
+		int tileX = (int) Math.floor(startX);
+		int tileY = (int) Math.floor(startY);
+		int stepX = cos > 0 ? 1 : -1;
+		int stepY = sin > 0 ? 1 : -1;
+		// How far along the ray the next vertical and horizontal tile edges
+		// are, and how far apart successive ones are.
+		double nextX = cos > 0 ? (tileX + 1 - startX) / cos : cos < 0 ? (startX - tileX) / -cos
+				: Double.POSITIVE_INFINITY;
+		double nextY = sin > 0 ? (tileY + 1 - startY) / sin : sin < 0 ? (startY - tileY) / -sin
+				: Double.POSITIVE_INFINITY;
+		double deltaX = 1 / Math.abs(cos);
+		double deltaY = 1 / Math.abs(sin);
+
+		// The board is a rectangle, so once the ray leaves it, it's gone.
+		while (tileX >= 0 && tileX < grid.width && tileY >= 0 && tileY < grid.height) {
+			testTile(grid, self, tileX, tileY, startX, startY, cos, sin, length);
+			double tileExit = Math.min(nextX, nextY);
+			if (hitDistance <= tileExit || tileExit > length) {
+				break;
+			}
+			if (nextX < nextY) {
+				tileX += stepX;
+				nextX += deltaX;
+			} else {
+				tileY += stepY;
+				nextY += deltaY;
+			}
+		}
+		return hitBody != null;
+	}
+
+	private void testTile(SpatialGrid grid, SoftBody self, int tileX, int tileY, double startX, double startY,
+			double cos, double sin, double length) {
+		int end = grid.cellEnd(tileX, tileY);
+		for (int entry = grid.cellFirst(tileX, tileY); entry < end; entry++) {
+			int index = grid.cellBody(entry);
+			if (testedOnRay[index] == ray) {
+				continue;
+			}
+			testedOnRay[index] = ray;
+			SoftBody body = grid.body(index);
+			if (body == self || !body.alive) {
+				continue;
+			}
+			double x = body.getPx() - startX;
+			double y = body.getPy() - startY;
+			double r = body.getRadius();
+			// The body's centre in the ray's frame: along it and off to the side
+			double along = x * cos + y * sin;
+			double across = y * cos - x * sin;
+			if (Math.abs(across) <= r) {
+				double halfChord = Math.sqrt(r * r - across * across);
+				double enters = along - halfChord;
+				if (enters <= length && along + halfChord >= 0 && enters < hitDistance) {
+					hitBody = body;
+					hitDistance = enters;
+				}
+			}
+		}
+	}
+
+	private void startRay(int bodyCount) {
+		if (testedOnRay.length < bodyCount) {
+			testedOnRay = new int[Math.max(bodyCount, testedOnRay.length * 2)];
+			ray = 0;
+		}
+		if (++ray == 0) {
+			// Ran through every ray number; forget all the old stamps.
+			Arrays.fill(testedOnRay, 0);
+			ray = 1;
+		}
+	}
+}
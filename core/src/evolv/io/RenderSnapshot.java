@@ -0,0 +1,347 @@
+package evolv.io;
+
+import java.util.Arrays;
+
+/**
+ * Everything the viewer draws, copied out of a board at a tick boundary. The
+ * simulation thread fills one of these while the viewer reads another, and the
+ * arrays are kept between fills so capturing does not allocate once the
+ * population has settled. Tiles are only copied for the part of the board
+ * being looked at, and only from chunks that changed since the last fill.
+ */
+class RenderSnapshot {
+	static final int POPULATION_TIER = 1; // The last four years of the board's history
+
+	long sequence = -1;
+
+	// UI stats
+	int seed;
+	double year;
+	double season;
+	double temperature;
+	float minTemperature;
+	float maxTemperature;
+	float lowTempProportion;
+	float highTempProportion;
+	int population;
+	double[] populationHistory = new double[0]; // Oldest first
+	double maxPopulation;
+	double[] fileSaveTimes = new double[4];
+	String[] nextFileNames = new String[4];
+	int creatureMinimum;
+	double imageSaveInterval;
+	double textSaveInterval;
+	double checkpointLatencyMillis;
+	int checkpointQueueDepth;
+	long checkpointsFailed;
+	int playSpeed;
+	boolean userControl;
+
+	// Tick profile, by phase with the whole tick last; only filled in when
+	// TickProfiler.ENABLED
+	double[] phaseMedianMillis = new double[TickProfiler.PHASE_COUNT + 1];
+	double[] phaseP99Millis = new double[TickProfiler.PHASE_COUNT + 1];
+	long[] tickCounts = new long[TickProfiler.COUNTER_COUNT];
+
+	// Tiles, only over the whole chunks asked for: from tileLeft up to
+	// tileRight across and tileTop up to tileBottom down, indexed as in
+	// tileIndex()
+	int boardWidth;
+	int boardHeight;
+	int tileLeft;
+	int tileTop;
+	int tileRight;
+	int tileBottom;
+	int[] tileColors = new int[0];
+	float[] tileFoodLevels = new float[0];
+	float[] tileClimateTypes = new float[0];
+	float[] tileFoodTypes = new float[0];
+	// For each of those chunks, row by row, the year and the chunk's changes
+	// when it was last copied
+	private long[] chunkYears = new long[0];
+	private int[] chunkChanges = new int[0];
+
+	// Bodies: rocks come first, then creatures
+	int rockCount;
+	int bodyCount;
+	double[] px = new double[0];
+	double[] py = new double[0];
+	double[] radius = new double[0];
+	float[] hue = new float[0];
+	float[] saturation = new float[0];
+	float[] brightness = new float[0];
+
+	// Creatures, indexed by body index - rockCount
+	int creatureCount;
+	int[] id = new int[0];
+	String[] name = new String[0];
+	int[] gen = new int[0];
+	double[] energy = new double[0];
+	double[] birthTime = new double[0];
+	double[] rotation = new double[0];
+	double[] mouthHue = new double[0];
+	double[] fightLevel = new double[0];
+	int visionRays;
+	double[] visionEndX = new double[0];
+	double[] visionEndY = new double[0];
+	double[] visionOccludedX = new double[0];
+	double[] visionOccludedY = new double[0];
+	double[] visionResults = new double[0];
+
+	// The selected creature, if any
+	int selectedIndex = -1;
+	String selectedParents;
+	double selectedEnergyUsage;
+	Brain selectedBrain; // A copy of the weights, so it's never the creature's own brain
+	double[][] selectedNeurons;
+	private Brain brainCopy; // Kept when nothing is selected, to copy into next time
+	private int brainCopyId = -1; // Whose weights brainCopy holds
+
+	public void capture(Board board) {
+		capture(board, 0, 0, board.boardWidth, board.boardHeight);
+	}
+
+	/**
+	 * Copies the board out, but only the tiles in the chunks that overlap
+	 * the tiles from (left, top) up to (right, bottom). The chunks copied
+	 * count as touched, so a view of the whole board makes all of its
+	 * chunks.
+	 */
+	public void capture(Board board, int left, int top, int right, int bottom) {
+		seed = board.SEED;
+		year = board.year;
+		season = board.getSeason();
+		temperature = board.temperature;
+		minTemperature = board.MIN_TEMPERATURE;
+		maxTemperature = board.MAX_TEMPERATURE;
+		lowTempProportion = board.getLowTempProportion();
+		highTempProportion = board.getHighTempProportion();
+		population = board.creatures.size();
+		TimeSeries.Tier populationTier = board.history.getTier(POPULATION_TIER);
+		if (populationHistory.length != populationTier.size()) {
+			populationHistory = new double[populationTier.size()];
+		}
+		for (int i = 0; i < populationHistory.length; i++) {
+			populationHistory[i] = populationTier.getMean(TimeSeries.POPULATION, populationHistory.length - 1 - i);
+		}
+		maxPopulation = populationTier.getMax(TimeSeries.POPULATION);
+		for (int i = 0; i < 4; i++) {
+			fileSaveTimes[i] = board.fileSaveTimes[i];
+			nextFileNames[i] = board.getNextFileName(i);
+		}
+		creatureMinimum = board.creatureMinimum;
+		imageSaveInterval = board.imageSaveInterval;
+		textSaveInterval = board.textSaveInterval;
+		if (board.checkpointWriter != null) {
+			checkpointLatencyMillis = board.checkpointWriter.getLastLatencyMillis();
+			checkpointQueueDepth = board.checkpointWriter.getQueueDepth();
+			checkpointsFailed = board.checkpointWriter.getFailed();
+		}
+		playSpeed = board.playSpeed;
+		userControl = board.userControl;
+		if (TickProfiler.ENABLED) {
+			for (int phase = 0; phase <= TickProfiler.PHASE_COUNT; phase++) {
+				phaseMedianMillis[phase] = board.profiler.getPercentileMillis(phase, 0.5);
+				phaseP99Millis[phase] = board.profiler.getPercentileMillis(phase, 0.99);
+			}
+			for (int counter = 0; counter < TickProfiler.COUNTER_COUNT; counter++) {
+				tickCounts[counter] = board.profiler.getCount(counter);
+			}
+		}
+
+		captureTiles(board, left, top, right, bottom);
+		captureBodies(board);
+	}
+
+	private void captureTiles(Board board, int left, int top, int right, int bottom) {
+		TileField tiles = board.tiles;
+		boardWidth = board.boardWidth;
+		boardHeight = board.boardHeight;
+		// Out to whole chunks, and in to the board
+		int chunkLeft = Math.min(Math.max(left, 0) >> TileField.CHUNK_SHIFT, tiles.chunksWide);
+		int chunkTop = Math.min(Math.max(top, 0) >> TileField.CHUNK_SHIFT, tiles.chunksHigh);
+		int chunkRight = Math.max((Math.min(right, boardWidth) + TileField.CHUNK_SIZE - 1) >> TileField.CHUNK_SHIFT,
+				chunkLeft);
+		int chunkBottom = Math.max(
+				(Math.min(bottom, boardHeight) + TileField.CHUNK_SIZE - 1) >> TileField.CHUNK_SHIFT, chunkTop);
+		int newLeft = Math.min(chunkLeft << TileField.CHUNK_SHIFT, boardWidth);
+		int newTop = Math.min(chunkTop << TileField.CHUNK_SHIFT, boardHeight);
+		int newRight = Math.min(chunkRight << TileField.CHUNK_SHIFT, boardWidth);
+		int newBottom = Math.min(chunkBottom << TileField.CHUNK_SHIFT, boardHeight);
+		boolean moved = newLeft != tileLeft || newTop != tileTop || newRight != tileRight || newBottom != tileBottom;
+		tileLeft = newLeft;
+		tileTop = newTop;
+		tileRight = newRight;
+		tileBottom = newBottom;
+		int tileCount = (tileRight - tileLeft) * (tileBottom - tileTop);
+		if (tileColors.length < tileCount) {
+			tileColors = new int[tileCount];
+			tileFoodLevels = new float[tileCount];
+			tileClimateTypes = new float[tileCount];
+			tileFoodTypes = new float[tileCount];
+		}
+		int chunksAcross = chunkRight - chunkLeft;
+		int chunkCount = chunksAcross * (chunkBottom - chunkTop);
+		if (chunkYears.length < chunkCount) {
+			chunkYears = new long[chunkCount];
+			chunkChanges = new int[chunkCount];
+			moved = true;
+		}
+		if (moved) {
+			Arrays.fill(chunkYears, TileField.NO_COLOR);
+		}
+		// Only peeks, so the tiles are left exactly as the simulation had them.
+		// Food grows with time, so a chunk is only skipped if it was copied
+		// this same year and nothing has changed it since.
+		long now = Double.doubleToLongBits(board.year);
+		for (int chunkY = chunkTop; chunkY < chunkBottom; chunkY++) {
+			for (int chunkX = chunkLeft; chunkX < chunkRight; chunkX++) {
+				TileField.Chunk chunk = tiles.getChunk(chunkY * tiles.chunksWide + chunkX);
+				int stamp = (chunkY - chunkTop) * chunksAcross + chunkX - chunkLeft;
+				if (chunkYears[stamp] == now && chunkChanges[stamp] == chunk.changes) {
+					continue;
+				}
+				int fromX = chunkX << TileField.CHUNK_SHIFT;
+				int fromY = chunkY << TileField.CHUNK_SHIFT;
+				for (int y = fromY; y < Math.min(fromY + TileField.CHUNK_SIZE, tileBottom); y++) {
+					for (int x = fromX; x < Math.min(fromX + TileField.CHUNK_SIZE, tileRight); x++) {
+						int tile = tiles.index(x, y);
+						int index = tileIndex(x, y);
+						tileColors[index] = tiles.peekColor(tile);
+						tileFoodLevels[index] = (float) tiles.getFoodLevelAt(tile, board.year);
+						tileClimateTypes[index] = (float) tiles.getClimateType(tile);
+						tileFoodTypes[index] = (float) tiles.getFoodType(tile);
+					}
+				}
+				chunkYears[stamp] = now;
+				chunkChanges[stamp] = chunk.changes;
+			}
+		}
+	}
+
+	/**
+	 * Where tile (x, y) is in the tile arrays, or -1 if it wasn't copied.
+	 */
+	public int tileIndex(int x, int y) {
+		if (x < tileLeft || x >= tileRight || y < tileTop || y >= tileBottom) {
+			return -1;
+		}
+		return (y - tileTop) * (tileRight - tileLeft) + x - tileLeft;
+	}
+
+	private void captureBodies(Board board) {
+		rockCount = board.rocks.size();
+		creatureCount = board.creatures.size();
+		bodyCount = rockCount + creatureCount;
+		ensureBodyCapacity(bodyCount);
+		Creature first = creatureCount > 0 ? board.creatures.get(0) : null;
+		visionRays = first != null ? first.visionAngles.length : 0;
+		ensureCreatureCapacity(creatureCount, visionRays);
+
+		for (int i = 0; i < rockCount; i++) {
+			putBody(i, board.rocks.get(i));
+		}
+		selectedIndex = -1;
+		for (int c = 0; c < creatureCount; c++) {
+			Creature creature = board.creatures.get(c);
+			putBody(rockCount + c, creature);
+			id[c] = creature.id;
+			name[c] = creature.getCreatureName();
+			gen[c] = creature.gen;
+			energy[c] = creature.getEnergy();
+			birthTime[c] = creature.birthTime;
+			rotation[c] = creature.getRotation();
+			mouthHue[c] = creature.mouthHue;
+			fightLevel[c] = creature.fightLevel;
+			for (int k = 0; k < visionRays; k++) {
+				int ray = c * visionRays + k;
+				visionEndX[ray] = creature.getVisionEndX(k);
+				visionEndY[ray] = creature.getVisionEndY(k);
+				visionOccludedX[ray] = creature.visionOccludedX[k];
+				visionOccludedY[ray] = creature.visionOccludedY[k];
+			}
+			System.arraycopy(board.creatureStore.visionResults, creature.slot * CreatureStore.VISION_RESULT_COUNT,
+					visionResults, c * visionRays * 3, visionRays * 3);
+			if (creature == board.selectedCreature) {
+				selectedIndex = c;
+			}
+		}
+		// Clear out references so the old creatures can be collected.
+		for (int c = creatureCount; c < name.length && name[c] != null; c++) {
+			name[c] = null;
+		}
+
+		if (selectedIndex >= 0) {
+			Creature selected = board.selectedCreature;
+			selectedParents = selected.parents;
+			selectedEnergyUsage = selected.getEnergyUsage(board.timeStep);
+			// A creature's weights are fixed at birth, so they're only copied
+			// when the selection changes.
+			if (brainCopy == null || brainCopyId != selected.id) {
+				double[] weights = selected.brain.weights;
+				double[] copy = brainCopy != null && brainCopy.weights.length == weights.length ? brainCopy.weights
+						: new double[weights.length];
+				System.arraycopy(weights, 0, copy, 0, weights.length);
+				brainCopy = new Brain(null, copy, null, null);
+				brainCopyId = selected.id;
+			}
+			selectedBrain = brainCopy;
+			double[][] neurons = selected.brain.neurons;
+			if (selectedNeurons == null || selectedNeurons.length != neurons.length) {
+				selectedNeurons = new double[neurons.length][];
+			}
+			for (int x = 0; x < neurons.length; x++) {
+				if (selectedNeurons[x] == null || selectedNeurons[x].length != neurons[x].length) {
+					selectedNeurons[x] = new double[neurons[x].length];
+				}
+				System.arraycopy(neurons[x], 0, selectedNeurons[x], 0, neurons[x].length);
+			}
+			brainCopy.neurons = selectedNeurons;
+		} else {
+			selectedParents = null;
+			selectedBrain = null;
+		}
+	}
+
+	private void putBody(int i, SoftBody body) {
+		px[i] = body.getPx();
+		py[i] = body.getPy();
+		radius[i] = body.getRadius();
+		hue[i] = (float) body.hue;
+		saturation[i] = (float) body.saturation;
+		brightness[i] = (float) body.brightness;
+	}
+
+	private void ensureBodyCapacity(int count) {
+		if (px.length >= count) {
+			return;
+		}
+		int capacity = Math.max(count, px.length * 2);
+		px = new double[capacity];
+		py = new double[capacity];
+		radius = new double[capacity];
+		hue = new float[capacity];
+		saturation = new float[capacity];
+		brightness = new float[capacity];
+	}
+
+	private void ensureCreatureCapacity(int count, int rays) {
+		if (id.length >= count && visionResults.length >= count * rays * 3) {
+			return;
+		}
+		int capacity = Math.max(count, id.length * 2);
+		id = new int[capacity];
+		name = new String[capacity];
+		gen = new int[capacity];
+		energy = new double[capacity];
+		birthTime = new double[capacity];
+		rotation = new double[capacity];
+		mouthHue = new double[capacity];
+		fightLevel = new double[capacity];
+		visionEndX = new double[capacity * rays];
+		visionEndY = new double[capacity * rays];
+		visionOccludedX = new double[capacity * rays];
+		visionOccludedY = new double[capacity * rays];
+		visionResults = new double[capacity * rays * 3];
+	}
+}
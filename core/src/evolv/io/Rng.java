@@ -0,0 +1,97 @@
+package evolv.io;
+
+/**
+ * Seedable random number source for the simulation. Mirrors the semantics of
+ * Processing's random() so worlds behave the same with or without a window.
+ *
+ * The generator is xoroshiro128+, seeded through SplitMix64. split() hands out
+ * a new, independent stream, which is how every creature gets its own: what a
+ * creature draws never depends on how many numbers anyone else drew first, so
+ * a seed plays out the same however the work is spread over threads.
+ */
+class Rng {
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long s0;
+	private long s1;
+
+	public Rng(long seed) {
+		long state = seed;
+		s0 = mix64(state += GOLDEN_GAMMA);
+		s1 = mix64(state += GOLDEN_GAMMA);
+	}
+
+	/**
+	 * A generator that carries on exactly where one with this state left off.
+	 * See state0() and state1().
+	 */
+	Rng(long s0, long s1) {
+		this.s0 = s0;
+		this.s1 = s1;
+	}
+
+	/**
+	 * A new generator seeded from this one. Draws one number from this stream.
+	 */
+	public Rng split() {
+		return new Rng(nextLong());
+	}
+
+	long state0() {
+		return s0;
+	}
+
+	long state1() {
+		return s1;
+	}
+
+	public long nextLong() {
+		long a = s0;
+		long b = s1;
+		long result = a + b;
+		b ^= a;
+		s0 = Long.rotateLeft(a, 24) ^ b ^ (b << 16);
+		s1 = Long.rotateLeft(b, 37);
+		return result;
+	}
+
+	/**
+	 * Uniform in [0, 1), the drop-in replacement for Math.random().
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	public float nextFloat() {
+		return (nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	public float random(float high) {
+		if (high == 0 || high != high) {
+			return 0;
+		}
+		float value;
+		do {
+			value = nextFloat() * high;
+		} while (value == high);
+		return value;
+	}
+
+	public float random(float low, float high) {
+		if (low >= high) {
+			return low;
+		}
+		float diff = high - low;
+		float value;
+		do {
+			value = random(diff) + low;
+		} while (value == high);
+		return value;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,191 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.management.JMException;
+
+/**
+ * Runs a board without any window attached. The viewer builds on the same
+ * settings, so a seed plays out identically in both.
+ */
+public class Simulation {
+	static final float NOISE_STEP_SIZE = 0.1f;
+	static final int BOARD_WIDTH = 100;
+	static final int BOARD_HEIGHT = 100;
+
+	static final double TIME_STEP = 0.001f;
+	static final float MIN_TEMPERATURE = -0.5f;
+	static final float MAX_TEMPERATURE = 1.0f;
+
+	static final int ROCKS_TO_ADD = 0;
+	static final int CREATURE_MINIMUM = 60;
+	static final String INITIAL_FILE_NAME = "PIC";
+
+	final Board board;
+
+	public Simulation(int seed) {
+		this(seed, BOARD_WIDTH, BOARD_HEIGHT);
+	}
+
+	/**
+	 * A board of any size. Tiles are only made, a chunk at a time, once a
+	 * creature or the viewer gets to them, and only the parts near creatures
+	 * cost anything per tick, so boards thousands of tiles across are fine.
+	 */
+	public Simulation(int seed, int boardWidth, int boardHeight) {
+		this(new Board(boardWidth, boardHeight, NOISE_STEP_SIZE, MIN_TEMPERATURE, MAX_TEMPERATURE, ROCKS_TO_ADD,
+				CREATURE_MINIMUM, seed, INITIAL_FILE_NAME, TIME_STEP));
+	}
+
+	Simulation(Board board) {
+		this.board = board;
+		board.checkpointWriter = new CheckpointWriter();
+	}
+
+	/**
+	 * Carries on a run from a checkpoint file, exactly where it was saved. A
+	 * delta is built up from the keyframe before it in the same folder.
+	 */
+	public static Simulation resume(Path checkpoint) throws IOException {
+		return new Simulation(CheckpointChain.load(checkpoint).restore());
+	}
+
+	/**
+	 * Carries on a run from the newest checkpoint in a folder of autosaves
+	 * from year or before. stepTo() takes it the rest of the way.
+	 */
+	public static Simulation resume(Path folder, double year) throws IOException {
+		return new Simulation(CheckpointChain.load(folder, year).restore());
+	}
+
+	/**
+	 * Steps until the board reaches year. Only lands on the same world the
+	 * original run had at that year under the same kind of tick it used.
+	 */
+	public void stepTo(double year) {
+		while (board.year + TIME_STEP / 2 < year) {
+			step();
+		}
+	}
+
+	/**
+	 * Starts recording every birth and death to path. A board that has never
+	 * ticked starts the log over, with everyone already alive as born without
+	 * parents. A resumed board carries on the log of the run it came from,
+	 * cut back to where the checkpoint was taken.
+	 */
+	public void openLineageLog(Path path) throws IOException {
+		LineageLog lineageLog = new LineageLog(path, board);
+		if (lineageLog.isEmpty()) {
+			for (Creature creature : board.creatures) {
+				lineageLog.birth(creature, new Creature[0]);
+			}
+			lineageLog.endTick(board.year, board.creatureIDUpTo);
+		}
+		board.lineageLog = lineageLog;
+	}
+
+	/**
+	 * Switches to the phased tick on the given number of threads, or back to
+	 * the classic serial tick for 0.
+	 */
+	public void setTickThreads(int threads) {
+		if (board.phasedTick != null) {
+			board.phasedTick.shutdown();
+			board.phasedTick = null;
+		}
+		if (threads > 0) {
+			board.phasedTick = new PhasedTick(board, threads);
+		}
+	}
+
+	public void step() {
+		board.iterate(TIME_STEP);
+	}
+
+	/**
+	 * Steps the board as fast as it will go, writing any autosaves that come
+	 * due along the way.
+	 */
+	public void run(long ticks) {
+		for (long tick = 0; tick < ticks; tick++) {
+			step();
+			board.fileSave();
+		}
+	}
+
+	/**
+	 * Winds the run down once nothing else is stepping it: stops the tick
+	 * threads, closes the lineage log, writes out the history, waits for
+	 * checkpoints still being written and unregisters the metrics.
+	 */
+	public void close() throws IOException, InterruptedException, JMException {
+		setTickThreads(0);
+		if (board.lineageLog != null) {
+			board.lineageLog.close();
+		}
+		Path folder = Paths.get(board.folder);
+		TimeSeries history = board.history;
+		history.write(folder.resolve("history.bin"));
+		for (int tier = 0; tier < history.getTierCount(); tier++) {
+			history.writeCsv(tier, folder.resolve("history-" + history.getTier(tier).ticksPerBucket + ".csv"));
+		}
+		board.checkpointWriter.drain();
+		board.unregisterMetrics();
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException, JMException {
+		long ticks = args.length >= 1 ? Long.parseLong(args[0]) : 100000;
+		int seed = args.length >= 2 ? Integer.parseInt(args[1]) : (int) (Math.random() * 1000000);
+		int threads = args.length >= 3 ? Integer.parseInt(args[2]) : 0;
+		int size = args.length >= 4 ? Integer.parseInt(args[3]) : BOARD_WIDTH;
+		Path checkpoint = args.length >= 5 ? Paths.get(args[4]) : null;
+		double year = args.length >= 6 ? Double.parseDouble(args[5]) : Double.POSITIVE_INFINITY;
+		Simulation simulation;
+		if (checkpoint == null) {
+			simulation = new Simulation(seed, size, size);
+		} else if (Files.isDirectory(checkpoint)) {
+			simulation = resume(checkpoint, year);
+		} else {
+			simulation = resume(checkpoint);
+		}
+		simulation.openLineageLog(Paths.get(simulation.board.folder, "lineage.log"));
+		simulation.setTickThreads(threads);
+		if (year != Double.POSITIVE_INFINITY) {
+			simulation.stepTo(year);
+		}
+		// Nobody is at the keyboard, so let the brains drive.
+		simulation.board.userControl = false;
+		simulation.board.registerMetrics();
+		long start = System.nanoTime();
+		simulation.run(ticks);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format(
+				"Seed %d: %d ticks in %.2f s (%.0f ticks/s), year %.2f, population %d, %d chunks awake, %s",
+				simulation.board.SEED, ticks, seconds, ticks / seconds, simulation.board.year,
+				simulation.board.creatures.size(), simulation.board.grid.getAwakeChunkCount(),
+				threads > 0 ? "phased tick on " + threads + " threads" : "serial tick"));
+		if (TickProfiler.ENABLED) {
+			TickProfiler profiler = simulation.board.profiler;
+			for (int phase = 0; phase <= TickProfiler.PHASE_COUNT; phase++) {
+				System.out.println(String.format("%-12s median %8.3f ms, 99%% %8.3f ms", TickProfiler.PHASE_NAMES[phase],
+						profiler.getPercentileMillis(phase, 0.5), profiler.getPercentileMillis(phase, 0.99)));
+			}
+		}
+		simulation.close();
+		LineageLog lineageLog = simulation.board.lineageLog;
+		System.out.println(String.format("%d births and %d deaths logged", lineageLog.getBirths(),
+				lineageLog.getDeaths()));
+		CheckpointWriter writer = simulation.board.checkpointWriter;
+		System.out.println(String.format(
+				"%d checkpoints written (last took %.1f ms, slowest %.1f ms), %d deferred while the writer was busy",
+				writer.getWritten(), writer.getLastLatencyMillis(), writer.getMaxLatencyMillis(),
+				writer.getDeferred()));
+		if (writer.getFailed() > 0) {
+			System.out.println(writer.getFailed() + " checkpoints failed, last with " + writer.getLastError());
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package evolv.io;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Throughput and health of a running board, for watching long unattended
+ * runs from jconsole or anything else that speaks JMX.
+ *
+ * The board hands over its counters every tick, which only adds them up.
+ * Every SAMPLE_TICKS ticks they're turned into rates and published, so
+ * whatever is reading never touches the board or waits on it.
+ */
+class SimulationMetrics implements SimulationMetricsMBean {
+	static final int SAMPLE_TICKS = 100;
+
+	private final ObjectName name;
+	private final com.sun.management.ThreadMXBean allocations; // null if the JVM can't count allocations
+
+	// Only touched by the board's thread
+	private long windowStartNanos;
+	private long windowStartTicks;
+	private double windowStartYear;
+	private long windowStartAllocated;
+	private int windowBirths = 0;
+	private int windowDeaths = 0;
+	private long ticksSoFar = 0;
+
+	// Published for JMX at the end of each window
+	private volatile long ticks;
+	private volatile double year;
+	private volatile double ticksPerSecond;
+	private volatile double yearsPerSecond;
+	private volatile int population;
+	private volatile double birthsPerYear;
+	private volatile double deathsPerYear;
+	private volatile int maxGeneration;
+	private volatile long heapUsedPerCreature;
+	private volatile long allocatedBytesPerTick = -1;
+	private volatile double autosaveLatencyMillis;
+	private volatile double autosaveStallMillis;
+
+	public SimulationMetrics(int seed) throws JMException {
+		name = new ObjectName("evolv.io:type=SimulationMetrics,seed=" + seed);
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+			allocations = (com.sun.management.ThreadMXBean) threads;
+			allocations.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			allocations = null;
+		}
+	}
+
+	/**
+	 * Adds to the platform MBean server. There can only be one board with
+	 * each seed registered at a time.
+	 */
+	public void register() throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+	}
+
+	public void unregister() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		if (server.isRegistered(name)) {
+			server.unregisterMBean(name);
+		}
+	}
+
+	public ObjectName getObjectName() {
+		return name;
+	}
+
+	/**
+	 * Called at the end of every tick with what happened in it.
+	 */
+	void tick(double year, int population, int maxGeneration, int births, int deaths) {
+		if (ticksSoFar++ == 0) {
+			// Allocations are counted per thread, so start on the board's
+			windowStartNanos = System.nanoTime();
+			windowStartYear = year;
+			windowStartAllocated = allocatedSoFar();
+			windowStartTicks = ticksSoFar;
+			return;
+		}
+		windowBirths += births;
+		windowDeaths += deaths;
+		if (ticksSoFar - windowStartTicks < SAMPLE_TICKS) {
+			return;
+		}
+		long now = System.nanoTime();
+		double seconds = (now - windowStartNanos) / 1e9;
+		long windowTicks = ticksSoFar - windowStartTicks;
+		double years = year - windowStartYear;
+		long allocated = allocatedSoFar();
+		Runtime runtime = Runtime.getRuntime();
+		long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+		this.ticks = ticksSoFar;
+		this.year = year;
+		ticksPerSecond = windowTicks / seconds;
+		yearsPerSecond = years / seconds;
+		this.population = population;
+		birthsPerYear = years > 0 ? windowBirths / years : 0;
+		deathsPerYear = years > 0 ? windowDeaths / years : 0;
+		this.maxGeneration = maxGeneration;
+		heapUsedPerCreature = population > 0 ? heapUsed / population : 0;
+		allocatedBytesPerTick = allocated >= 0 ? (allocated - windowStartAllocated) / windowTicks : -1;
+
+		windowStartNanos = now;
+		windowStartTicks = ticksSoFar;
+		windowStartYear = year;
+		windowStartAllocated = allocated;
+		windowBirths = 0;
+		windowDeaths = 0;
+	}
+
+	/**
+	 * Called after each autosave is handed off. latencyMillis is the last
+	 * one to finish, which with a writer thread is usually an earlier one.
+	 */
+	void autosaved(double stallMillis, double latencyMillis) {
+		autosaveStallMillis = stallMillis;
+		autosaveLatencyMillis = latencyMillis;
+	}
+
+	private long allocatedSoFar() {
+		return allocations != null ? allocations.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+	}
+
+	@Override
+	public long getTicks() {
+		return ticks;
+	}
+
+	@Override
+	public double getYear() {
+		return year;
+	}
+
+	@Override
+	public double getTicksPerSecond() {
+		return ticksPerSecond;
+	}
+
+	@Override
+	public double getYearsPerSecond() {
+		return yearsPerSecond;
+	}
+
+	@Override
+	public int getPopulation() {
+		return population;
+	}
+
+	@Override
+	public double getBirthsPerYear() {
+		return birthsPerYear;
+	}
+
+	@Override
+	public double getDeathsPerYear() {
+		return deathsPerYear;
+	}
+
+	@Override
+	public int getMaxGeneration() {
+		return maxGeneration;
+	}
+
+	@Override
+	public long getHeapUsedPerCreature() {
+		return heapUsedPerCreature;
+	}
+
+	@Override
+	public long getAllocatedBytesPerTick() {
+		return allocatedBytesPerTick;
+	}
+
+	@Override
+	public double getAutosaveLatencyMillis() {
+		return autosaveLatencyMillis;
+	}
+
+	@Override
+	public double getAutosaveStallMillis() {
+		return autosaveStallMillis;
+	}
+}
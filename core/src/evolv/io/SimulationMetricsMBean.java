@@ -0,0 +1,46 @@
+package evolv.io;
+
+/**
+ * What SimulationMetrics shows over JMX. JMX only takes public interfaces.
+ */
+public interface SimulationMetricsMBean {
+	long getTicks();
+
+	double getYear();
+
+	double getTicksPerSecond();
+
+	double getYearsPerSecond();
+
+	int getPopulation();
+
+	double getBirthsPerYear();
+
+	double getDeathsPerYear();
+
+	int getMaxGeneration();
+
+	/**
+	 * Heap in use divided by the population, garbage included, so it only
+	 * means much as a trend.
+	 */
+	long getHeapUsedPerCreature();
+
+	/**
+	 * Bytes the thread running the board allocated per tick, or -1 if the
+	 * JVM can't tell. Phased tick worker threads aren't counted.
+	 */
+	long getAllocatedBytesPerTick();
+
+	/**
+	 * From the start of capturing the last autosave finished to it being on
+	 * disk.
+	 */
+	double getAutosaveLatencyMillis();
+
+	/**
+	 * How long the board stopped for the last autosave: capturing it when
+	 * there's a writer thread, all of the writing when there isn't.
+	 */
+	double getAutosaveStallMillis();
+}
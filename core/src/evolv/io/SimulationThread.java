@@ -0,0 +1,128 @@
+package evolv.io;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps a simulation on its own thread so drawing never holds up the ticks.
+ * 
+ * Rendering goes through three RenderSnapshots: the one this thread is
+ * filling, the latest published one, and the one the viewer is drawing. Each
+ * side only ever swaps its own buffer with the published slot, so neither
+ * takes a lock and a snapshot is never written while it is being read.
+ * 
+ * Anything that changes the board from another thread has to be handed over
+ * with submit() and runs between ticks.
+ *
+ * Snapshots only carry the tiles the viewer last said it shows, through
+ * showTiles(). Until it says, they carry none, so a big board isn't made
+ * whole just to draw the first frame.
+ */
+class SimulationThread extends Thread {
+	// One tick per frame at 1x, like the old draw() loop.
+	static final long TICK_NANOS_AT_1X = 1000000000L / 60;
+
+	private final Simulation simulation;
+	private final Board board;
+	private final Queue<Runnable> commands = new ConcurrentLinkedQueue<Runnable>();
+	private final AtomicReference<RenderSnapshot> published = new AtomicReference<RenderSnapshot>(
+			new RenderSnapshot());
+	private RenderSnapshot back = new RenderSnapshot();
+	private RenderSnapshot front = new RenderSnapshot();
+	private long snapshotsPublished = 0;
+	private volatile long snapshotsTaken = 0;
+	private volatile boolean running = true;
+	private volatile int[] shownTiles = new int[4]; // left, top, right, bottom
+	private int[] capturedTiles;
+
+	public SimulationThread(Simulation simulation) {
+		super("Simulation");
+		this.simulation = simulation;
+		this.board = simulation.board;
+		setDaemon(true);
+		publish();
+	}
+
+	public void submit(Runnable command) {
+		commands.add(command);
+	}
+
+	/**
+	 * Called from the viewer with the tiles it shows, from (left, top) up to
+	 * (right, bottom). The next snapshot covers those, even while paused.
+	 */
+	public void showTiles(int left, int top, int right, int bottom) {
+		int[] shown = shownTiles;
+		if (shown[0] != left || shown[1] != top || shown[2] != right || shown[3] != bottom) {
+			shownTiles = new int[] { left, top, right, bottom };
+		}
+	}
+
+	public void shutdown() {
+		running = false;
+		LockSupport.unpark(this);
+	}
+
+	/**
+	 * Called from the viewer. Returns the newest snapshot, which stays valid
+	 * until the next call.
+	 */
+	public RenderSnapshot acquireSnapshot() {
+		if (published.get().sequence > front.sequence) {
+			front = published.getAndSet(front);
+			snapshotsTaken = front.sequence;
+		}
+		return front;
+	}
+
+	@Override
+	public void run() {
+		long nextTick = System.nanoTime();
+		boolean dirty = false;
+		while (running) {
+			dirty |= runCommands();
+			int playSpeed = board.playSpeed;
+			if (playSpeed > 0) {
+				simulation.step();
+				dirty = true;
+			}
+			// Saves asked for while paused are written too.
+			dirty |= board.fileSave();
+			dirty |= shownTiles != capturedTiles;
+			// Only fill a new snapshot once the viewer has picked up the last one.
+			if (dirty && snapshotsTaken >= snapshotsPublished) {
+				publish();
+				dirty = false;
+			}
+
+			long tickNanos = playSpeed > 0 ? TICK_NANOS_AT_1X / playSpeed : TICK_NANOS_AT_1X;
+			nextTick += tickNanos;
+			long wait = nextTick - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(this, wait);
+			} else if (wait < -TICK_NANOS_AT_1X) {
+				// Running flat out and falling behind; don't try to catch up.
+				nextTick = System.nanoTime();
+			}
+		}
+	}
+
+	private boolean runCommands() {
+		boolean ranAny = false;
+		Runnable command;
+		while ((command = commands.poll()) != null) {
+			command.run();
+			ranAny = true;
+		}
+		return ranAny;
+	}
+
+	private void publish() {
+		capturedTiles = shownTiles;
+		back.capture(board, capturedTiles[0], capturedTiles[1], capturedTiles[2], capturedTiles[3]);
+		back.sequence = ++snapshotsPublished;
+		back = published.getAndSet(back);
+	}
+}
@@ -0,0 +1,152 @@
+package evolv.io;
+
+class SoftBody {
+	// Rocks keep their physics state in these. Creatures keep theirs in the
+	// board's CreatureStore, so always go through the getters and setters.
+	private double px;
+	private double py;
+	private double vx;
+	private double vy;
+	private double energy;
+	float ENERGY_DENSITY; // Set so when a creature is of minimum size, it
+							// equals one.
+	double density;
+	double hue;
+	double saturation;
+	double brightness;
+	double birthTime;
+	boolean isCreature = false;
+	final float FRICTION = 0.004f;
+	final float COLLISION_FORCE = 0.01f;
+	final float FIGHT_RANGE = 2.0f;
+	double fightLevel = 0;
+	boolean alive = true;
+	int gridIndex = -1; // In board.grid and board.contacts, as of the last rebuild
+	Board board;
+
+	public SoftBody(double tpx, double tpy, double tvx, double tvy, double tenergy, double tdensity, double thue,
+			double tsaturation, double tbrightness, Board tb) {
+		board = tb;
+		ENERGY_DENSITY = 1.0f / (tb.MINIMUM_SURVIVABLE_SIZE * tb.MINIMUM_SURVIVABLE_SIZE * (float) Math.PI);
+		density = tdensity;
+		initState(tpx, tpy, tvx, tvy, tenergy);
+		hue = thue;
+		saturation = tsaturation;
+		brightness = tbrightness;
+		birthTime = tb.year;
+	}
+
+	/**
+	 * Called from the constructor, before anything reads the state back.
+	 */
+	void initState(double tpx, double tpy, double tvx, double tvy, double tenergy) {
+		px = tpx;
+		py = tpy;
+		vx = tvx;
+		vy = tvy;
+		energy = tenergy;
+	}
+
+	public double getPx() {
+		return px;
+	}
+
+	public void setPx(double px) {
+		this.px = px;
+	}
+
+	public double getPy() {
+		return py;
+	}
+
+	public void setPy(double py) {
+		this.py = py;
+	}
+
+	public double getVx() {
+		return vx;
+	}
+
+	public void setVx(double vx) {
+		this.vx = vx;
+	}
+
+	public double getVy() {
+		return vy;
+	}
+
+	public void setVy(double vy) {
+		this.vy = vy;
+	}
+
+	public double getEnergy() {
+		return energy;
+	}
+
+	public void setEnergy(double energy) {
+		this.energy = energy;
+	}
+
+	public int xBound(int x) {
+		return Math.min(Math.max(x, 0), board.boardWidth - 1);
+	}
+
+	public int yBound(int y) {
+		return Math.min(Math.max(y, 0), board.boardHeight - 1);
+	}
+
+	public double xBodyBound(double x) {
+		double radius = getRadius();
+		return Math.min(Math.max(x, radius), board.boardWidth - radius);
+	}
+
+	public double yBodyBound(double y) {
+		double radius = getRadius();
+		return Math.min(Math.max(y, radius), board.boardHeight - radius);
+	}
+
+	public void collide(double timeStep) {
+		if (gridIndex >= 0) {
+			ContactList contacts = board.contacts;
+			double vx = getVx();
+			double vy = getVy();
+			double mass = getMass();
+			for (int entry = contacts.contactStart[gridIndex]; entry < contacts.contactStart[gridIndex + 1]; entry++) {
+				int contact = contacts.contactsOf[entry];
+				double push = contacts.push[contact];
+				if (push != 0 && board.grid.body(contacts.other(contact, gridIndex)).alive) {
+					double side = contacts.side(contact, gridIndex);
+					vx += side * contacts.dx[contact] * push / mass;
+					vy += side * contacts.dy[contact] * push / mass;
+				}
+			}
+			setVx(vx);
+			setVy(vy);
+		}
+		fightLevel = 0;
+	}
+
+	public void applyMotions(double timeStep) {
+		setPx(xBodyBound(getPx() + getVx() * timeStep));
+		setPy(yBodyBound(getPy() + getVy() * timeStep));
+		setVx(getVx() * Math.max(0, 1 - FRICTION / getMass()));
+		setVy(getVy() * Math.max(0, 1 - FRICTION / getMass()));
+	}
+
+	public double getRadius() {
+		double energy = getEnergy();
+		if (energy <= 0) {
+			return 0;
+		} else {
+			return Math.sqrt(energy / ENERGY_DENSITY / Math.PI);
+		}
+	}
+
+	public double getMass() {
+		return getEnergy() / ENERGY_DENSITY * density;
+	}
+
+	static float dist(float x1, float y1, float x2, float y2) {
+		return (float) Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
+	}
+}
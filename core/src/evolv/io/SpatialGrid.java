@@ -0,0 +1,285 @@
+package evolv.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Which bodies are near which tiles. Every body is listed in each tile its
+ * fight range reaches, like the old per-tile lists, but the lists are packed
+ * into one int array with a counting sort whenever the board asks for a
+ * rebuild, instead of being patched one remove() at a time as bodies move.
+ *
+ * The board is split into CHUNK_SIZE square chunks, and only chunks with a
+ * body listed in them are awake. Only awake chunks get tile lists, so a
+ * rebuild costs as much as the bodies and the awake chunks, however big the
+ * board is; tiles in sleeping chunks are simply empty.
+ *
+ * Between rebuilds the grid does not follow moves, births or deaths. Queries
+ * skip bodies that have died since; anything born since is missing until the
+ * next rebuild.
+ */
+class SpatialGrid {
+	static final int CHUNK_SHIFT = 5;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_TILES = CHUNK_SIZE * CHUNK_SIZE;
+
+	final int width;
+	final int height;
+	private final int chunksWide;
+
+	// Bumped whenever a rebuild changes which bodies are listed in which
+	// tiles, so anything derived from the lists knows to start over.
+	long version = 0;
+
+	private SoftBody[] bodies = new SoftBody[0];
+	int bodyCount;
+	// Where each body was at the last rebuild, by body index
+	double[] bodyX = new double[0];
+	double[] bodyY = new double[0];
+	double[] bodyRadius = new double[0];
+	// The tile range each body is listed over
+	private int[] minX = new int[0];
+	private int[] minY = new int[0];
+	private int[] maxX = new int[0];
+	private int[] maxY = new int[0];
+
+	// Where each chunk's tiles are in cellStart, or -1 while it sleeps
+	private final int[] chunkSlot;
+	private int[] awakeChunks = new int[0];
+	private int awakeCount;
+
+	// Body indexes for awake tile i are cellBodies[cellStart[i]] up to
+	// cellBodies[cellStart[i + 1]]; see cell() for how tiles are numbered.
+	private int[] cellStart = new int[1];
+	private int[] cellFill = new int[0];
+	private int[] cellBodies = new int[0];
+
+	public SpatialGrid(int width, int height) {
+		this.width = width;
+		this.height = height;
+		chunksWide = (width + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+		int chunksHigh = (height + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+		chunkSlot = new int[chunksWide * chunksHigh];
+		Arrays.fill(chunkSlot, -1);
+	}
+
+	public void rebuild(ArrayList<SoftBody> rocks, ArrayList<Creature> creatures) {
+		int count = rocks.size() + creatures.size();
+		boolean changed = count != bodyCount;
+		if (bodies.length < count) {
+			int capacity = Math.max(count, bodies.length * 2);
+			bodies = Arrays.copyOf(bodies, capacity);
+			bodyX = new double[capacity];
+			bodyY = new double[capacity];
+			bodyRadius = new double[capacity];
+			minX = Arrays.copyOf(minX, capacity);
+			minY = Arrays.copyOf(minY, capacity);
+			maxX = Arrays.copyOf(maxX, capacity);
+			maxY = Arrays.copyOf(maxY, capacity);
+		}
+		for (int i = count; i < bodyCount; i++) {
+			bodies[i] = null;
+		}
+		bodyCount = count;
+		for (int i = 0; i < count; i++) {
+			SoftBody body = i < rocks.size() ? rocks.get(i) : creatures.get(i - rocks.size());
+			if (bodies[i] != body) {
+				bodies[i] = body;
+				changed = true;
+			}
+			body.gridIndex = i;
+			double px = body.getPx();
+			double py = body.getPy();
+			double radius = body.getRadius();
+			bodyX[i] = px;
+			bodyY[i] = py;
+			bodyRadius[i] = radius;
+			double reach = radius * body.FIGHT_RANGE;
+			int newMinX = xBound((int) Math.floor(px - reach));
+			int newMinY = yBound((int) Math.floor(py - reach));
+			int newMaxX = xBound((int) Math.floor(px + reach));
+			int newMaxY = yBound((int) Math.floor(py + reach));
+			if (newMinX != minX[i] || newMinY != minY[i] || newMaxX != maxX[i] || newMaxY != maxY[i]) {
+				minX[i] = newMinX;
+				minY[i] = newMinY;
+				maxX[i] = newMaxX;
+				maxY[i] = newMaxY;
+				changed = true;
+			}
+		}
+		if (!changed) {
+			return;
+		}
+		version++;
+		wakeChunks();
+
+		// Count how many bodies land in each awake tile...
+		int cellCount = awakeCount * CHUNK_TILES;
+		for (int i = 0; i < cellCount; i++) {
+			cellFill[i] = 0;
+		}
+		for (int i = 0; i < count; i++) {
+			for (int y = minY[i]; y <= maxY[i]; y++) {
+				for (int x = minX[i]; x <= maxX[i]; x++) {
+					cellFill[cell(x, y)]++;
+				}
+			}
+		}
+		// ...turn the counts into where each tile's run starts...
+		int total = 0;
+		for (int cell = 0; cell < cellCount; cell++) {
+			cellStart[cell] = total;
+			total += cellFill[cell];
+			cellFill[cell] = cellStart[cell];
+		}
+		cellStart[cellCount] = total;
+		if (cellBodies.length < total) {
+			cellBodies = new int[Math.max(total, cellBodies.length * 2)];
+		}
+		// ...and drop every body into its runs.
+		for (int i = 0; i < count; i++) {
+			for (int y = minY[i]; y <= maxY[i]; y++) {
+				for (int x = minX[i]; x <= maxX[i]; x++) {
+					cellBodies[cellFill[cell(x, y)]++] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Puts to sleep every chunk from the last rebuild, then wakes the ones
+	 * some body's range reaches into, in the order the bodies come.
+	 */
+	private void wakeChunks() {
+		for (int i = 0; i < awakeCount; i++) {
+			chunkSlot[awakeChunks[i]] = -1;
+		}
+		awakeCount = 0;
+		for (int i = 0; i < bodyCount; i++) {
+			for (int chunkY = minY[i] >> CHUNK_SHIFT; chunkY <= maxY[i] >> CHUNK_SHIFT; chunkY++) {
+				for (int chunkX = minX[i] >> CHUNK_SHIFT; chunkX <= maxX[i] >> CHUNK_SHIFT; chunkX++) {
+					int chunk = chunkY * chunksWide + chunkX;
+					if (chunkSlot[chunk] < 0) {
+						if (awakeCount == awakeChunks.length) {
+							awakeChunks = Arrays.copyOf(awakeChunks, Math.max(16, awakeCount * 2));
+						}
+						chunkSlot[chunk] = awakeCount;
+						awakeChunks[awakeCount++] = chunk;
+					}
+				}
+			}
+		}
+		int cellCount = awakeCount * CHUNK_TILES;
+		if (cellFill.length < cellCount) {
+			cellFill = new int[Math.max(cellCount, cellFill.length * 2)];
+			cellStart = new int[cellFill.length + 1];
+		}
+	}
+
+	/**
+	 * The number of an awake tile: tiles are numbered chunk by chunk in the
+	 * order the chunks woke, row by row within each chunk. -1 if the tile's
+	 * chunk is asleep.
+	 */
+	private int cell(int x, int y) {
+		int slot = chunkSlot[(y >> CHUNK_SHIFT) * chunksWide + (x >> CHUNK_SHIFT)];
+		if (slot < 0) {
+			return -1;
+		}
+		return slot * CHUNK_TILES + ((y & (CHUNK_SIZE - 1)) << CHUNK_SHIFT) + (x & (CHUNK_SIZE - 1));
+	}
+
+	/**
+	 * Where the list for tile (x, y) starts in cellBodies; it runs up to
+	 * cellEnd(x, y). Both are 0 for a sleeping tile.
+	 */
+	public int cellFirst(int x, int y) {
+		int cell = cell(x, y);
+		return cell < 0 ? 0 : cellStart[cell];
+	}
+
+	public int cellEnd(int x, int y) {
+		int cell = cell(x, y);
+		return cell < 0 ? 0 : cellStart[cell + 1];
+	}
+
+	public int cellBody(int entry) {
+		return cellBodies[entry];
+	}
+
+	public int getAwakeChunkCount() {
+		return awakeCount;
+	}
+
+	/**
+	 * The i-th awake chunk, numbered row by row across the board.
+	 */
+	public int getAwakeChunk(int i) {
+		return awakeChunks[i];
+	}
+
+	public int getChunksWide() {
+		return chunksWide;
+	}
+
+	public SoftBody body(int index) {
+		return bodies[index];
+	}
+
+	/**
+	 * Finds every body after index i whose range shares a tile with i's, once
+	 * each. Writes their indexes to found from offset on, or only counts them
+	 * if found is null. Safe to call from several threads at once.
+	 */
+	public int pairsAfter(int i, int[] found, int offset) {
+		int count = 0;
+		for (int y = minY[i]; y <= maxY[i]; y++) {
+			for (int x = minX[i]; x <= maxX[i]; x++) {
+				int end = cellEnd(x, y);
+				for (int entry = cellFirst(x, y); entry < end; entry++) {
+					int j = cellBodies[entry];
+					// j shows up in every tile the two ranges share; only
+					// take it in the first of them.
+					if (j > i && x == Math.max(minX[i], minX[j]) && y == Math.max(minY[i], minY[j])) {
+						if (found != null) {
+							found[offset + count] = j;
+						}
+						count++;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * The creature drawn over the given point, or null. Where creatures
+	 * overlap, the last one listed wins.
+	 */
+	public Creature creatureAt(float x, float y) {
+		int tileX = (int) Math.floor(x);
+		int tileY = (int) Math.floor(y);
+		Creature found = null;
+		if (tileX >= 0 && tileX < width && tileY >= 0 && tileY < height) {
+			int end = cellEnd(tileX, tileY);
+			for (int entry = cellFirst(tileX, tileY); entry < end; entry++) {
+				SoftBody body = bodies[cellBodies[entry]];
+				if (body.isCreature && body.alive) {
+					float distance = SoftBody.dist(x, y, (float) body.getPx(), (float) body.getPy());
+					if (distance <= body.getRadius()) {
+						found = (Creature) body;
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	int xBound(int x) {
+		return Math.min(Math.max(x, 0), width - 1);
+	}
+
+	int yBound(int y) {
+		return Math.min(Math.max(y, 0), height - 1);
+	}
+}
@@ -0,0 +1,49 @@
+package evolv.io;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A whole tick of a profiled run and how much it worked through, alongside
+ * its TickPhaseEvents in a JFR recording.
+ */
+@Name("evolvio.Tick")
+@Label("Tick")
+@Category({ "evolv.io", "Tick" })
+@Description("Time spent on a board tick and the bodies, contact pairs and vision rays it handled")
+@StackTrace(false)
+class TickEvent extends Event {
+	@Label("Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long time;
+
+	@Label("Bodies")
+	long bodies;
+
+	@Label("Pairs")
+	long pairs;
+
+	@Label("Rays")
+	long rays;
+
+	@Label("Year")
+	double year;
+
+	static void commit(long tickNanos, long[] counters, double year) {
+		TickEvent event = new TickEvent();
+		if (!event.isEnabled()) {
+			return;
+		}
+		event.time = tickNanos;
+		event.bodies = counters[TickProfiler.BODIES];
+		event.pairs = counters[TickProfiler.PAIRS];
+		event.rays = counters[TickProfiler.RAYS];
+		event.year = year;
+		event.commit();
+	}
+}
@@ -0,0 +1,43 @@
+package evolv.io;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * How long one phase of a tick took, for looking at a JFR recording of a
+ * profiled run. Only TickProfiler touches this, and only on a JVM with JFR.
+ */
+@Name("evolvio.TickPhase")
+@Label("Tick Phase")
+@Category({ "evolv.io", "Tick" })
+@Description("Time spent in one phase of a board tick")
+@StackTrace(false)
+class TickPhaseEvent extends Event {
+	@Label("Phase")
+	String phase;
+
+	@Label("Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long time;
+
+	@Label("Year")
+	double year;
+
+	static void commit(long[] phaseNanos, double year) {
+		for (int phase = 0; phase < phaseNanos.length; phase++) {
+			TickPhaseEvent event = new TickPhaseEvent();
+			if (!event.isEnabled()) {
+				return;
+			}
+			event.phase = TickProfiler.PHASE_NAMES[phase];
+			event.time = phaseNanos[phase];
+			event.year = year;
+			event.commit();
+		}
+	}
+}
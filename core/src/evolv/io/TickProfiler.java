@@ -0,0 +1,200 @@
+package evolv.io;
+
+import java.util.Arrays;
+
+/**
+ * Times each phase of a tick, for finding out where a slow one went.
+ *
+ * Only switched on by running with -Devolvio.profile=true. Every call into it
+ * sits behind a check of ENABLED, which the JIT treats as a constant, so when
+ * it's off those checks and calls are compiled out and the tick runs as if
+ * none of this were here.
+ *
+ * Phase times go into histograms over a window of WINDOW_TICKS ticks, which
+ * the percentiles are read from once it fills, so they change once a window
+ * rather than jumping around every tick. While a JFR recording is running,
+ * every tick and phase is also committed as a TickEvent or TickPhaseEvent.
+ */
+class TickProfiler {
+	static final boolean ENABLED = Boolean.getBoolean("evolvio.profile");
+
+	static final int BIRTHS = 0;
+	static final int GRID = 1;
+	static final int CONTACTS = 2;
+	static final int COLLIDE = 3;
+	static final int METABOLIZE = 4;
+	static final int THINK = 5;
+	static final int ACT = 6;
+	static final int MOVE = 7;
+	static final int SEE = 8;
+	static final int RECORD = 9;
+	static final int PHASE_COUNT = 10;
+	static final int TICK = PHASE_COUNT; // The whole tick, after the phases in getPercentileMillis()
+	static final String[] PHASE_NAMES = { "Births", "Grid", "Contacts", "Collide", "Metabolize", "Think", "Act",
+			"Move", "See", "Record", "Tick" };
+
+	// What the tick worked through
+	static final int BODIES = 0;
+	static final int PAIRS = 1;
+	static final int RAYS = 2;
+	static final int COUNTER_COUNT = 3;
+	static final String[] COUNTER_NAMES = { "bodies", "pairs", "rays" };
+
+	static final int WINDOW_TICKS = 1000;
+
+	// JFR is only there from Java 11, so the events are built apart and only
+	// loaded if it is; null otherwise
+	private static final EventSink EVENTS = loadEvents();
+
+	private final long[] phaseNanos = new long[PHASE_COUNT];
+	private final long[] counters = new long[COUNTER_COUNT];
+	private long tickStart;
+	private long lapStart;
+	private long ticks = 0;
+	private Histogram[] filling = newHistograms();
+	private Histogram[] finished = null;
+
+	/**
+	 * Starts timing a tick.
+	 */
+	public void startTick() {
+		tickStart = System.nanoTime();
+		lapStart = tickStart;
+	}
+
+	/**
+	 * Puts the time since the last lap, or since the tick started, down to
+	 * phase. A phase can be lapped many times in a tick.
+	 */
+	public void lap(int phase) {
+		long now = System.nanoTime();
+		phaseNanos[phase] += now - lapStart;
+		lapStart = now;
+	}
+
+	public void count(int counter, long value) {
+		counters[counter] = value;
+	}
+
+	public void endTick(double year) {
+		long tickNanos = System.nanoTime() - tickStart;
+		for (int phase = 0; phase < PHASE_COUNT; phase++) {
+			filling[phase].add(phaseNanos[phase]);
+		}
+		filling[TICK].add(tickNanos);
+		if (EVENTS != null) {
+			EVENTS.commit(tickNanos, phaseNanos, counters, year);
+		}
+		Arrays.fill(phaseNanos, 0);
+		if (++ticks % WINDOW_TICKS == 0) {
+			Histogram[] emptied = finished != null ? finished : newHistograms();
+			for (Histogram histogram : emptied) {
+				histogram.clear();
+			}
+			finished = filling;
+			filling = emptied;
+		}
+	}
+
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * How long phase, or TICK, took on the given fraction of ticks in the
+	 * last full window, or in the ticks so far before there is one.
+	 */
+	public double getPercentileMillis(int phase, double fraction) {
+		Histogram[] histograms = finished != null ? finished : filling;
+		return histograms[phase].getPercentile(fraction) / 1e6;
+	}
+
+	/**
+	 * A counter's value on the last tick.
+	 */
+	public long getCount(int counter) {
+		return counters[counter];
+	}
+
+	private static Histogram[] newHistograms() {
+		Histogram[] histograms = new Histogram[PHASE_COUNT + 1];
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = new Histogram();
+		}
+		return histograms;
+	}
+
+	private static EventSink loadEvents() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (EventSink) Class.forName("evolv.io.JfrEventSink").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// No JFR, or a build without the events in it
+			return null;
+		}
+	}
+
+	/**
+	 * Where a tick goes besides the histograms. JfrEventSink is the only one.
+	 */
+	interface EventSink {
+		void commit(long tickNanos, long[] phaseNanos, long[] counters, double year);
+	}
+
+	/**
+	 * Counts durations in buckets that split every power of two into
+	 * SUB_BUCKETS, so a percentile read back is never more than a sixteenth
+	 * under the real one, whatever its size.
+	 */
+	static class Histogram {
+		static final int SUB_BITS = 4;
+		static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+		private final long[] counts = new long[(64 - SUB_BITS) * SUB_BUCKETS];
+		private long total = 0;
+
+		void add(long nanos) {
+			counts[bucketOf(Math.max(nanos, 0))]++;
+			total++;
+		}
+
+		void clear() {
+			Arrays.fill(counts, 0);
+			total = 0;
+		}
+
+		/**
+		 * The smallest duration in the bucket that holds the given fraction
+		 * of what was added, or 0 if nothing was.
+		 */
+		long getPercentile(double fraction) {
+			long rank = Math.max(1, (long) Math.ceil(fraction * total));
+			long seen = 0;
+			for (int bucket = 0; bucket < counts.length; bucket++) {
+				seen += counts[bucket];
+				if (seen >= rank) {
+					return lowestIn(bucket);
+				}
+			}
+			return 0;
+		}
+
+		static int bucketOf(long nanos) {
+			if (nanos < SUB_BUCKETS) {
+				return (int) nanos;
+			}
+			int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+			int sub = (int) (nanos >>> (magnitude - SUB_BITS)) & (SUB_BUCKETS - 1);
+			return (magnitude - SUB_BITS + 1) * SUB_BUCKETS + sub;
+		}
+
+		static long lowestIn(int bucket) {
+			if (bucket < SUB_BUCKETS) {
+				return bucket;
+			}
+			int magnitude = bucket / SUB_BUCKETS + SUB_BITS - 1;
+			long sub = bucket % SUB_BUCKETS;
+			return (1L << magnitude) | (sub << (magnitude - SUB_BITS));
+		}
+	}
+}
@@ -0,0 +1,467 @@
+package evolv.io;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Every tile on the board, kept in CHUNK_SIZE square chunks that line up
+ * with SpatialGrid's. A chunk holds one primitive column per field for its
+ * tiles instead of a Tile object per square, and isn't made until something
+ * first reads or changes one of its tiles. Until then it is exactly what
+ * the seed's noise says, so it's worked out from that when it's made and a
+ * board nobody has been near costs nothing but the chunk table. Tiles are
+ * numbered chunk by chunk, row by row within each chunk; use index().
+ *
+ * Food isn't grown every tick. Each tile remembers when its food level was
+ * last brought up to date, and the growth since then is worked out in closed
+ * form from Board.getGrowthOverTimeRange() whenever the tile is read or
+ * changed. That only holds while the temperature keeps moving the same way,
+ * so the catch-up breaks wherever it turned, every half year. Below
+ * maxGrowthLevel each half year maps the food level f to a * f + b, so the
+ * whole years in between are one such map applied n times, worked out in one
+ * go. A tile nobody has looked at for years costs nothing until it's read,
+ * and then about as much as one that was read a tick ago.
+ *
+ * Colors are cached per tile along with their hue, saturation and
+ * brightness, and stay good until the year moves on or food is added or
+ * taken away. Filling the cache doesn't change the tile, so threads that may
+ * only peek can fill it too: whoever gets there first works the color out,
+ * and anyone else at the same point in time would have got the same answer.
+ * Making a chunk is the same: two threads may both work it out, and only the
+ * first one to be stored is kept.
+ */
+class TileField {
+	public static final int barrenColor = HsbColor.color(0, 0, 1);
+	public static final int fertileColor = HsbColor.color(0, 0, 0.2f);
+	public static final int blackColor = HsbColor.color(0, 1, 0);
+	public static final int waterColor = HsbColor.color(0, 0, 0);
+	public final float FOOD_GROWTH_RATE = 1.0f;
+	private final float maxGrowthLevel = 3.0f;
+	static final long NO_COLOR = Long.MIN_VALUE;
+	static final int CHUNK_SHIFT = SpatialGrid.CHUNK_SHIFT;
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_TILES = CHUNK_SIZE * CHUNK_SIZE;
+
+	final int width;
+	final int height;
+	final int chunksWide;
+	final int chunksHigh;
+	final float stepSize; // How far apart in the noise neighbouring tiles are
+	final Board board;
+	private final AtomicReferenceArray<Chunk> chunks;
+	private final AtomicInteger chunksMade = new AtomicInteger();
+
+	/**
+	 * The tiles of one chunk, numbered row by row within it. Tiles past the
+	 * edge of the board are left at zero and never looked at.
+	 */
+	static class Chunk {
+		final double[] fertility = new double[CHUNK_TILES]; // Over 1 means water
+		final double[] foodLevel = new double[CHUNK_TILES]; // As of lastUpdateTime
+		final double[] lastUpdateTime = new double[CHUNK_TILES];
+		final double[] climateType = new double[CHUNK_TILES]; // Also the type of food that grows there
+
+		// Only depend on fertility and climate type, so they are worked out once
+		final int[] groundColor = new int[CHUNK_TILES];
+		final int[] foodColor = new int[CHUNK_TILES];
+		final float[] foodHue = new float[CHUNK_TILES];
+
+		// The color cache, good while colorTime holds the bits of board.year
+		final int[] color = new int[CHUNK_TILES];
+		final float[] colorHue = new float[CHUNK_TILES];
+		final float[] colorSaturation = new float[CHUNK_TILES];
+		final float[] colorBrightness = new float[CHUNK_TILES];
+		final AtomicLongArray colorTime = new AtomicLongArray(CHUNK_TILES);
+
+		// Bumped whenever food is added or taken away, for anyone copying the
+		// chunk out to tell whether it has changed other than by growing
+		int changes;
+	}
+
+	public TileField(int width, int height, float stepSize, Board board) {
+		this.width = width;
+		this.height = height;
+		this.stepSize = stepSize;
+		this.board = board;
+		chunksWide = (width + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+		chunksHigh = (height + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+		chunks = new AtomicReferenceArray<Chunk>(chunksWide * chunksHigh);
+	}
+
+	/**
+	 * The chunk a tile is in.
+	 */
+	Chunk chunk(int tile) {
+		return getChunk(tile >> (CHUNK_SHIFT * 2));
+	}
+
+	/**
+	 * A chunk by its number, row by row, made from the noise if nothing has
+	 * touched it yet.
+	 */
+	Chunk getChunk(int number) {
+		Chunk chunk = chunks.get(number);
+		if (chunk == null) {
+			chunk = generate(number);
+			if (chunks.compareAndSet(number, null, chunk)) {
+				chunksMade.incrementAndGet();
+			} else {
+				chunk = chunks.get(number);
+			}
+		}
+		return chunk;
+	}
+
+	/**
+	 * A chunk if it has been made, or null if nothing has touched it yet.
+	 */
+	Chunk peekChunk(int number) {
+		return chunks.get(number);
+	}
+
+	public int getChunkCount() {
+		return chunks.length();
+	}
+
+	/**
+	 * How many chunks have been made so far.
+	 */
+	public int getChunksMade() {
+		return chunksMade.get();
+	}
+
+	private Chunk generate(int number) {
+		Chunk chunk = new Chunk();
+		Noise noise = board.noise;
+		int left = (number % chunksWide) << CHUNK_SHIFT;
+		int top = (number / chunksWide) << CHUNK_SHIFT;
+		for (int y = top; y < Math.min(top + CHUNK_SIZE, height); y++) {
+			float bigForce = (float) Math.pow(((float) y) / height, 0.5f);
+			for (int x = left; x < Math.min(left + CHUNK_SIZE, width); x++) {
+				float fertility = noise.noise(x * stepSize * 3, y * stepSize * 3) * (1 - bigForce) * 5.0f
+						+ noise.noise(x * stepSize * 0.5f, y * stepSize * 0.5f) * bigForce * 5.0f - 1.5f;
+				float climateType = noise.noise(x * stepSize * 0.2f + 10000, y * stepSize * 0.2f + 10000) * 1.63f
+						- 0.4f;
+				climateType = Math.min(Math.max(climateType, 0), 0.8f);
+				int i = offset(x, y);
+				chunk.fertility[i] = Math.max(0, (double) fertility);
+				chunk.foodLevel[i] = chunk.fertility[i];
+				chunk.climateType[i] = climateType;
+				prepareColors(chunk, i);
+			}
+		}
+		return chunk;
+	}
+
+	/**
+	 * Puts a chunk's food back exactly as a checkpoint saved it. The rest of
+	 * the chunk comes from the noise as usual.
+	 */
+	public void restore(int number, double[] food, double[] updateTimes) {
+		Chunk chunk = generate(number);
+		System.arraycopy(food, 0, chunk.foodLevel, 0, CHUNK_TILES);
+		System.arraycopy(updateTimes, 0, chunk.lastUpdateTime, 0, CHUNK_TILES);
+		if (chunks.getAndSet(number, chunk) == null) {
+			chunksMade.incrementAndGet();
+		}
+	}
+
+	private void prepareColors(Chunk chunk, int i) {
+		chunk.groundColor[i] = interColor(barrenColor, fertileColor, chunk.fertility[i]);
+		chunk.foodColor[i] = HsbColor.color((float) (chunk.climateType[i]), 1, 1);
+		chunk.foodHue[i] = HsbColor.hue(chunk.foodColor[i]);
+		chunk.colorTime.set(i, NO_COLOR);
+	}
+
+	public int index(int x, int y) {
+		return ((y >> CHUNK_SHIFT) * chunksWide + (x >> CHUNK_SHIFT)) << (CHUNK_SHIFT * 2) | offset(x, y);
+	}
+
+	/**
+	 * Where tile (x, y) is within its chunk.
+	 */
+	static int offset(int x, int y) {
+		return (y & (CHUNK_SIZE - 1)) << CHUNK_SHIFT | (x & (CHUNK_SIZE - 1));
+	}
+
+	public boolean isWater(int tile) {
+		return chunk(tile).fertility[tile & (CHUNK_TILES - 1)] > 1;
+	}
+
+	public double getClimateType(int tile) {
+		return chunk(tile).climateType[tile & (CHUNK_TILES - 1)];
+	}
+
+	/**
+	 * The type of food that grows on a tile. Food dropped on a tile takes its
+	 * type, so this is always the climate type.
+	 */
+	public double getFoodType(int tile) {
+		return getClimateType(tile);
+	}
+
+	/**
+	 * The food level as of the tile's last update, without catching it up.
+	 */
+	public double getStoredFoodLevel(int tile) {
+		return chunk(tile).foodLevel[tile & (CHUNK_TILES - 1)];
+	}
+
+	/**
+	 * Brings one tile's food level up to the board's current year.
+	 */
+	public void update(int tile) {
+		update(chunk(tile), tile & (CHUNK_TILES - 1));
+	}
+
+	private void update(Chunk chunk, int i) {
+		double updateTime = board.year;
+		if (Math.abs(chunk.lastUpdateTime[i] - updateTime) >= 0.00001f) {
+			chunk.foodLevel[i] = getFoodLevelAt(chunk, i, updateTime);
+			chunk.lastUpdateTime[i] = updateTime;
+		}
+	}
+
+	/**
+	 * What update() would bring the food level to by updateTime, without
+	 * changing the tile.
+	 */
+	public double getFoodLevelAt(int tile, double updateTime) {
+		return getFoodLevelAt(chunk(tile), tile & (CHUNK_TILES - 1), updateTime);
+	}
+
+	private double getFoodLevelAt(Chunk chunk, int i, double updateTime) {
+		double fertility = chunk.fertility[i];
+		double newFoodLevel = chunk.foodLevel[i];
+		double lastTime = chunk.lastUpdateTime[i];
+		if (Math.abs(lastTime - updateTime) >= 0.00001f) {
+			// The temperature turns at every whole and half year.
+			double turn = Math.floor(lastTime * 2 + 1) / 2;
+			if (turn < updateTime) {
+				newFoodLevel = grow(fertility, newFoodLevel, lastTime, turn);
+				// Whole half years from turn up to the last turn before updateTime
+				long halves = (long) Math.ceil((updateTime - turn) * 2) - 1;
+				long years = halves / 2;
+				newFoodLevel = growYears(fertility, newFoodLevel, turn, years);
+				lastTime = turn + years;
+				if (halves % 2 == 1) {
+					newFoodLevel = grow(fertility, newFoodLevel, lastTime, lastTime + 0.5);
+					lastTime += 0.5;
+				}
+			}
+			newFoodLevel = grow(fertility, newFoodLevel, lastTime, updateTime);
+		}
+		return newFoodLevel;
+	}
+
+	/**
+	 * Grows or starves a tile's food over whole years from startTime, which
+	 * is a turn. Every year's halves grow the same as the first year's.
+	 */
+	private double growYears(double fertility, double newFoodLevel, double startTime, long years) {
+		if (years == 0) {
+			return newFoodLevel;
+		}
+		if (fertility > 1) {
+			return 0;
+		}
+		double firstGrowth = board.getGrowthOverTimeRange(startTime, startTime + 0.5);
+		double secondGrowth = board.getGrowthOverTimeRange(startTime + 0.5, startTime + 1);
+		// Growing leaves food at or over maxGrowthLevel alone, so only a
+		// starving half can bring it down to where the maps below hold.
+		while (newFoodLevel >= maxGrowthLevel && (firstGrowth > 0 || secondGrowth > 0)) {
+			if (firstGrowth > 0 && secondGrowth > 0) {
+				return newFoodLevel;
+			}
+			newFoodLevel = grow(fertility, grow(fertility, newFoodLevel, firstGrowth), secondGrowth);
+			if (--years == 0) {
+				return newFoodLevel;
+			}
+		}
+		// A year as one map f -> a * f + b, then n of them:
+		// a^n * f + b * (1 + a + ... + a^(n - 1))
+		double firstScale = growthScale(fertility, firstGrowth);
+		double secondScale = growthScale(fertility, secondGrowth);
+		double a = firstScale * secondScale;
+		double b = secondScale * growthOffset(firstGrowth, firstScale) + growthOffset(secondGrowth, secondScale);
+		double an = Math.pow(a, years);
+		double sum = a == 1 ? years : (1 - an) / (1 - a);
+		return Math.max(an * newFoodLevel + b * sum, 0);
+	}
+
+	/**
+	 * The a in f -> a * f + b that grow() applies to food below
+	 * maxGrowthLevel for growthChange.
+	 */
+	private double growthScale(double fertility, double growthChange) {
+		if (growthChange > 0) {
+			return Math.pow(2.71828182846f, -growthChange * fertility * FOOD_GROWTH_RATE);
+		}
+		return Math.pow(2.71828182846f, growthChange * FOOD_GROWTH_RATE);
+	}
+
+	private double growthOffset(double growthChange, double scale) {
+		return growthChange > 0 ? maxGrowthLevel * (1 - scale) : 0;
+	}
+
+	/**
+	 * Grows or starves a tile's food from startTime to endTime, in which the
+	 * temperature only moves one way.
+	 */
+	private double grow(double fertility, double newFoodLevel, double startTime, double endTime) {
+		return grow(fertility, newFoodLevel, board.getGrowthOverTimeRange(startTime, endTime));
+	}
+
+	private double grow(double fertility, double newFoodLevel, double growthChange) {
+		if (fertility > 1) { // This means the tile is water.
+			newFoodLevel = 0;
+		} else {
+			if (growthChange > 0) { // Food is growing. Exponentially
+									// approach maxGrowthLevel.
+				if (newFoodLevel < maxGrowthLevel) {
+					double newDistToMax = (maxGrowthLevel - newFoodLevel)
+							* Math.pow(2.71828182846f, -growthChange * fertility * FOOD_GROWTH_RATE);
+					double foodGrowthAmount = (maxGrowthLevel - newDistToMax) - newFoodLevel;
+					newFoodLevel += foodGrowthAmount;
+				}
+			} else { // Food is dying off. Exponentially approach 0.
+				newFoodLevel -= newFoodLevel
+						- newFoodLevel * Math.pow(2.71828182846f, growthChange * FOOD_GROWTH_RATE);
+			}
+		}
+		return Math.max(newFoodLevel, 0);
+	}
+
+	/**
+	 * All the food in the chunks grid has awake, as of now, without bringing
+	 * any tile up to date. Sleeping chunks are left out, so this costs as
+	 * much as the bodies on the board rather than its size.
+	 */
+	public double getFoodNear(SpatialGrid grid) {
+		double total = 0;
+		for (int i = 0; i < grid.getAwakeChunkCount(); i++) {
+			int number = grid.getAwakeChunk(i);
+			Chunk chunk = getChunk(number);
+			int left = (number % chunksWide) << CHUNK_SHIFT;
+			int top = (number / chunksWide) << CHUNK_SHIFT;
+			for (int y = top; y < Math.min(top + CHUNK_SIZE, height); y++) {
+				for (int x = left; x < Math.min(left + CHUNK_SIZE, width); x++) {
+					total += getFoodLevelAt(chunk, offset(x, y), board.year);
+				}
+			}
+		}
+		return total;
+	}
+
+	public double getFoodLevel(int tile) {
+		Chunk chunk = chunk(tile);
+		int i = tile & (CHUNK_TILES - 1);
+		update(chunk, i);
+		return chunk.foodLevel[i];
+	}
+
+	public void addFood(int tile, double amount, double addedFoodType, boolean canCauseIteration) {
+		Chunk chunk = chunk(tile);
+		int i = tile & (CHUNK_TILES - 1);
+		if (canCauseIteration) {
+			update(chunk, i);
+		}
+		chunk.foodLevel[i] += amount;
+		chunk.colorTime.set(i, NO_COLOR);
+		chunk.changes++;
+	}
+
+	public void removeFood(int tile, double amount, boolean canCauseIteration) {
+		Chunk chunk = chunk(tile);
+		int i = tile & (CHUNK_TILES - 1);
+		if (canCauseIteration) {
+			update(chunk, i);
+		}
+		chunk.foodLevel[i] -= amount;
+		chunk.colorTime.set(i, NO_COLOR);
+		chunk.changes++;
+	}
+
+	public int getColor(int tile) {
+		update(tile);
+		return peekColor(tile);
+	}
+
+	/**
+	 * Same as getColor(), but leaves the tile's food alone so several threads
+	 * can look at it at once.
+	 */
+	public int peekColor(int tile) {
+		Chunk chunk = chunk(tile);
+		int i = tile & (CHUNK_TILES - 1);
+		cacheColor(chunk, i);
+		return chunk.color[i];
+	}
+
+	/**
+	 * Writes the tile's hue, saturation and brightness to into from offset
+	 * on. Only brings the tile's food up to date if canCauseIteration.
+	 */
+	public void getHsb(int tile, boolean canCauseIteration, double[] into, int offset) {
+		Chunk chunk = chunk(tile);
+		int i = tile & (CHUNK_TILES - 1);
+		if (canCauseIteration) {
+			update(chunk, i);
+		}
+		cacheColor(chunk, i);
+		into[offset] = chunk.colorHue[i];
+		into[offset + 1] = chunk.colorSaturation[i];
+		into[offset + 2] = chunk.colorBrightness[i];
+	}
+
+	private void cacheColor(Chunk chunk, int i) {
+		long now = Double.doubleToLongBits(board.year);
+		if (chunk.colorTime.get(i) != now) {
+			int c = getColor(chunk, i, getFoodLevelAt(chunk, i, board.year));
+			chunk.color[i] = c;
+			chunk.colorHue[i] = HsbColor.hue(c);
+			chunk.colorSaturation[i] = HsbColor.saturation(c);
+			chunk.colorBrightness[i] = HsbColor.brightness(c);
+			chunk.colorTime.set(i, now);
+		}
+	}
+
+	private int getColor(Chunk chunk, int i, double foodLevel) {
+		if (chunk.fertility[i] > 1) {
+			return waterColor;
+		} else if (foodLevel < maxGrowthLevel) {
+			return interColorFixedHue(chunk.groundColor[i], chunk.foodColor[i], foodLevel / maxGrowthLevel,
+					chunk.foodHue[i]);
+		} else {
+			return interColorFixedHue(chunk.foodColor[i], blackColor, 1.0f - maxGrowthLevel / foodLevel,
+					chunk.foodHue[i]);
+		}
+	}
+
+	public int interColor(int a, int b, double x) {
+		double hue = inter(HsbColor.hue(a), HsbColor.hue(b), x);
+		double sat = inter(HsbColor.saturation(a), HsbColor.saturation(b), x);
+		double bri = inter(HsbColor.brightness(a), HsbColor.brightness(b), x); // I know it's dumb to do
+																					// interpolation with HSL but
+																					// oh well
+		return HsbColor.color((float) (hue), (float) (sat), (float) (bri));
+	}
+
+	public int interColorFixedHue(int a, int b, double x, double hue) {
+		double satB = HsbColor.saturation(b);
+		if (HsbColor.brightness(b) == 0) { // I want black to be calculated as
+											// 100% saturation
+			satB = 1;
+		}
+		double sat = inter(HsbColor.saturation(a), satB, x);
+		double bri = inter(HsbColor.brightness(a), HsbColor.brightness(b), x); // I know it's dumb to do
+																					// interpolation with HSL but
+																					// oh well
+		return HsbColor.color((float) (hue), (float) (sat), (float) (bri));
+	}
+
+	public double inter(double a, double b, double x) {
+		return a + (b - a) * x;
+	}
+}
@@ -0,0 +1,393 @@
+package evolv.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * A handful of numbers about the board, recorded every tick and kept at a
+ * few resolutions. Each tier is a ring of buckets that each sum up a fixed
+ * number of ticks as their min, max and mean, so the finest tier covers the
+ * last stretch tick by tick and coarser ones reach further back, and a run
+ * of any length takes the same memory.
+ *
+ * Every tier also keeps, per metric, the buckets that could still turn out
+ * to be its largest, so the max over everything it holds never needs a scan.
+ */
+class TimeSeries {
+	static final int POPULATION = 0;
+	static final int MEAN_ENERGY = 1;
+	static final int MAX_ENERGY = 2;
+	static final int MAX_GENERATION = 3;
+	static final int BIRTHS = 4;
+	static final int DEATHS = 5;
+	static final int NEARBY_FOOD = 6; // On the tiles in awake chunks
+	static final int METRIC_COUNT = 7;
+	static final String[] METRIC_NAMES = { "population", "meanEnergy", "maxEnergy", "maxGeneration", "births",
+			"deaths", "nearbyFood" };
+
+	static final int MAGIC = 0x45564953; // "EVIS"
+	static final int VERSION = 2;
+
+	// Ticks per bucket and buckets kept: a year tick by tick, four years at a
+	// hundredth of a year, and a thousand years at a tenth.
+	static final int[] TICKS_PER_BUCKET = { 1, 10, 100 };
+	static final int[] CAPACITIES = { 1000, 400, 10000 };
+
+	private final Tier[] tiers;
+	private long ticks = 0;
+
+	public TimeSeries() {
+		this(TICKS_PER_BUCKET, CAPACITIES);
+	}
+
+	public TimeSeries(int[] ticksPerBucket, int[] capacities) {
+		tiers = new Tier[ticksPerBucket.length];
+		for (int i = 0; i < tiers.length; i++) {
+			tiers[i] = new Tier(ticksPerBucket[i], capacities[i]);
+		}
+	}
+
+	private TimeSeries(Tier[] tiers, long ticks) {
+		this.tiers = tiers;
+		this.ticks = ticks;
+	}
+
+	/**
+	 * A copy that goes its own way from here, for a checkpoint to keep.
+	 */
+	public TimeSeries copy() {
+		Tier[] copies = new Tier[tiers.length];
+		for (int i = 0; i < tiers.length; i++) {
+			copies[i] = new Tier(tiers[i]);
+		}
+		return new TimeSeries(copies, ticks);
+	}
+
+	/**
+	 * Adds one tick's values, one per metric.
+	 */
+	public void record(double year, double[] values) {
+		for (Tier tier : tiers) {
+			tier.add(year, values);
+		}
+		ticks++;
+	}
+
+	public long getTicks() {
+		return ticks;
+	}
+
+	public int getTierCount() {
+		return tiers.length;
+	}
+
+	public Tier getTier(int tier) {
+		return tiers[tier];
+	}
+
+	/**
+	 * Writes a tier's finished buckets as CSV, oldest first.
+	 */
+	public void writeCsv(int tier, Writer out) throws IOException {
+		Tier t = tiers[tier];
+		out.write("year");
+		for (String name : METRIC_NAMES) {
+			out.write("," + name + "Min," + name + "Max," + name + "Mean");
+		}
+		out.write("\n");
+		for (int age = t.size() - 1; age >= 0; age--) {
+			out.write(Double.toString(t.getYear(age)));
+			for (int metric = 0; metric < METRIC_COUNT; metric++) {
+				out.write(String.format(Locale.ROOT, ",%s,%s,%s", t.getMin(metric, age), t.getMax(metric, age),
+						t.getMean(metric, age)));
+			}
+			out.write("\n");
+		}
+	}
+
+	public void writeCsv(int tier, Path path) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			writeCsv(tier, out);
+		}
+	}
+
+	/**
+	 * Writes every tier's finished buckets, oldest first, in the same big-endian
+	 * layout as checkpoints.
+	 */
+	public void write(BinaryOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(METRIC_COUNT);
+		out.writeLong(ticks);
+		out.writeInt(tiers.length);
+		for (Tier tier : tiers) {
+			out.writeInt(tier.ticksPerBucket);
+			out.writeInt(tier.capacity);
+			out.writeInt(tier.size());
+			for (int age = tier.size() - 1; age >= 0; age--) {
+				out.writeDouble(tier.getYear(age));
+				for (int metric = 0; metric < METRIC_COUNT; metric++) {
+					out.writeDouble(tier.getMin(metric, age));
+					out.writeDouble(tier.getMax(metric, age));
+					out.writeDouble(tier.getMean(metric, age));
+				}
+			}
+		}
+	}
+
+	public void write(Path path) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		try (BinaryOutput out = new BinaryOutput(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+			write(out);
+		}
+	}
+
+	/**
+	 * Writes everything needed to carry on recording exactly where this is,
+	 * open buckets included, for checkpoints. Given the series as it was at
+	 * the checkpoint before, only the buckets finished since are written.
+	 */
+	void writeState(BinaryOutput out, TimeSeries base) throws IOException {
+		out.writeLong(ticks);
+		out.writeInt(tiers.length);
+		for (int i = 0; i < tiers.length; i++) {
+			Tier tier = tiers[i];
+			int count = tier.size();
+			if (base != null && base.tiers.length == tiers.length && base.tiers[i].finished <= tier.finished) {
+				count = (int) Math.min(count, tier.finished - base.tiers[i].finished);
+			}
+			out.writeInt(tier.ticksPerBucket);
+			out.writeInt(tier.capacity);
+			out.writeLong(tier.finished);
+			out.writeInt(count);
+			for (int age = count - 1; age >= 0; age--) {
+				int slot = tier.slot(age);
+				out.writeDouble(tier.years[slot]);
+				for (int metric = 0; metric < METRIC_COUNT; metric++) {
+					out.writeDouble(tier.mins[metric][slot]);
+					out.writeDouble(tier.maxes[metric][slot]);
+					out.writeDouble(tier.sums[metric][slot]);
+				}
+			}
+			out.writeInt(tier.openTicks);
+			out.writeDouble(tier.openYear);
+			out.writeDoubles(tier.openMin, 0, METRIC_COUNT);
+			out.writeDoubles(tier.openMax, 0, METRIC_COUNT);
+			out.writeDoubles(tier.openSum, 0, METRIC_COUNT);
+		}
+	}
+
+	/**
+	 * Reads back what writeState() wrote, on top of a copy of base if it was
+	 * written against one.
+	 */
+	static TimeSeries readState(BinaryInput in, TimeSeries base) throws IOException {
+		long ticks = in.readLong();
+		Tier[] tiers = new Tier[in.readInt()];
+		double[] min = new double[METRIC_COUNT];
+		double[] max = new double[METRIC_COUNT];
+		double[] sum = new double[METRIC_COUNT];
+		for (int i = 0; i < tiers.length; i++) {
+			int ticksPerBucket = in.readInt();
+			int capacity = in.readInt();
+			long finished = in.readLong();
+			int count = in.readInt();
+			Tier tier;
+			if (count < capacity && finished - count > 0) {
+				// Only the newest buckets are here; the rest are base's
+				if (base == null || i >= base.tiers.length || base.tiers[i].finished != finished - count
+						|| base.tiers[i].capacity != capacity) {
+					throw new IOException("History only holds what changed since a checkpoint it doesn't match");
+				}
+				tier = new Tier(base.tiers[i]);
+			} else {
+				tier = new Tier(ticksPerBucket, capacity);
+				tier.finished = finished - count;
+			}
+			for (int bucket = 0; bucket < count; bucket++) {
+				double year = in.readDouble();
+				for (int metric = 0; metric < METRIC_COUNT; metric++) {
+					min[metric] = in.readDouble();
+					max[metric] = in.readDouble();
+					sum[metric] = in.readDouble();
+				}
+				tier.push(year, min, max, sum);
+			}
+			tier.openTicks = in.readInt();
+			tier.openYear = in.readDouble();
+			in.readDoubles(tier.openMin, 0, METRIC_COUNT);
+			in.readDoubles(tier.openMax, 0, METRIC_COUNT);
+			in.readDoubles(tier.openSum, 0, METRIC_COUNT);
+			tiers[i] = tier;
+		}
+		return new TimeSeries(tiers, ticks);
+	}
+
+	/**
+	 * One resolution of the series. Buckets are numbered by age, 0 being the
+	 * newest finished one.
+	 */
+	static class Tier {
+		final int ticksPerBucket;
+		final int capacity;
+		private final double[] years; // When each bucket started
+		private final double[][] mins; // By metric, then slot
+		private final double[][] maxes;
+		private final double[][] sums;
+		private long finished = 0; // Buckets ever finished; the next one goes in slot finished % capacity
+		// The bucket being filled
+		private double openYear;
+		private final double[] openMin = new double[METRIC_COUNT];
+		private final double[] openMax = new double[METRIC_COUNT];
+		private final double[] openSum = new double[METRIC_COUNT];
+		private int openTicks = 0;
+		// Per metric, the numbers of kept buckets whose max is bigger than
+		// every newer one's, oldest first, as a ring from maxHead
+		private final long[][] maxCandidates;
+		private final int[] maxHead = new int[METRIC_COUNT];
+		private final int[] maxCount = new int[METRIC_COUNT];
+
+		Tier(int ticksPerBucket, int capacity) {
+			this.ticksPerBucket = ticksPerBucket;
+			this.capacity = capacity;
+			years = new double[capacity];
+			mins = new double[METRIC_COUNT][capacity];
+			maxes = new double[METRIC_COUNT][capacity];
+			sums = new double[METRIC_COUNT][capacity];
+			maxCandidates = new long[METRIC_COUNT][capacity];
+		}
+
+		Tier(Tier other) {
+			ticksPerBucket = other.ticksPerBucket;
+			capacity = other.capacity;
+			years = other.years.clone();
+			mins = deepCopy(other.mins);
+			maxes = deepCopy(other.maxes);
+			sums = deepCopy(other.sums);
+			finished = other.finished;
+			openYear = other.openYear;
+			System.arraycopy(other.openMin, 0, openMin, 0, METRIC_COUNT);
+			System.arraycopy(other.openMax, 0, openMax, 0, METRIC_COUNT);
+			System.arraycopy(other.openSum, 0, openSum, 0, METRIC_COUNT);
+			openTicks = other.openTicks;
+			maxCandidates = new long[METRIC_COUNT][];
+			for (int metric = 0; metric < METRIC_COUNT; metric++) {
+				maxCandidates[metric] = other.maxCandidates[metric].clone();
+			}
+			System.arraycopy(other.maxHead, 0, maxHead, 0, METRIC_COUNT);
+			System.arraycopy(other.maxCount, 0, maxCount, 0, METRIC_COUNT);
+		}
+
+		private static double[][] deepCopy(double[][] columns) {
+			double[][] copy = new double[columns.length][];
+			for (int i = 0; i < columns.length; i++) {
+				copy[i] = columns[i].clone();
+			}
+			return copy;
+		}
+
+		void add(double year, double[] values) {
+			if (openTicks == 0) {
+				openYear = year;
+				for (int metric = 0; metric < METRIC_COUNT; metric++) {
+					openMin[metric] = values[metric];
+					openMax[metric] = values[metric];
+					openSum[metric] = values[metric];
+				}
+			} else {
+				for (int metric = 0; metric < METRIC_COUNT; metric++) {
+					openMin[metric] = Math.min(openMin[metric], values[metric]);
+					openMax[metric] = Math.max(openMax[metric], values[metric]);
+					openSum[metric] += values[metric];
+				}
+			}
+			if (++openTicks == ticksPerBucket) {
+				finish();
+			}
+		}
+
+		private void finish() {
+			push(openYear, openMin, openMax, openSum);
+			openTicks = 0;
+		}
+
+		/**
+		 * Adds a finished bucket as the newest.
+		 */
+		private void push(double year, double[] min, double[] max, double[] sum) {
+			long number = finished;
+			int slot = (int) (number % capacity);
+			years[slot] = year;
+			for (int metric = 0; metric < METRIC_COUNT; metric++) {
+				mins[metric][slot] = min[metric];
+				maxes[metric][slot] = max[metric];
+				sums[metric][slot] = sum[metric];
+				long[] candidates = maxCandidates[metric];
+				// Drop the bucket this one overwrote, then any its max beats
+				if (maxCount[metric] > 0 && candidates[maxHead[metric]] <= number - capacity) {
+					maxHead[metric] = (maxHead[metric] + 1) % capacity;
+					maxCount[metric]--;
+				}
+				while (maxCount[metric] > 0 && maxes[metric][(int) (candidates[(maxHead[metric] + maxCount[metric] - 1)
+						% capacity] % capacity)] <= max[metric]) {
+					maxCount[metric]--;
+				}
+				candidates[(maxHead[metric] + maxCount[metric]) % capacity] = number;
+				maxCount[metric]++;
+			}
+			finished++;
+		}
+
+		/**
+		 * How many finished buckets are kept.
+		 */
+		public int size() {
+			return (int) Math.min(finished, capacity);
+		}
+
+		public double getYear(int age) {
+			return years[slot(age)];
+		}
+
+		public double getMin(int metric, int age) {
+			return mins[metric][slot(age)];
+		}
+
+		public double getMax(int metric, int age) {
+			return maxes[metric][slot(age)];
+		}
+
+		public double getMean(int metric, int age) {
+			return sums[metric][slot(age)] / ticksPerBucket;
+		}
+
+		/**
+		 * The largest value of metric over every bucket kept, or 0 if there
+		 * are none yet.
+		 */
+		public double getMax(int metric) {
+			if (maxCount[metric] == 0) {
+				return 0;
+			}
+			return maxes[metric][(int) (maxCandidates[metric][maxHead[metric]] % capacity)];
+		}
+
+		private int slot(int age) {
+			if (age < 0 || age >= size()) {
+				throw new IndexOutOfBoundsException("No bucket " + age + " of " + size());
+			}
+			return (int) ((finished - 1 - age) % capacity);
+		}
+	}
+}
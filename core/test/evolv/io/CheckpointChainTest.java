@@ -0,0 +1,99 @@
+package evolv.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CheckpointChainTest {
+	static final int TICKS_BETWEEN_SAVES = 100;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void everyLinkLoadsBackToTheBoardItSaved() throws IOException {
+		Path chainFolder = folder.newFolder("chain").toPath();
+		Simulation simulation = Worlds.start(Worlds.SEED, 0);
+		CheckpointChain chain = new CheckpointChain();
+		int saves = CheckpointChain.KEYFRAME_INTERVAL + 3;
+		long[] hashes = new long[saves];
+		for (int save = 0; save < saves; save++) {
+			Worlds.step(simulation, TICKS_BETWEEN_SAVES);
+			hashes[save] = Worlds.hash(simulation.board);
+			chain.save(Checkpoint.capture(simulation.board), file(chainFolder, save));
+		}
+		for (int save = 0; save < saves; save++) {
+			int kind = save % CheckpointChain.KEYFRAME_INTERVAL == 0 ? Checkpoint.KEYFRAME : Checkpoint.DELTA;
+			assertEquals("kind of save " + save, kind, kindOf(file(chainFolder, save)));
+			Board restored = CheckpointChain.load(file(chainFolder, save)).restore();
+			assertEquals("save " + save, hashes[save], Worlds.hash(restored));
+		}
+	}
+
+	@Test
+	public void loadingByYearTakesTheNewestSaveBeforeIt() throws IOException {
+		Path chainFolder = folder.newFolder("chain").toPath();
+		Simulation simulation = Worlds.start(Worlds.SEED, 0);
+		CheckpointChain chain = new CheckpointChain();
+		long hash = 0;
+		double year = 0;
+		for (int save = 0; save < 5; save++) {
+			Worlds.step(simulation, TICKS_BETWEEN_SAVES);
+			if (save == 3) {
+				hash = Worlds.hash(simulation.board);
+				year = simulation.board.year;
+			}
+			chain.save(Checkpoint.capture(simulation.board), file(chainFolder, save));
+		}
+		Board restored = CheckpointChain.load(chainFolder, year + Simulation.TIME_STEP * 50).restore();
+		assertEquals(hash, Worlds.hash(restored));
+	}
+
+	@Test
+	public void failedWriteMakesTheNextSaveAKeyframe() throws IOException {
+		Path chainFolder = folder.newFolder("chain").toPath();
+		// A file where a folder should be, so nothing can be written under it
+		Path blocked = folder.newFile("blocked").toPath().resolve("save" + Checkpoint.FILE_ENDING);
+		Simulation simulation = Worlds.start(Worlds.SEED, 0);
+		CheckpointChain chain = new CheckpointChain();
+		Worlds.step(simulation, TICKS_BETWEEN_SAVES);
+		chain.save(Checkpoint.capture(simulation.board), file(chainFolder, 0));
+		Worlds.step(simulation, TICKS_BETWEEN_SAVES);
+		try {
+			chain.save(Checkpoint.capture(simulation.board), blocked);
+			fail("Saved under a file");
+		} catch (IOException expected) {
+		}
+		Worlds.step(simulation, TICKS_BETWEEN_SAVES);
+		long hash = Worlds.hash(simulation.board);
+		chain.save(Checkpoint.capture(simulation.board), file(chainFolder, 1));
+		assertEquals(Checkpoint.KEYFRAME, kindOf(file(chainFolder, 1)));
+		assertEquals(hash, Worlds.hash(CheckpointChain.load(file(chainFolder, 1)).restore()));
+
+		// And the chain carries on with deltas from there.
+		Worlds.step(simulation, TICKS_BETWEEN_SAVES);
+		hash = Worlds.hash(simulation.board);
+		chain.save(Checkpoint.capture(simulation.board), file(chainFolder, 2));
+		assertEquals(Checkpoint.DELTA, kindOf(file(chainFolder, 2)));
+		assertEquals(hash, Worlds.hash(CheckpointChain.load(file(chainFolder, 2)).restore()));
+		assertFalse(Files.exists(blocked));
+	}
+
+	private static Path file(Path chainFolder, int save) {
+		return chainFolder.resolve(String.format("%05d", save) + Checkpoint.FILE_ENDING);
+	}
+
+	private static int kindOf(Path path) throws IOException {
+		try (BinaryInput in = Checkpoint.open(path)) {
+			return Checkpoint.readHeader(in).kind;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package evolv.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CheckpointTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void restoredBoardCarriesOnExactlyUnderTheSerialTick() throws IOException {
+		carriesOn(0);
+	}
+
+	@Test
+	public void restoredBoardCarriesOnExactlyUnderThePhasedTick() throws IOException {
+		carriesOn(2);
+	}
+
+	@Test
+	public void restoredBoardStartsWhereItWasSaved() throws IOException {
+		Simulation original = Worlds.start(Worlds.SEED, 0);
+		Worlds.step(original, 700);
+		Path path = folder.getRoot().toPath().resolve("saved" + Checkpoint.FILE_ENDING);
+		Checkpoint.capture(original.board).save(path);
+		Board restored = Checkpoint.load(path).restore();
+		assertEquals(Worlds.hash(original.board), Worlds.hash(restored));
+		assertEquals(original.board.history.getTicks(), restored.history.getTicks());
+	}
+
+	private void carriesOn(int threads) throws IOException {
+		Simulation original = Worlds.start(Worlds.SEED, threads);
+		Simulation resumed = null;
+		try {
+			Worlds.step(original, 700);
+			Path path = folder.getRoot().toPath().resolve("saved" + Checkpoint.FILE_ENDING);
+			Checkpoint.capture(original.board).save(path);
+			resumed = new Simulation(Checkpoint.load(path).restore());
+			resumed.setTickThreads(threads);
+			for (int tick = 0; tick < 800; tick++) {
+				original.step();
+				resumed.step();
+			}
+			assertEquals(Worlds.hash(original.board), Worlds.hash(resumed.board));
+		} finally {
+			original.setTickThreads(0);
+			if (resumed != null) {
+				resumed.setTickThreads(0);
+			}
+		}
+	}
+}
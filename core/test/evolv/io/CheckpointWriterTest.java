@@ -0,0 +1,73 @@
+package evolv.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CheckpointWriterTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test(timeout = 60000)
+	public void floodingASlowWriterStillDrains() throws Exception {
+		CheckpointWriter writer = new CheckpointWriter(1);
+		Board board = Worlds.start(Worlds.SEED, 0).board;
+		CheckpointChain slow = new CheckpointChain() {
+			@Override
+			public void save(Checkpoint checkpoint, Path path) {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		long offered = 0;
+		for (int i = 0; i < 5000; i++) {
+			if (writer.offer(board, folder.getRoot().toPath().resolve(i + Checkpoint.FILE_ENDING), slow)) {
+				offered++;
+			}
+		}
+		writer.drain();
+		assertEquals(0, writer.getQueueDepth());
+		assertEquals(offered, writer.getWritten());
+		assertEquals(5000 - offered, writer.getDeferred());
+		assertTrue(writer.getDeferred() > 0);
+	}
+
+	@Test(timeout = 60000)
+	public void writeThatThrowsIsCountedAsFailedAndStillDrains() throws Exception {
+		CheckpointWriter writer = new CheckpointWriter(2);
+		Board board = Worlds.start(Worlds.SEED, 0).board;
+		CheckpointChain broken = new CheckpointChain() {
+			@Override
+			public void save(Checkpoint checkpoint, Path path) {
+				throw new IllegalStateException("Broken");
+			}
+		};
+		for (int i = 0; i < 3; i++) {
+			assertTrue(writer.offer(board, folder.getRoot().toPath().resolve(i + Checkpoint.FILE_ENDING), broken));
+			writer.drain();
+		}
+		assertEquals(0, writer.getQueueDepth());
+		assertEquals(3, writer.getFailed());
+		assertTrue(writer.getLastError() instanceof IOException);
+	}
+
+	@Test(timeout = 60000)
+	public void captureThatThrowsGivesItsPlaceBack() throws Exception {
+		CheckpointWriter writer = new CheckpointWriter(2);
+		try {
+			writer.offer(null, folder.getRoot().toPath().resolve("0" + Checkpoint.FILE_ENDING), null);
+		} catch (NullPointerException expected) {
+		}
+		assertEquals(0, writer.getQueueDepth());
+		writer.drain();
+	}
+}
@@ -0,0 +1,145 @@
+package evolv.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class GenomeCodecTest {
+	static final int PARENT = 7;
+	static final int CHILD = 8;
+
+	private final Rng rng = new Rng(Worlds.SEED);
+	private final Brain parentBrain = new Brain(rng, null, null, null);
+	private final Genome parent = GenomeCodec.quantize(PARENT, parentBrain, null);
+
+	@Test
+	public void keyframeRoundTrips() {
+		assertEquals(0, parent.depth);
+		ByteBuffer written = write(parent, null);
+		assertEquals(GenomeCodec.KEYFRAME, written.get(0));
+		assertEquals(-1, GenomeCodec.referenceOf(written));
+		assertSameGenome(parent, GenomeCodec.read(PARENT, written, null));
+		for (int axon = 0; axon < parentBrain.weights.length; axon++) {
+			assertEquals(parentBrain.weights[axon], parent.getWeight(axon), parent.scales[axon / parent.axonsPerLayer]);
+		}
+	}
+
+	@Test
+	public void fewChangesAreWrittenSparse() {
+		double[] weights = parentBrain.weights.clone();
+		nudge(weights, 3, 1);
+		nudge(weights, 90, -2);
+		nudge(weights, parent.axonsPerLayer + 5, 4);
+		assertLayerModes(weights, GenomeCodec.SPARSE, GenomeCodec.SPARSE);
+	}
+
+	@Test
+	public void manyChangesAreWrittenMasked() {
+		double[] weights = parentBrain.weights.clone();
+		for (int axon = 0; axon < parent.axonsPerLayer; axon += 2) {
+			nudge(weights, axon, axon % 4 == 0 ? 1 : -1);
+		}
+		assertLayerModes(weights, GenomeCodec.MASKED, GenomeCodec.SPARSE);
+	}
+
+	@Test
+	public void outgrownLayerIsWrittenWhole() {
+		double[] weights = parentBrain.weights.clone();
+		int axon = parent.axonsPerLayer + 10;
+		weights[axon] = parent.scales[1] * Byte.MAX_VALUE * 2;
+		assertLayerModes(weights, GenomeCodec.SPARSE, GenomeCodec.WHOLE);
+	}
+
+	@Test
+	public void deltasGiveWayToAKeyframeEveryMaxDepth() {
+		Genome reference = parent;
+		for (int generation = 1; generation <= GenomeCodec.MAX_DEPTH; generation++) {
+			Brain brain = new Brain(rng, parentBrain.weights.clone(), parentBrain.mutabilities.clone(), null);
+			Genome genome = GenomeCodec.quantize(PARENT + generation, brain, reference);
+			assertEquals(generation % GenomeCodec.MAX_DEPTH, genome.depth);
+			assertSameGenome(genome, GenomeCodec.read(genome.id, write(genome, reference), reference));
+			reference = genome;
+		}
+	}
+
+	/**
+	 * Quantizes a child with weights and mutabilities drifted from the
+	 * parent's, and checks each layer is written the expected way and reads
+	 * back as it was.
+	 */
+	private void assertLayerModes(double[] weights, int... modes) {
+		double[] mutabilities = parentBrain.mutabilities.clone();
+		for (int axon = 0; axon < mutabilities.length; axon += 5) {
+			mutabilities[axon] *= axon % 2 == 0 ? 1.6 : 1 / 1.6;
+		}
+		Genome child = GenomeCodec.quantize(CHILD, new Brain(rng, weights, mutabilities, null), parent);
+		assertEquals(1, child.depth);
+		ByteBuffer written = write(child, parent);
+		assertEquals(PARENT, GenomeCodec.referenceOf(written));
+		assertEquals(GenomeCodec.DELTA, written.get());
+		written.get(); // The parent's id, which fits in a byte
+		for (int layer = 0; layer < modes.length; layer++) {
+			int mode = written.get();
+			assertEquals("mode of layer " + layer, modes[layer], mode);
+			skipLayer(written, mode);
+		}
+		written.rewind();
+		Genome read = GenomeCodec.read(CHILD, written, parent);
+		assertSameGenome(child, read);
+		assertEquals(0, written.remaining());
+		for (int axon = 0; axon < weights.length; axon++) {
+			assertEquals(weights[axon], read.getWeight(axon), read.scales[axon / read.axonsPerLayer]);
+			assertEquals(1, read.getMutability(axon) / mutabilities[axon], 0.03);
+		}
+	}
+
+	private void skipLayer(ByteBuffer in, int mode) {
+		if (mode == GenomeCodec.WHOLE) {
+			in.position(in.position() + 4 + parent.axonsPerLayer);
+		} else if (mode == GenomeCodec.SPARSE) {
+			int changed = in.get();
+			for (int i = 0; i < changed * 2; i++) {
+				skipVarInt(in);
+			}
+		} else {
+			int changed = 0;
+			for (int i = 0; i < (parent.axonsPerLayer + Byte.SIZE - 1) / Byte.SIZE; i++) {
+				changed += Integer.bitCount(in.get() & 0xFF);
+			}
+			for (int i = 0; i < changed; i++) {
+				skipVarInt(in);
+			}
+		}
+	}
+
+	private static void skipVarInt(ByteBuffer in) {
+		while (in.get() < 0) {
+		}
+	}
+
+	/**
+	 * Moves a weight by steps of its layer's scale on the parent.
+	 */
+	private void nudge(double[] weights, int axon, int steps) {
+		weights[axon] = (parent.weights[axon] + steps) * parent.scales[axon / parent.axonsPerLayer];
+	}
+
+	private static ByteBuffer write(Genome genome, Genome reference) {
+		ByteBuffer out = ByteBuffer.allocate(1 << 12);
+		GenomeCodec.write(genome, reference, out);
+		out.flip();
+		return out;
+	}
+
+	private static void assertSameGenome(Genome expected, Genome actual) {
+		assertEquals(expected.layers, actual.layers);
+		assertEquals(expected.axonsPerLayer, actual.axonsPerLayer);
+		assertArrayEquals(expected.scales, actual.scales, 0);
+		assertArrayEquals(expected.weights, actual.weights);
+		assertArrayEquals(expected.mutabilities, actual.mutabilities);
+		assertEquals(expected.depth, actual.depth);
+	}
+}
@@ -0,0 +1,171 @@
+package evolv.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LineageLogTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void resumingAfterAPartialTickLogsWhatAStraightRunWould() throws IOException {
+		Path straight = folder.getRoot().toPath().resolve("straight.log");
+		Simulation reference = Worlds.start(Worlds.SEED, 0);
+		reference.openLineageLog(straight);
+		Worlds.step(reference, 600);
+		reference.board.lineageLog.close();
+
+		Path resumed = folder.getRoot().toPath().resolve("resumed.log");
+		Simulation crashed = Worlds.start(Worlds.SEED, 0);
+		crashed.openLineageLog(resumed);
+		Worlds.step(crashed, 300);
+		Checkpoint checkpoint = Checkpoint.capture(crashed.board);
+		Worlds.step(crashed, 150);
+		// Half a tick's events, and then the run dies without closing the log.
+		Creature child = crashed.board.creatures.get(0);
+		crashed.board.lineageLog.birth(child, new Creature[] { crashed.board.creatures.get(1) });
+		crashed.board.lineageLog.death(child, 0);
+
+		Simulation restored = new Simulation(checkpoint.restore());
+		restored.board.userControl = false;
+		restored.openLineageLog(resumed);
+		Worlds.step(restored, 300);
+		restored.board.lineageLog.close();
+
+		List<String> events = events(resumed);
+		assertEquals(events(straight), events);
+		Set<String> born = new HashSet<String>();
+		for (String event : events) {
+			if (event.startsWith("birth") && !born.add(event.substring(0, event.indexOf(' ')))) {
+				fail("Logged twice: " + event);
+			}
+		}
+	}
+
+	@Test
+	public void resumingKeepsWhyACreatureDied() throws IOException {
+		// Find a tick that ends with a creature hurt by a fight or a birth,
+		// which then dies of it on the next tick.
+		Simulation scout = Worlds.start(Worlds.SEED, 0);
+		List<Creature> hurt = new ArrayList<Creature>();
+		int ticks = 0;
+		while (true) {
+			Worlds.step(scout, 1);
+			ticks++;
+			hurt.removeAll(scout.board.creatures);
+			if (!hurt.isEmpty()) {
+				break;
+			}
+			assertTrue("Nobody died of a fight or a birth", ticks < 20000);
+			for (Creature creature : scout.board.creatures) {
+				if (creature.deathCause != LineageLog.STARVED) {
+					hurt.add(creature);
+				}
+			}
+		}
+		int checkpointTick = ticks - 1;
+
+		Path straight = folder.getRoot().toPath().resolve("straight.log");
+		Simulation reference = Worlds.start(Worlds.SEED, 0);
+		reference.openLineageLog(straight);
+		Worlds.step(reference, ticks + 100);
+		reference.board.lineageLog.close();
+
+		Path resumed = folder.getRoot().toPath().resolve("resumed.log");
+		Simulation original = Worlds.start(Worlds.SEED, 0);
+		original.openLineageLog(resumed);
+		Worlds.step(original, checkpointTick);
+		Path saved = folder.getRoot().toPath().resolve("saved" + Checkpoint.FILE_ENDING);
+		Checkpoint.capture(original.board).save(saved);
+		original.board.lineageLog.close();
+
+		Simulation restored = new Simulation(Checkpoint.load(saved).restore());
+		restored.openLineageLog(resumed);
+		Worlds.step(restored, ticks + 100 - checkpointTick);
+		restored.board.lineageLog.close();
+
+		List<String> events = events(resumed);
+		assertEquals(events(straight), events);
+		boolean hurtDeath = false;
+		for (String event : events) {
+			hurtDeath |= event.startsWith("death") && !event.endsWith("of " + LineageLog.STARVED);
+		}
+		assertTrue(hurtDeath);
+	}
+
+	@Test
+	public void newRunStartsTheLogOver() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("lineage.log");
+		Simulation first = Worlds.start(Worlds.SEED, 0);
+		first.openLineageLog(path);
+		Worlds.step(first, 300);
+		first.board.lineageLog.close();
+
+		Simulation second = Worlds.start(Worlds.SEED + 1, 0);
+		second.openLineageLog(path);
+		second.board.lineageLog.close();
+		List<String> events = events(path);
+		assertEquals(second.board.creatures.size(), events.size());
+		for (int i = 0; i < events.size(); i++) {
+			assertEquals("birth" + second.board.creatures.get(i).id + " []", events.get(i).split(" @")[0]);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void refusesALogFromAnotherSeed() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("lineage.log");
+		Simulation first = Worlds.start(Worlds.SEED, 0);
+		first.openLineageLog(path);
+		Worlds.step(first, 300);
+		first.board.lineageLog.close();
+
+		Simulation other = Worlds.start(Worlds.SEED + 1, 0);
+		Worlds.step(other, 100);
+		new Simulation(Checkpoint.capture(other.board).restore()).openLineageLog(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void refusesALogThatStopsBeforeTheCheckpoint() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("lineage.log");
+		Simulation first = Worlds.start(Worlds.SEED, 0);
+		first.openLineageLog(path);
+		Worlds.step(first, 100);
+		first.board.lineageLog.close();
+
+		Simulation further = Worlds.start(Worlds.SEED, 0);
+		Worlds.step(further, 300);
+		new Simulation(Checkpoint.capture(further.board).restore()).openLineageLog(path);
+	}
+
+	private static List<String> events(Path path) throws IOException {
+		List<String> events = new ArrayList<String>();
+		LineageLog.read(path, new LineageLog.Reader() {
+			@Override
+			public void birth(int id, int[] parentIds, int gen, double year, double x, double y,
+					ByteBuffer genome) {
+				events.add("birth" + id + " " + Arrays.toString(parentIds) + " @" + year + " gen " + gen + " at " + x
+						+ "," + y + " genome " + genome.remaining());
+			}
+
+			@Override
+			public void death(int id, double year, int cause) {
+				events.add("death" + id + " @" + year + " of " + cause);
+			}
+		});
+		return events;
+	}
+}
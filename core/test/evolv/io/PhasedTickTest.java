@@ -0,0 +1,31 @@
+package evolv.io;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PhasedTickTest {
+	static final int TICKS = 1500;
+
+	@Test
+	public void serialTickRepeatsItself() {
+		assertEquals(play(0), play(0));
+	}
+
+	@Test
+	public void phasedTickIsTheSameOnAnyNumberOfThreads() {
+		long oneThread = play(1);
+		assertEquals(oneThread, play(2));
+		assertEquals(oneThread, play(4));
+	}
+
+	private static long play(int threads) {
+		Simulation simulation = Worlds.start(Worlds.SEED, threads);
+		try {
+			Worlds.step(simulation, TICKS);
+			return Worlds.hash(simulation.board);
+		} finally {
+			simulation.setTickThreads(0);
+		}
+	}
+}
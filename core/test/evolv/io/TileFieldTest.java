@@ -0,0 +1,47 @@
+package evolv.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TileFieldTest {
+	static final int BIG_BOARD = 1024;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void bigBoardOnlyMakesTheChunksCreaturesReach() {
+		Simulation simulation = Worlds.start(Worlds.SEED, 0, BIG_BOARD);
+		Worlds.step(simulation, 300);
+		TileField tiles = simulation.board.tiles;
+		assertTrue(tiles.getChunksMade() + " of " + tiles.getChunkCount() + " chunks made",
+				tiles.getChunksMade() < tiles.getChunkCount() / 2);
+	}
+
+	@Test
+	public void chunksMadeAfterAKeyframeComeBackThroughTheDelta() throws IOException {
+		Path chainFolder = folder.newFolder("chain").toPath();
+		Simulation original = Worlds.start(Worlds.SEED, 0, BIG_BOARD);
+		CheckpointChain chain = new CheckpointChain();
+		Worlds.step(original, 100);
+		chain.save(Checkpoint.capture(original.board), chainFolder.resolve("0" + Checkpoint.FILE_ENDING));
+		int chunksMade = original.board.tiles.getChunksMade();
+		Worlds.step(original, 400);
+		assertTrue(original.board.tiles.getChunksMade() > chunksMade);
+		Path delta = chainFolder.resolve("1" + Checkpoint.FILE_ENDING);
+		chain.save(Checkpoint.capture(original.board), delta);
+
+		Simulation resumed = new Simulation(CheckpointChain.load(delta).restore());
+		assertEquals(original.board.tiles.getChunksMade(), resumed.board.tiles.getChunksMade());
+		Worlds.step(original, 300);
+		Worlds.step(resumed, 300);
+		assertEquals(Worlds.hash(original.board), Worlds.hash(resumed.board));
+	}
+}
@@ -0,0 +1,68 @@
+package evolv.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TimeSeriesTest {
+	static final int[] TICKS_PER_BUCKET = { 1, 3 };
+	static final int[] CAPACITIES = { 5, 4 };
+
+	@Test
+	public void maxFallsBackWhenTheLargestBucketIsOverwritten() {
+		TimeSeries series = new TimeSeries(TICKS_PER_BUCKET, CAPACITIES);
+		// Falling values keep every bucket a candidate, so each push evicts
+		// the oldest from the front of the queue.
+		for (int tick = 0; tick < 20; tick++) {
+			series.record(tick, values(100 - tick));
+			assertMaxIsOverKeptBuckets(series);
+		}
+		assertEquals(100 - 15, series.getTier(0).getMax(TimeSeries.POPULATION), 0);
+	}
+
+	@Test
+	public void maxMatchesAScanOverKeptBuckets() {
+		TimeSeries series = new TimeSeries(TICKS_PER_BUCKET, CAPACITIES);
+		Random random = new Random(Worlds.SEED);
+		for (int tick = 0; tick < 500; tick++) {
+			double[] values = new double[TimeSeries.METRIC_COUNT];
+			for (int metric = 0; metric < values.length; metric++) {
+				values[metric] = random.nextInt(10);
+			}
+			series.record(tick, values);
+			assertMaxIsOverKeptBuckets(series);
+		}
+	}
+
+	@Test
+	public void emptyTierHasNoMax() {
+		TimeSeries series = new TimeSeries(TICKS_PER_BUCKET, CAPACITIES);
+		series.record(0, values(7));
+		assertEquals(7, series.getTier(0).getMax(TimeSeries.POPULATION), 0);
+		// The coarser tier's first bucket is still open.
+		assertEquals(0, series.getTier(1).getMax(TimeSeries.POPULATION), 0);
+	}
+
+	private static double[] values(double value) {
+		double[] values = new double[TimeSeries.METRIC_COUNT];
+		for (int metric = 0; metric < values.length; metric++) {
+			values[metric] = value + metric;
+		}
+		return values;
+	}
+
+	private static void assertMaxIsOverKeptBuckets(TimeSeries series) {
+		for (int t = 0; t < series.getTierCount(); t++) {
+			TimeSeries.Tier tier = series.getTier(t);
+			for (int metric = 0; metric < TimeSeries.METRIC_COUNT; metric++) {
+				double max = 0;
+				for (int age = 0; age < tier.size(); age++) {
+					max = age == 0 ? tier.getMax(metric, age) : Math.max(max, tier.getMax(metric, age));
+				}
+				assertEquals("tier " + t + " metric " + metric, max, tier.getMax(metric), 0);
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package evolv.io;
+
+/**
+ * Boards for the tests to play out, and a way to tell whether two came out
+ * the same.
+ */
+class Worlds {
+	static final int SEED = 1234;
+
+	static Simulation start(int seed, int threads) {
+		return start(new Simulation(seed), threads);
+	}
+
+	static Simulation start(int seed, int threads, int boardSize) {
+		return start(new Simulation(seed, boardSize, boardSize), threads);
+	}
+
+	private static Simulation start(Simulation simulation, int threads) {
+		// Nobody is at the keyboard, so let the brains drive.
+		simulation.board.userControl = false;
+		simulation.setTickThreads(threads);
+		return simulation;
+	}
+
+	static void step(Simulation simulation, int ticks) {
+		for (int tick = 0; tick < ticks; tick++) {
+			simulation.step();
+		}
+	}
+
+	/**
+	 * Every creature and tile, down to the last bit of every double, so two
+	 * boards hash the same only if they'd go on to play out the same.
+	 */
+	static long hash(Board board) {
+		long hash = Double.doubleToLongBits(board.year);
+		hash = hash * 31 + board.creatureIDUpTo;
+		for (Creature creature : board.creatures) {
+			hash = hash * 31 + creature.id;
+			hash = hash * 31 + Double.doubleToLongBits(creature.getPx());
+			hash = hash * 31 + Double.doubleToLongBits(creature.getPy());
+			hash = hash * 31 + Double.doubleToLongBits(creature.getEnergy());
+			hash = hash * 31 + Double.doubleToLongBits(creature.getRotation());
+			hash = hash * 31 + creature.name.hashCode();
+		}
+		TileField tiles = board.tiles;
+		for (int y = 0; y < tiles.height; y++) {
+			for (int x = 0; x < tiles.width; x++) {
+				hash = hash * 31 + Double.doubleToLongBits(tiles.getFoodLevelAt(tiles.index(x, y), board.year));
+			}
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,418 @@
+package evolv.io;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import processing.core.PFont;
+
+class BoardView {
+	/**
+	 * 
+	 */
+	private final EvolvioColor evolvioColor;
+	private final Board board; // Only read for constants; everything else comes from a snapshot
+	private final TileView tileView;
+	private final TileLayer tileLayer;
+	private final SoftBodyView softBodyView;
+	private final BrainView brainView;
+
+	final static double MAX_DETAILED_ZOOM = 3.5f; // Maximum zoom to draw
+													// details at
+	final double FLASH_SPEED = 80;
+	int buttonColor;
+	private int creatureRankMetric = 0;
+	final int LIST_SLOTS = 6;
+	int[] list = new int[LIST_SLOTS]; // creature indexes into the last drawn snapshot
+	private final Map<Integer, Float> preferredRanks = new HashMap<Integer, Float>();
+	boolean showProfile = true; // Only matters when the profiler is on; P toggles it
+
+	final String[] sorts = { "Biggest", "Smallest", "Youngest", "Oldest", "A to Z", "Z to A", "Highest Gen",
+			"Lowest Gen" };
+
+	public BoardView(EvolvioColor evolvioColor, Board board) {
+		this.evolvioColor = evolvioColor;
+		this.board = board;
+		tileView = new TileView(evolvioColor);
+		tileLayer = new TileLayer(evolvioColor);
+		softBodyView = new SoftBodyView(evolvioColor, board);
+		brainView = new BrainView(evolvioColor);
+		buttonColor = evolvioColor.color(0.82f, 0.8f, 0.7f);
+		for (int i = 0; i < LIST_SLOTS; i++) {
+			list[i] = -1;
+		}
+	}
+
+	/**
+	 * Draws the tiles and bodies the viewport shows. Creatures get their
+	 * extra detail only once they're on screen.
+	 */
+	public void drawBoard(RenderSnapshot snapshot, Viewport viewport, float scaleUp, float camZoom, int mX, int mY) {
+		tileLayer.update(snapshot);
+		tileLayer.draw(viewport, scaleUp);
+		if (mX >= 0 && mX < snapshot.boardWidth && mY >= 0 && mY < snapshot.boardHeight) {
+			tileView.drawTileInfo(snapshot, mX, mY, scaleUp, camZoom);
+		}
+		for (int i = 0; i < snapshot.rockCount; i++) {
+			if (viewport.shows(snapshot.px[i], snapshot.py[i], snapshot.radius[i])) {
+				softBodyView.drawSoftBody(snapshot, i, viewport, scaleUp);
+			}
+		}
+		for (int i = 0; i < snapshot.creatureCount; i++) {
+			int body = snapshot.rockCount + i;
+			if (viewport.shows(snapshot.px[body], snapshot.py[body], SoftBodyView.creatureReach(snapshot, i))) {
+				softBodyView.drawCreature(snapshot, i, viewport, scaleUp, camZoom, true);
+			}
+		}
+	}
+
+	public void drawBlankBoard(RenderSnapshot snapshot, float scaleUp) {
+		this.evolvioColor.fill(board.BACKGROUND_COLOR);
+		this.evolvioColor.rect(0, 0, scaleUp * snapshot.boardWidth, scaleUp * snapshot.boardHeight);
+	}
+
+	public void drawUI(RenderSnapshot snapshot, float scaleUp, float camZoom, int x1, int y1, int x2, int y2,
+			PFont font) {
+		this.evolvioColor.fill(0, 0, 0);
+		this.evolvioColor.noStroke();
+		this.evolvioColor.rect(x1, y1, x2 - x1, y2 - y1);
+
+		this.evolvioColor.pushMatrix();
+		this.evolvioColor.translate(x1, y1);
+
+		this.evolvioColor.fill(0, 0, 1);
+		this.evolvioColor.textAlign(EvolvioColor.RIGHT);
+		this.evolvioColor.text(EvolvioColor.nfs(camZoom * 100, 0, 3) + " %", 0, y2 - y1 - 30);
+		this.evolvioColor.textAlign(EvolvioColor.LEFT);
+		this.evolvioColor.textFont(font, 48);
+		String yearText = "Year " + EvolvioColor.nf((float) snapshot.year, 0, 2);
+		this.evolvioColor.text(yearText, 10, 48);
+		float seasonTextXCoor = this.evolvioColor.textWidth(yearText) + 50;
+		this.evolvioColor.textFont(font, 24);
+		this.evolvioColor.text("Population: " + snapshot.population, 10, 80);
+		String[] seasons = { "Winter", "Spring", "Summer", "Autumn" };
+		this.evolvioColor.text(seasons[(int) (snapshot.season * 4)] + "\nSeed: " + snapshot.seed, seasonTextXCoor,
+				30);
+
+		if (snapshot.selectedIndex < 0) {
+			for (int i = 0; i < LIST_SLOTS; i++) {
+				list[i] = -1;
+			}
+			for (int i = 0; i < snapshot.creatureCount; i++) {
+				int lookingAt = 0;
+				boolean done = false;
+				while (lookingAt < LIST_SLOTS && list[lookingAt] >= 0 & !done) {
+					if (creatureRankMetric == 4 && snapshot.name[list[lookingAt]].compareTo(snapshot.name[i]) < 0) {
+						lookingAt++;
+					} else if (creatureRankMetric == 5
+							&& snapshot.name[list[lookingAt]].compareTo(snapshot.name[i]) >= 0) {
+						lookingAt++;
+					} else if (measure(snapshot, list[lookingAt], creatureRankMetric) > measure(snapshot, i,
+							creatureRankMetric)) {
+						lookingAt++;
+					} else {
+						done = true;
+					}
+				}
+
+				if (lookingAt < LIST_SLOTS) {
+					for (int j = LIST_SLOTS - 1; j >= lookingAt + 1; j--) {
+						list[j] = list[j - 1];
+					}
+					list[lookingAt] = i;
+				}
+			}
+			double maxEnergy = 0;
+			for (int i = 0; i < LIST_SLOTS; i++) {
+				if (list[i] >= 0 && snapshot.energy[list[i]] > maxEnergy) {
+					maxEnergy = snapshot.energy[list[i]];
+				}
+			}
+			Map<Integer, Float> listedRanks = new HashMap<Integer, Float>();
+			for (int i = 0; i < LIST_SLOTS; i++) {
+				if (list[i] >= 0) {
+					int c = list[i];
+					Float previousRank = preferredRanks.get(snapshot.id[c]);
+					float preferredRank = previousRank != null ? previousRank : 8;
+					preferredRank += (i - preferredRank) * 0.4f;
+					listedRanks.put(snapshot.id[c], preferredRank);
+					double energy = snapshot.energy[c];
+					float y = y1 + 175 + 70 * preferredRank;
+					drawCreature(snapshot, c, 45, y + 5, 2.3f, scaleUp);
+					this.evolvioColor.textFont(font, 24);
+					this.evolvioColor.textAlign(EvolvioColor.LEFT);
+					this.evolvioColor.noStroke();
+					this.evolvioColor.fill(0.333f, 1, 0.4f);
+					float multi = (x2 - x1 - 200);
+					if (energy > 0) {
+						this.evolvioColor.rect(85, y + 5, (float) (multi * energy / maxEnergy), 25);
+					}
+					if (energy > 1) {
+						this.evolvioColor.fill(0.333f, 1, 0.8f);
+						this.evolvioColor.rect(85 + (float) (multi / maxEnergy), y + 5,
+								(float) (multi * (energy - 1) / maxEnergy), 25);
+					}
+					this.evolvioColor.fill(0, 0, 1);
+					this.evolvioColor.text(snapshot.name[c] + " [" + snapshot.id[c] + "] ("
+							+ toAge(snapshot, snapshot.birthTime[c]) + ")", 90, y);
+					this.evolvioColor.text("Energy: " + EvolvioColor.nf(100 * (float) (energy), 0, 2), 90, y + 25);
+				}
+			}
+			preferredRanks.clear();
+			preferredRanks.putAll(listedRanks);
+			this.evolvioColor.noStroke();
+			this.evolvioColor.fill(buttonColor);
+			this.evolvioColor.rect(10, 95, 220, 40);
+			this.evolvioColor.rect(240, 95, 220, 40);
+			this.evolvioColor.fill(0, 0, 1);
+			this.evolvioColor.textAlign(EvolvioColor.CENTER);
+			this.evolvioColor.text("Reset zoom", 120, 123);
+			this.evolvioColor.text("Sort by: " + sorts[creatureRankMetric], 350, 123);
+
+			this.evolvioColor.textFont(font, 19);
+			String[] buttonTexts = { "Brain Control", "Maintain pop. at " + snapshot.creatureMinimum, "Screenshot now",
+					"-   Image every " + EvolvioColor.nf((float) snapshot.imageSaveInterval, 0, 2) + " years   +",
+					"Checkpoint now",
+					"-  Checkpoint every " + EvolvioColor.nf((float) snapshot.textSaveInterval, 0, 2) + " years  +",
+					"-    Play Speed (" + snapshot.playSpeed + "x)    +",
+					this.evolvioColor.frameWriter.isArchiving() ? "Images into a zip" : "Images as PNG files" };
+			if (snapshot.userControl) {
+				buttonTexts[0] = "Keyboard Control";
+			}
+			for (int i = 0; i < 8; i++) {
+				float x = (i % 2) * 230 + 10;
+				float y = EvolvioColor.floor(i / 2) * 50 + 570;
+				this.evolvioColor.fill(buttonColor);
+				this.evolvioColor.rect(x, y, 220, 40);
+				if (i >= 2 && i < 6) {
+					double flashAlpha = 1.0f
+							* Math.pow(0.5f, (snapshot.year - snapshot.fileSaveTimes[i - 2]) * FLASH_SPEED);
+					this.evolvioColor.fill(0, 0, 1, (float) flashAlpha);
+					this.evolvioColor.rect(x, y, 220, 40);
+				}
+				this.evolvioColor.fill(0, 0, 1, 1);
+				this.evolvioColor.text(buttonTexts[i], x + 110, y + 17);
+				if (i == 0) {
+				} else if (i == 1) {
+					this.evolvioColor.text(
+							"-" + board.creatureMinimumIncrement + "                    +"
+									+ board.creatureMinimumIncrement,
+							x + 110, y + 37);
+				} else if (i <= 5) {
+					this.evolvioColor.text(snapshot.nextFileNames[i - 2], x + 110, y + 37);
+				}
+			}
+			this.evolvioColor.textAlign(EvolvioColor.LEFT);
+			String checkpointStatus = "Last checkpoint took "
+					+ EvolvioColor.nf((float) snapshot.checkpointLatencyMillis, 0, 1) + " ms, "
+					+ snapshot.checkpointQueueDepth + " waiting";
+			if (snapshot.checkpointsFailed > 0) {
+				checkpointStatus += ", " + snapshot.checkpointsFailed + " failed";
+			}
+			this.evolvioColor.text(checkpointStatus, 10, 790);
+			FrameWriter frameWriter = this.evolvioColor.frameWriter;
+			String frameStatus = "Last image took " + EvolvioColor.nf((float) frameWriter.getLastEncodeMillis(), 0, 1)
+					+ " ms, " + frameWriter.getQueueDepth() + " waiting";
+			if (frameWriter.getFailed() > 0) {
+				frameStatus += ", " + frameWriter.getFailed() + " failed";
+			}
+			this.evolvioColor.text(frameStatus, 10, 815);
+		} else {
+			int selected = snapshot.selectedIndex;
+			int selectedBody = snapshot.rockCount + selected;
+			float energyUsage = (float) snapshot.selectedEnergyUsage;
+			this.evolvioColor.noStroke();
+			if (energyUsage <= 0) {
+				this.evolvioColor.fill(0, 1, 0.5f);
+			} else {
+				this.evolvioColor.fill(0.33f, 1, 0.4f);
+			}
+			float EUbar = 20 * energyUsage;
+			this.evolvioColor.rect(110, 280, EvolvioColor.min(EvolvioColor.max(EUbar, -110), 110), 25);
+			if (EUbar < -110) {
+				this.evolvioColor.rect(0, 280, 25, (-110 - EUbar) * 20 + 25);
+			} else if (EUbar > 110) {
+				float h = (EUbar - 110) * 20 + 25;
+				this.evolvioColor.rect(185, 280 - h, 25, h);
+			}
+			this.evolvioColor.fill(0, 0, 1);
+			this.evolvioColor.text("Name: " + snapshot.name[selected], 10, 225);
+			this.evolvioColor.text(
+					"Energy: " + EvolvioColor.nf(100 * (float) snapshot.energy[selected], 0, 2) + " yums", 10, 250);
+			this.evolvioColor.text("E Change: " + EvolvioColor.nf(100 * energyUsage, 0, 2) + " yums/year", 10, 275);
+
+			this.evolvioColor.text("ID: " + snapshot.id[selected], 10, 325);
+			this.evolvioColor.text("X: " + EvolvioColor.nf((float) snapshot.px[selectedBody], 0, 2), 10, 350);
+			this.evolvioColor.text("Y: " + EvolvioColor.nf((float) snapshot.py[selectedBody], 0, 2), 10, 375);
+			this.evolvioColor.text("Rotation: " + EvolvioColor.nf((float) snapshot.rotation[selected], 0, 2), 10, 400);
+			this.evolvioColor.text("B-day: " + toDate(snapshot.birthTime[selected]), 10, 425);
+			this.evolvioColor.text("(" + toAge(snapshot, snapshot.birthTime[selected]) + ")", 10, 450);
+			this.evolvioColor.text("Generation: " + snapshot.gen[selected], 10, 475);
+			this.evolvioColor.text("Parents: " + snapshot.selectedParents, 10, 500, 210, 255);
+			this.evolvioColor.text("Hue: " + EvolvioColor.nf(snapshot.hue[selectedBody], 0, 2), 10, 550, 210, 255);
+			this.evolvioColor.text("Mouth hue: " + EvolvioColor.nf((float) (snapshot.mouthHue[selected]), 0, 2), 10,
+					575, 210, 255);
+
+			if (snapshot.userControl) {
+				this.evolvioColor.text(
+						"Controls:\nUp/Down: Move\nLeft/Right: Rotate\nSpace: Eat\nF: Fight\nV: Vomit\nU, J: Change color"
+								+ "\nI, K: Change mouth color\nB: Give birth (Not possible if under "
+								+ Math.round((board.MANUAL_BIRTH_SIZE + 1) * 100) + " yums)", 10, 625, 250, 400);
+			}
+			this.evolvioColor.pushMatrix();
+			this.evolvioColor.translate(400, 80);
+			float apX = EvolvioColor.round((this.evolvioColor.mouseX - 400 - x1) / 46.0f);
+			float apY = EvolvioColor.round((this.evolvioColor.mouseY - 80 - y1) / 46.0f);
+			brainView.draw(snapshot.selectedBrain, snapshot.selectedNeurons, font, 46, (int) apX, (int) apY);
+			this.evolvioColor.popMatrix();
+		}
+		if (TickProfiler.ENABLED && showProfile) {
+			drawProfile(snapshot, font, 10, 150);
+		}
+		drawPopulationGraph(snapshot, x1, x2, y1, y2);
+		this.evolvioColor.fill(0, 0, 0);
+		this.evolvioColor.textAlign(EvolvioColor.RIGHT);
+		this.evolvioColor.textFont(font, 24);
+		this.evolvioColor.text("Population: " + snapshot.population, x2 - x1 - 10, y2 - y1 - 10);
+		this.evolvioColor.popMatrix();
+
+		this.evolvioColor.pushMatrix();
+		this.evolvioColor.translate(x2, y1);
+		this.evolvioColor.textAlign(EvolvioColor.RIGHT);
+		this.evolvioColor.textFont(font, 24);
+		this.evolvioColor.text("Temperature", -10, 24);
+		drawThermometer(snapshot, -45, 30, 20, 660, snapshot.temperature, board.THERMOMETER_MIN,
+				board.THERMOMETER_MAX, this.evolvioColor.color(0, 1, 1));
+		this.evolvioColor.popMatrix();
+
+		if (snapshot.selectedIndex >= 0) {
+			drawCreature(snapshot, snapshot.selectedIndex, x1 + 65, y1 + 147, 2.3f, scaleUp);
+		}
+	}
+
+	/**
+	 * Draws the tick profile over whatever else is there: each phase's median
+	 * and 99th percentile time, and how much the last tick worked through.
+	 */
+	public void drawProfile(RenderSnapshot snapshot, PFont font, float x, float y) {
+		float rowHeight = 22;
+		int rows = TickProfiler.PHASE_COUNT + 3;
+		this.evolvioColor.noStroke();
+		this.evolvioColor.fill(0, 0, 0, 0.8f);
+		this.evolvioColor.rect(x, y, 450, rows * rowHeight + 10);
+		this.evolvioColor.textFont(font, 19);
+		this.evolvioColor.fill(0, 0, 1);
+		this.evolvioColor.textAlign(EvolvioColor.LEFT);
+		this.evolvioColor.text("Phase", x + 10, y + rowHeight);
+		this.evolvioColor.textAlign(EvolvioColor.RIGHT);
+		this.evolvioColor.text("median ms", x + 300, y + rowHeight);
+		this.evolvioColor.text("99% ms", x + 440, y + rowHeight);
+		for (int phase = 0; phase <= TickProfiler.PHASE_COUNT; phase++) {
+			float rowY = y + (phase + 2) * rowHeight;
+			this.evolvioColor.textAlign(EvolvioColor.LEFT);
+			this.evolvioColor.text(TickProfiler.PHASE_NAMES[phase], x + 10, rowY);
+			this.evolvioColor.textAlign(EvolvioColor.RIGHT);
+			this.evolvioColor.text(EvolvioColor.nf((float) snapshot.phaseMedianMillis[phase], 0, 3), x + 300, rowY);
+			this.evolvioColor.text(EvolvioColor.nf((float) snapshot.phaseP99Millis[phase], 0, 3), x + 440, rowY);
+		}
+		String counts = "";
+		for (int counter = 0; counter < TickProfiler.COUNTER_COUNT; counter++) {
+			counts += (counter > 0 ? ", " : "") + snapshot.tickCounts[counter] + " "
+					+ TickProfiler.COUNTER_NAMES[counter];
+		}
+		this.evolvioColor.textAlign(EvolvioColor.LEFT);
+		this.evolvioColor.text(counts, x + 10, y + rows * rowHeight);
+	}
+
+	public void drawPopulationGraph(RenderSnapshot snapshot, float x1, float x2, float y1, float y2) {
+		double[] populationHistory = snapshot.populationHistory;
+		int bars = TimeSeries.CAPACITIES[RenderSnapshot.POPULATION_TIER];
+		float barWidth = (x2 - x1) / bars;
+		this.evolvioColor.noStroke();
+		this.evolvioColor.fill(0.33333f, 1, 0.6f);
+		// Newest on the right, so the graph fills in from there at the start
+		float left = (bars - populationHistory.length) * barWidth;
+		for (int i = 0; i < populationHistory.length; i++) {
+			float h = (float) (populationHistory[i] / snapshot.maxPopulation) * (y2 - 770);
+			this.evolvioColor.rect(left + i * barWidth, y2 - h, barWidth, h);
+		}
+	}
+
+	private void drawThermometer(RenderSnapshot snapshot, float x1, float y1, float w, float h, double prog,
+			double min, double max, int fillColor) {
+		this.evolvioColor.noStroke();
+		this.evolvioColor.fill(0, 0, 0.2f);
+		this.evolvioColor.rect(x1, y1, w, h);
+		this.evolvioColor.fill(fillColor);
+		double proportionFilled = (prog - min) / (max - min);
+		this.evolvioColor.rect(x1, (float) (y1 + h * (1 - proportionFilled)), w, (float) (proportionFilled * h));
+
+		double zeroHeight = (0 - min) / (max - min);
+		double zeroLineY = y1 + h * (1 - zeroHeight);
+		this.evolvioColor.textAlign(EvolvioColor.RIGHT);
+		this.evolvioColor.stroke(0, 0, 1);
+		this.evolvioColor.strokeWeight(3);
+		this.evolvioColor.line(x1, (float) (zeroLineY), x1 + w, (float) (zeroLineY));
+		double minY = y1 + h * (1 - (snapshot.minTemperature - min) / (max - min));
+		double maxY = y1 + h * (1 - (snapshot.maxTemperature - min) / (max - min));
+		this.evolvioColor.fill(0, 0, 0.8f);
+		this.evolvioColor.line(x1, (float) (minY), x1 + w * 1.8f, (float) (minY));
+		this.evolvioColor.line(x1, (float) (maxY), x1 + w * 1.8f, (float) (maxY));
+		this.evolvioColor.line(x1 + w * 1.8f, (float) (minY), x1 + w * 1.8f, (float) (maxY));
+
+		this.evolvioColor.fill(0, 0, 1);
+		this.evolvioColor.text("Zero", x1 - 5, (float) (zeroLineY + 8));
+		this.evolvioColor.text(EvolvioColor.nf(snapshot.minTemperature, 0, 2), x1 - 5, (float) (minY + 8));
+		this.evolvioColor.text(EvolvioColor.nf(snapshot.maxTemperature, 0, 2), x1 - 5, (float) (maxY + 8));
+	}
+
+	private void drawVerticalSlider(float x1, float y1, float w, float h, double prog, int fillColor, int antiColor) {
+		this.evolvioColor.noStroke();
+		this.evolvioColor.fill(0, 0, 0.2f);
+		this.evolvioColor.rect(x1, y1, w, h);
+		if (prog >= 0) {
+			this.evolvioColor.fill(fillColor);
+		} else {
+			this.evolvioColor.fill(antiColor);
+		}
+		this.evolvioColor.rect(x1, (float) (y1 + h * (1 - prog)), w, (float) (prog * h));
+	}
+
+	private String toDate(double d) {
+		return "Year " + EvolvioColor.nf((float) (d), 0, 2);
+	}
+
+	private String toAge(RenderSnapshot snapshot, double d) {
+		return EvolvioColor.nf((float) (snapshot.year - d), 0, 2) + " yrs old";
+	}
+
+	private void drawCreature(RenderSnapshot snapshot, int c, float x, float y, float scale, float scaleUp) {
+		this.evolvioColor.pushMatrix();
+		float scaleIconUp = scaleUp * scale;
+		int body = snapshot.rockCount + c;
+		this.evolvioColor.translate((float) (-snapshot.px[body] * scaleIconUp),
+				(float) (-snapshot.py[body] * scaleIconUp));
+		this.evolvioColor.translate(x, y);
+		softBodyView.drawCreature(snapshot, c, null, scaleIconUp, 40.0f / scale, false);
+		this.evolvioColor.popMatrix();
+	}
+
+	private double measure(RenderSnapshot snapshot, int c, int choice) {
+		int sign = 1 - 2 * (choice % 2);
+		if (choice < 2) {
+			return sign * snapshot.energy[c];
+		} else if (choice < 4) {
+			return sign * snapshot.birthTime[c];
+		} else if (choice == 6 || choice == 7) {
+			return sign * snapshot.gen[c];
+		}
+		return 0;
+	}
+
+	public void incrementSort() {
+		creatureRankMetric = (creatureRankMetric + 1) % sorts.length;
+	}
+
+	public void decrementSort() {
+		creatureRankMetric = (creatureRankMetric + sorts.length - 1) % sorts.length;
+	}
+}
@@ -0,0 +1,81 @@
+package evolv.io;
+
+import processing.core.PFont;
+
+class BrainView {
+	/**
+	 * 
+	 */
+	private final EvolvioColor evolvioColor;
+
+	public BrainView(EvolvioColor evolvioColor) {
+		this.evolvioColor = evolvioColor;
+	}
+
+	public void draw(Brain brain, double[][] neurons, PFont font, float scaleUp, int mX, int mY) {
+		final float neuronSize = 0.4f;
+		final int brainWidth = brain.BRAIN_WIDTH;
+		final int brainHeight = brain.BRAIN_HEIGHT;
+		this.evolvioColor.noStroke();
+		this.evolvioColor.fill(0, 0, 0.4f);
+		this.evolvioColor.rect((-1.7f - neuronSize) * scaleUp, -neuronSize * scaleUp,
+				(2.4f + brainWidth + neuronSize * 2) * scaleUp, (brainHeight + neuronSize * 2) * scaleUp);
+
+		this.evolvioColor.ellipseMode(EvolvioColor.RADIUS);
+		this.evolvioColor.strokeWeight(2);
+		this.evolvioColor.textFont(font, 0.58f * scaleUp);
+		this.evolvioColor.fill(0, 0, 1);
+		for (int y = 0; y < brainHeight; y++) {
+			this.evolvioColor.textAlign(EvolvioColor.RIGHT);
+			this.evolvioColor.text(brain.inputLabels[y], (-neuronSize - 0.1f) * scaleUp,
+					(y + (neuronSize * 0.6f)) * scaleUp);
+			this.evolvioColor.textAlign(EvolvioColor.LEFT);
+			this.evolvioColor.text(brain.outputLabels[y], (brainWidth - 1 + neuronSize + 0.1f) * scaleUp,
+					(y + (neuronSize * 0.6f)) * scaleUp);
+		}
+		this.evolvioColor.textAlign(EvolvioColor.CENTER);
+		for (int x = 0; x < brainWidth; x++) {
+			for (int y = 0; y < brainHeight; y++) {
+				this.evolvioColor.noStroke();
+				double val = neurons[x][y];
+				this.evolvioColor.fill(neuronFillColor(val));
+				this.evolvioColor.ellipse(x * scaleUp, y * scaleUp, neuronSize * scaleUp, neuronSize * scaleUp);
+				this.evolvioColor.fill(neuronTextColor(val));
+				this.evolvioColor.text(EvolvioColor.nf((float) val, 0, 1), x * scaleUp,
+						(y + (neuronSize * 0.6f)) * scaleUp);
+			}
+		}
+		if (mX >= 0 && mX < brainWidth && mY >= 0 && mY < brainHeight) {
+			for (int y = 0; y < brainHeight; y++) {
+				if (mX >= 1 && mY < brainHeight - 1) {
+					drawAxon(brain, neurons, mX - 1, y, mX, mY, scaleUp);
+				}
+				if (mX < brainWidth - 1 && y < brainHeight - 1) {
+					drawAxon(brain, neurons, mX, mY, mX + 1, y, scaleUp);
+				}
+			}
+		}
+	}
+
+	private void drawAxon(Brain brain, double[][] neurons, int x1, int y1, int x2, int y2, float scaleUp) {
+		this.evolvioColor.stroke(neuronFillColor(brain.getWeight(x1, y1, y2) * neurons[x1][y1]));
+
+		this.evolvioColor.line(x1 * scaleUp, y1 * scaleUp, x2 * scaleUp, y2 * scaleUp);
+	}
+
+	private int neuronFillColor(double d) {
+		if (d >= 0) {
+			return this.evolvioColor.color(0, 0, 1, (float) (d));
+		} else {
+			return this.evolvioColor.color(0, 0, 0, (float) (-d));
+		}
+	}
+
+	private int neuronTextColor(double d) {
+		if (d >= 0) {
+			return this.evolvioColor.color(0, 0, 0);
+		} else {
+			return this.evolvioColor.color(0, 0, 1);
+		}
+	}
+}
@@ -0,0 +1,403 @@
+package evolv.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+
+import processing.core.*;
+import processing.event.*;
+
+public class EvolvioColor extends PApplet {
+
+	Simulation simulation;
+	SimulationThread simulationThread;
+	Board evoBoard; // Owned by the simulation thread; go through submit()
+	BoardView boardView;
+	KeyboardController keyboardController;
+	RenderSnapshot snapshot;
+	final Viewport viewport = new Viewport();
+	final Queue<String> pendingFrameSaves = new ConcurrentLinkedQueue<String>();
+	final FrameWriter frameWriter = new FrameWriter();
+	final int SEED = parseInt(random(1000000));
+	final int BOARD_WIDTH = Simulation.BOARD_WIDTH;
+	final int BOARD_HEIGHT = Simulation.BOARD_HEIGHT;
+
+	final float SCALE_TO_FIX_BUG = 100;
+
+	float scaleFactor;
+	int windowWidth;
+	int windowHeight;
+	float cameraX = BOARD_WIDTH * 0.5f;
+	float cameraY = BOARD_HEIGHT * 0.5f;
+	float cameraR = 0;
+	float zoom = 1;
+	PFont font;
+	// 0 = no drag, 1 = drag screen, 2 and 3 are dragging temp extremes. The
+	// simulation thread swaps 2 and 3 when the extremes cross, but only if
+	// the drag it was handed is still going.
+	final AtomicInteger dragging = new AtomicInteger(0);
+	volatile boolean zoomToSelection = false;
+	float prevMouseX;
+	float prevMouseY;
+	boolean draggedFar = false;
+
+	public static void main(String[] passedArgs) {
+		String[] appletArgs = new String[] { "evolv.io.EvolvioColor" };
+		if (passedArgs != null) {
+			PApplet.main(concat(appletArgs, passedArgs));
+		} else {
+			PApplet.main(appletArgs);
+		}
+	}
+
+	@Override
+	public void settings() {
+		// Get users window size
+		windowWidth = displayWidth;
+		windowHeight = displayHeight;
+
+		// Set scaling to be custom to current users screen size
+		scaleFactor = ((float) windowHeight) / BOARD_HEIGHT / SCALE_TO_FIX_BUG;
+
+		// Allow window to be docked and resized the UI still needs to be
+		// changed to make UI look good after resize
+		size(windowWidth, windowHeight);
+	}
+
+	@Override
+	public void setup() {
+		surface.setResizable(true);
+		colorMode(HSB, 1.0f);
+		font = loadFont("Jygquip1-48.vlw");
+		simulation = new Simulation(SEED);
+		evoBoard = simulation.board;
+		keyboardController = new KeyboardController(evoBoard);
+		evoBoard.creatureController = keyboardController;
+		// Frames can only be grabbed here, after draw(), so the simulation
+		// thread just queues up the file names.
+		evoBoard.imageSaver = pendingFrameSaves::add;
+		try {
+			simulation.openLineageLog(Paths.get(evoBoard.folder, "lineage.log"));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		try {
+			evoBoard.registerMetrics();
+		} catch (JMException e) {
+			// The viewer runs fine without them
+			System.err.println("Couldn't register simulation metrics: " + e);
+		}
+		boardView = new BoardView(this, evoBoard);
+		simulationThread = new SimulationThread(simulation);
+		simulationThread.start();
+		resetZoom();
+	}
+
+	@Override
+	public void draw() {
+		snapshot = simulationThread.acquireSnapshot();
+		if (zoomToSelection) {
+			zoomToSelection = false;
+			zoom = 16;
+		}
+		if (dist(prevMouseX, prevMouseY, mouseX, mouseY) > 5) {
+			draggedFar = true;
+		}
+		int drag = dragging.get();
+		if (drag == 1) {
+			cameraX -= toWorldXCoordinate(mouseX, mouseY) - toWorldXCoordinate(prevMouseX, prevMouseY);
+			cameraY -= toWorldYCoordinate(mouseX, mouseY) - toWorldYCoordinate(prevMouseX, prevMouseY);
+		} else if (drag == 2) { // UGLY UGLY CODE. Do not look at this
+			final float temp = 1.0f - (mouseY - 30) / 660.0f;
+			simulationThread.submit(() -> {
+				if (evoBoard.setMinTemperature(temp)) {
+					dragging.compareAndSet(2, 3);
+				}
+			});
+		} else if (drag == 3) {
+			final float temp = 1.0f - (mouseY - 30) / 660.0f;
+			simulationThread.submit(() -> {
+				if (evoBoard.setMaxTemperature(temp)) {
+					dragging.compareAndSet(3, 2);
+				}
+			});
+		}
+		int selected = snapshot.selectedIndex;
+		if (snapshot.userControl && selected >= 0) {
+			cameraX = (float) snapshot.px[snapshot.rockCount + selected];
+			cameraY = (float) snapshot.py[snapshot.rockCount + selected];
+			cameraR = -PI / 2.0f - (float) snapshot.rotation[selected];
+		} else {
+			cameraR = 0;
+		}
+		viewport.update(this, windowHeight);
+		simulationThread.showTiles((int) Math.floor(viewport.minX), (int) Math.floor(viewport.minY),
+				(int) Math.ceil(viewport.maxX), (int) Math.ceil(viewport.maxY));
+		pushMatrix();
+		scale(scaleFactor);
+		boardView.drawBlankBoard(snapshot, SCALE_TO_FIX_BUG);
+		translate(BOARD_WIDTH * 0.5f * SCALE_TO_FIX_BUG, BOARD_HEIGHT * 0.5f * SCALE_TO_FIX_BUG);
+		scale(zoom);
+		if (snapshot.userControl && selected >= 0) {
+			rotate(cameraR);
+		}
+		translate(-cameraX * SCALE_TO_FIX_BUG, -cameraY * SCALE_TO_FIX_BUG);
+		boardView.drawBoard(snapshot, viewport, SCALE_TO_FIX_BUG, zoom, (int) toWorldXCoordinate(mouseX, mouseY),
+				(int) toWorldYCoordinate(mouseX, mouseY));
+		popMatrix();
+		boardView.drawUI(snapshot, SCALE_TO_FIX_BUG, zoom, windowHeight, 0, windowWidth, windowHeight, font);
+
+		// Encoding happens on the frame writer's threads. If it's still busy,
+		// the screenshot waits for a later frame instead of holding this one up.
+		if (!pendingFrameSaves.isEmpty()) {
+			loadPixels();
+			String fileName;
+			while ((fileName = pendingFrameSaves.peek()) != null
+					&& frameWriter.offer(pixels, pixelWidth, pixelHeight, Paths.get(savePath(fileName)))) {
+				pendingFrameSaves.poll();
+			}
+		}
+		prevMouseX = mouseX;
+		prevMouseY = mouseY;
+	}
+
+	@Override
+	public void dispose() {
+		try {
+			frameWriter.close();
+			// The simulation thread has to let go of the board before it can
+			// be wound down like Simulation.main does.
+			if (simulationThread != null) {
+				simulationThread.shutdown();
+				simulationThread.join();
+				simulation.close();
+			}
+		} catch (JMException e) {
+			System.err.println("Couldn't unregister simulation metrics: " + e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			super.dispose();
+		}
+	}
+
+	@Override
+	public void mouseWheel(MouseEvent event) {
+		float delta = event.getCount();
+		if (delta >= 0.5f) {
+			setZoom(zoom * 0.90909f, mouseX, mouseY);
+		} else if (delta <= -0.5f) {
+			setZoom(zoom * 1.1f, mouseX, mouseY);
+		}
+	}
+
+	@Override
+	public void mousePressed() {
+		if (mouseX < windowHeight) {
+			dragging.set(1);
+		} else {
+			if (abs(mouseX - (windowHeight + 65)) <= 60 && abs(mouseY - 147) <= 60 && snapshot.selectedIndex >= 0) {
+				cameraX = (float) snapshot.px[snapshot.rockCount + snapshot.selectedIndex];
+				cameraY = (float) snapshot.py[snapshot.rockCount + snapshot.selectedIndex];
+				zoom = 16;
+			} else if (mouseY >= 95 && mouseY < 135 && snapshot.selectedIndex < 0) {
+				if (mouseX >= windowHeight + 10 && mouseX < windowHeight + 230) {
+					resetZoom();
+				} else if (mouseX >= windowHeight + 240 && mouseX < windowHeight + 460) {
+					if (mouseButton == LEFT) {
+						boardView.incrementSort();
+					} else if (mouseButton == RIGHT) {
+						boardView.decrementSort();
+					}
+				}
+			} else if (mouseY >= 570) {
+				float x = (mouseX - (windowHeight + 10));
+				float y = (mouseY - 570);
+				boolean clickedOnLeft = (x % 230 < 110);
+				if (x >= 0 && x < 460 && y >= 0 && y < 200 && x % 230 < 220 && y % 50 < 40) { // 460
+																								// =
+																								// 2
+																								// *
+																								// 230
+																								// and
+																								// 200
+																								// =
+																								// 4
+																								// *
+																								// 50
+					int mX = (int) (x / 230);
+					int mY = (int) (y / 50);
+					int buttonNum = mX + mY * 2;
+
+					switch (buttonNum) {
+
+					case (0):
+						simulationThread.submit(() -> evoBoard.userControl = !evoBoard.userControl);
+						break;
+
+					case (1):
+						simulationThread.submit(() -> {
+							if (clickedOnLeft) {
+								evoBoard.creatureMinimum -= evoBoard.creatureMinimumIncrement;
+							} else {
+								evoBoard.creatureMinimum += evoBoard.creatureMinimumIncrement;
+							}
+						});
+						break;
+
+					case (2):
+						simulationThread.submit(() -> evoBoard.prepareForFileSave(0));
+						break;
+
+					case (3):
+						simulationThread.submit(() -> {
+							if (clickedOnLeft) {
+								evoBoard.imageSaveInterval *= 0.5f;
+							} else {
+								evoBoard.imageSaveInterval *= 2.0f;
+							}
+							if (evoBoard.imageSaveInterval >= 0.7f) {
+								evoBoard.imageSaveInterval = Math.round(evoBoard.imageSaveInterval);
+							}
+						});
+						break;
+
+					case (4):
+						simulationThread.submit(() -> evoBoard.prepareForFileSave(2));
+						break;
+
+					case (5):
+						simulationThread.submit(() -> {
+							if (clickedOnLeft) {
+								evoBoard.textSaveInterval *= 0.5f;
+							} else {
+								evoBoard.textSaveInterval *= 2.0f;
+							}
+							if (evoBoard.textSaveInterval >= 0.7f) {
+								evoBoard.textSaveInterval = Math.round(evoBoard.textSaveInterval);
+							}
+						});
+						break;
+
+					case (6):
+						simulationThread.submit(() -> {
+							if (clickedOnLeft) {
+								if (evoBoard.playSpeed >= 2) {
+									evoBoard.playSpeed /= 2;
+								} else {
+									evoBoard.playSpeed = 0;
+								}
+							} else {
+								if (evoBoard.playSpeed == 0) {
+									evoBoard.playSpeed = 1;
+								} else {
+									evoBoard.playSpeed *= 2;
+								}
+							}
+						});
+						break;
+
+					case (7):
+						frameWriter.setArchiving(!frameWriter.isArchiving());
+						break;
+					}
+				}
+			} else if (mouseX >= height + 10 && mouseX < width - 50 && snapshot.selectedIndex < 0) {
+				int listIndex = (mouseY - 150) / 70;
+				if (listIndex >= 0 && listIndex < boardView.LIST_SLOTS && boardView.list[listIndex] >= 0) {
+					int index = boardView.list[listIndex];
+					int id = snapshot.id[index];
+					simulationThread.submit(() -> evoBoard.selectedCreature = evoBoard.getCreatureById(id));
+					cameraX = (float) snapshot.px[snapshot.rockCount + index];
+					cameraY = (float) snapshot.py[snapshot.rockCount + index];
+					zoom = 16;
+				}
+			}
+			if (mouseX >= width - 50) {
+				float toClickTemp = (mouseY - 30) / 660.0f;
+				float lowTemp = 1.0f - snapshot.lowTempProportion;
+				float highTemp = 1.0f - snapshot.highTempProportion;
+				if (abs(toClickTemp - lowTemp) < abs(toClickTemp - highTemp)) {
+					dragging.set(2);
+				} else {
+					dragging.set(3);
+				}
+			}
+		}
+		draggedFar = false;
+	}
+
+	@Override
+	public void mouseReleased() {
+		if (!draggedFar) {
+			if (mouseX < windowHeight) { // DO NOT LOOK AT THIS CODE EITHER it
+											// is bad
+				dragging.set(1);
+				float mX = toWorldXCoordinate(mouseX, mouseY);
+				float mY = toWorldYCoordinate(mouseX, mouseY);
+				cameraR = 0;
+				simulationThread.submit(() -> {
+					evoBoard.unselect();
+					Creature picked = evoBoard.getCreatureAt(mX, mY);
+					if (picked != null) {
+						evoBoard.selectedCreature = picked;
+						zoomToSelection = true;
+					}
+				});
+			}
+		}
+		dragging.set(0);
+	}
+
+	@Override
+	public void keyPressed() {
+		keyboardController.setKeys(true, key, keyCode);
+		if (key == 'p' || key == 'P') {
+			boardView.showProfile = !boardView.showProfile;
+		}
+	}
+
+	@Override
+	public void keyReleased() {
+		keyboardController.setKeys(false, key, keyCode);
+	}
+
+	public void resetZoom() {
+		cameraX = BOARD_WIDTH * 0.5f;
+		cameraY = BOARD_HEIGHT * 0.5f;
+		zoom = 1;
+	}
+
+	public void setZoom(float target, float x, float y) {
+		float grossX = grossify(x, BOARD_WIDTH);
+		cameraX -= (grossX / target - grossX / zoom);
+		float grossY = grossify(y, BOARD_HEIGHT);
+		cameraY -= (grossY / target - grossY / zoom);
+		zoom = target;
+	}
+
+	public float grossify(float input, float total) { // Very weird function
+		return (input / scaleFactor - total * 0.5f * SCALE_TO_FIX_BUG) / SCALE_TO_FIX_BUG;
+	}
+
+	public float toWorldXCoordinate(float x, float y) {
+		float w = windowHeight / 2;
+		float angle = atan2(y - w, x - w);
+		float dist = dist(w, w, x, y);
+		return cameraX + grossify(cos(angle - cameraR) * dist + w, BOARD_WIDTH) / zoom;
+	}
+
+	public float toWorldYCoordinate(float x, float y) {
+		float w = windowHeight / 2;
+		float angle = atan2(y - w, x - w);
+		float dist = dist(w, w, x, y);
+		return cameraY + grossify(sin(angle - cameraR) * dist + w, BOARD_HEIGHT) / zoom;
+	}
+}
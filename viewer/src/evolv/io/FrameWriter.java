@@ -0,0 +1,319 @@
+package evolv.io;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Encodes screenshots to PNG on background threads, so saving a frame only
+ * costs the frame a copy of its pixels.
+ *
+ * Pixel buffers are pooled and only a few frames can be waiting at once. When
+ * the encoders can't keep up, offer() turns the next frame away, like
+ * CheckpointWriter does with checkpoints, and the caller can try again with a
+ * later frame. As there, only queueDepth keeps the limit, so the executor
+ * never turns away a frame that offer() let through.
+ *
+ * While archiving, frames go into a zip next to where they would have been
+ * written, named after the first frame in it, instead of thousands of
+ * separate files. A zip is only readable once it's finished, by turning
+ * archiving off or closing the writer. Turning archiving off doesn't wait:
+ * the archives are finished on an encoder thread once the last frame
+ * offered for them is in.
+ */
+class FrameWriter {
+	static final int QUEUE_CAPACITY = 4;
+
+	private final ThreadPoolExecutor executor;
+	private final int capacity;
+	private final ArrayDeque<int[]> pool = new ArrayDeque<int[]>(); // Guarded by itself
+	private final Map<Path, Archive> archives = new HashMap<Path, Archive>(); // By folder, guarded by itself
+	private boolean archiving = false;
+	// Offered and not yet written, including the ones being encoded
+	private int queueDepth = 0;
+	private int archiveDepth = 0; // The part of queueDepth headed for archives
+	private long written = 0;
+	private long deferred = 0;
+	private long failed = 0;
+	private double lastEncodeMillis = 0;
+	private IOException lastError;
+
+	public FrameWriter() {
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), QUEUE_CAPACITY);
+	}
+
+	public FrameWriter(int threads, int queueCapacity) {
+		capacity = queueCapacity + threads;
+		executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "Frame writer");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Copies width by height ARGB pixels and queues them to be saved as path.
+	 * Returns false without copying anything if the queue is full.
+	 */
+	public boolean offer(int[] pixels, int width, int height, Path path) {
+		boolean toArchive;
+		synchronized (this) {
+			if (queueDepth >= capacity) {
+				deferred++;
+				return false;
+			}
+			queueDepth++;
+			toArchive = archiving;
+			if (toArchive) {
+				archiveDepth++;
+			}
+		}
+		boolean queued = false;
+		try {
+			int[] copy = borrow(width * height);
+			System.arraycopy(pixels, 0, copy, 0, width * height);
+			executor.execute(() -> write(copy, width, height, path, toArchive));
+			queued = true;
+		} finally {
+			if (!queued) {
+				finished(toArchive);
+			}
+		}
+		return true;
+	}
+
+	private void write(int[] pixels, int width, int height, Path path, boolean toArchive) {
+		long start = System.nanoTime();
+		IOException error = null;
+		boolean saved = false;
+		try {
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			image.getRaster().setDataElements(0, 0, width, height, pixels);
+			giveBack(pixels);
+			if (toArchive) {
+				ByteArrayOutputStream png = new ByteArrayOutputStream(width * height);
+				ImageIO.write(image, "png", png);
+				archive(path, png);
+			} else {
+				if (path.getParent() != null) {
+					Files.createDirectories(path.getParent());
+				}
+				try (OutputStream out = Files.newOutputStream(path)) {
+					ImageIO.write(image, "png", out);
+				}
+			}
+			saved = true;
+		} catch (IOException e) {
+			error = e;
+		} catch (RuntimeException e) {
+			error = new IOException("Couldn't write " + path, e);
+		} finally {
+			double encodeMillis = (System.nanoTime() - start) / 1e6;
+			// Whatever happened, this frame is off the queue, or drain() would
+			// wait on it forever.
+			synchronized (this) {
+				if (saved) {
+					written++;
+					lastEncodeMillis = encodeMillis;
+				} else {
+					failed++;
+					if (error != null) {
+						lastError = error;
+					}
+				}
+			}
+			finished(toArchive);
+		}
+	}
+
+	/**
+	 * Takes a frame off the queue, and finishes the archives if it was the
+	 * last one headed for them after archiving was turned off.
+	 */
+	private void finished(boolean toArchive) {
+		synchronized (this) {
+			queueDepth--;
+			if (toArchive) {
+				archiveDepth--;
+			}
+			notifyAll();
+		}
+		if (toArchive) {
+			finishArchivesIfDone();
+		}
+	}
+
+	private void finishArchivesIfDone() {
+		// Holding archives from the check to the close means no frame can
+		// start on an archive while it's being finished.
+		synchronized (archives) {
+			synchronized (this) {
+				if (archiving || archiveDepth > 0) {
+					return;
+				}
+			}
+			try {
+				closeArchives();
+			} catch (IOException e) {
+				synchronized (this) {
+					failed++;
+					lastError = e;
+				}
+			}
+		}
+	}
+
+	private void archive(Path path, ByteArrayOutputStream png) throws IOException {
+		Path folder = path.toAbsolutePath().getParent();
+		synchronized (archives) {
+			Archive archive = archives.get(folder);
+			if (archive == null) {
+				Files.createDirectories(folder);
+				String name = path.getFileName().toString();
+				int dot = name.lastIndexOf('.');
+				archive = new Archive(folder.resolve((dot >= 0 ? name.substring(0, dot) : name) + ".zip"));
+				archives.put(folder, archive);
+			}
+			archive.add(path.getFileName().toString(), png);
+		}
+	}
+
+	/**
+	 * Whether frames offered from now on go into archives. Turning it off
+	 * finishes the archives once the frames already offered are in them, on
+	 * an encoder thread, so the caller never waits on the encoding.
+	 */
+	public void setArchiving(boolean archiving) {
+		boolean finishNow;
+		synchronized (this) {
+			this.archiving = archiving;
+			finishNow = !archiving && archiveDepth == 0;
+		}
+		if (finishNow) {
+			executor.execute(this::finishArchivesIfDone);
+		}
+	}
+
+	public synchronized boolean isArchiving() {
+		return archiving;
+	}
+
+	/**
+	 * Waits until everything offered so far is written, or has failed.
+	 */
+	public synchronized void drain() throws InterruptedException {
+		while (queueDepth > 0) {
+			wait();
+		}
+	}
+
+	/**
+	 * Writes out what's waiting and finishes any archives.
+	 */
+	public void close() throws IOException, InterruptedException {
+		drain();
+		closeArchives();
+	}
+
+	private void closeArchives() throws IOException {
+		synchronized (archives) {
+			try {
+				for (Archive archive : archives.values()) {
+					archive.out.close();
+				}
+			} finally {
+				archives.clear();
+			}
+		}
+	}
+
+	private int[] borrow(int length) {
+		synchronized (pool) {
+			int[] pixels;
+			while ((pixels = pool.poll()) != null) {
+				if (pixels.length == length) {
+					return pixels;
+				}
+			}
+		}
+		return new int[length];
+	}
+
+	private void giveBack(int[] pixels) {
+		synchronized (pool) {
+			if (pool.size() < capacity) {
+				pool.push(pixels);
+			}
+		}
+	}
+
+	public synchronized int getQueueDepth() {
+		return queueDepth;
+	}
+
+	public synchronized long getWritten() {
+		return written;
+	}
+
+	/**
+	 * How many times offer() turned a frame away because the queue was full.
+	 */
+	public synchronized long getDeferred() {
+		return deferred;
+	}
+
+	public synchronized long getFailed() {
+		return failed;
+	}
+
+	/**
+	 * How long the last frame written took to encode and write.
+	 */
+	public synchronized double getLastEncodeMillis() {
+		return lastEncodeMillis;
+	}
+
+	public synchronized IOException getLastError() {
+		return lastError;
+	}
+
+	/**
+	 * PNGs are already compressed, so they're stored in the zip as they are.
+	 */
+	private static class Archive {
+		final ZipOutputStream out;
+
+		Archive(Path path) throws IOException {
+			out = new ZipOutputStream(Files.newOutputStream(path));
+			out.setMethod(ZipOutputStream.STORED);
+		}
+
+		void add(String name, ByteArrayOutputStream png) throws IOException {
+			byte[] bytes = png.toByteArray();
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			ZipEntry entry = new ZipEntry(name);
+			entry.setSize(bytes.length);
+			entry.setCompressedSize(bytes.length);
+			entry.setCrc(crc.getValue());
+			out.putNextEntry(entry);
+			out.write(bytes);
+			out.closeEntry();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package evolv.io;
+
+/**
+ * Runs on the simulation thread, so it works from its own copy of the key
+ * state rather than reading the sketch's fields directly.
+ */
+class KeyboardController implements CreatureController {
+	private final Board board;
+	boolean wasPressingB = false;
+
+	private char key;
+	private int keyCode;
+	private volatile boolean keyPressed;
+
+	public KeyboardController(Board board) {
+		this.board = board;
+	}
+
+	public void setKeys(boolean keyPressed, char key, int keyCode) {
+		this.key = key;
+		this.keyCode = keyCode;
+		this.keyPressed = keyPressed; // written last to publish the other two
+	}
+
+	@Override
+	public void control(Creature me, double timeStep) {
+		double objectTimeStep = timeStep * board.OBJECT_TIMESTEPS_PER_YEAR;
+		boolean keyPressed = this.keyPressed;
+		char key = this.key;
+		int keyCode = this.keyCode;
+		if (keyPressed) {
+			if (key == EvolvioColor.CODED) {
+				if (keyCode == EvolvioColor.UP)
+					me.accelerate(0.04f, objectTimeStep);
+				if (keyCode == EvolvioColor.DOWN)
+					me.accelerate(-0.04f, objectTimeStep);
+				if (keyCode == EvolvioColor.LEFT)
+					me.rotate(-0.1f, objectTimeStep);
+				if (keyCode == EvolvioColor.RIGHT)
+					me.rotate(0.1f, objectTimeStep);
+			} else {
+				if (key == ' ')
+					me.eat(0.1f, objectTimeStep);
+				if (key == 'v' || key == 'V')
+					me.eat(-0.1f, objectTimeStep);
+				if (key == 'f' || key == 'F')
+					me.fight(0.5f, objectTimeStep);
+				if (key == 'u' || key == 'U')
+					me.setHue(me.hue + 0.02f);
+				if (key == 'j' || key == 'J')
+					me.setHue(me.hue - 0.02f);
+
+				if (key == 'i' || key == 'I')
+					me.setMouthHue(me.mouthHue + 0.02f);
+				if (key == 'k' || key == 'K')
+					me.setMouthHue(me.mouthHue - 0.02f);
+				if (key == 'b' || key == 'B') {
+					if (!wasPressingB) {
+						me.reproduce(board.MANUAL_BIRTH_SIZE, timeStep);
+					}
+					wasPressingB = true;
+				} else {
+					wasPressingB = false;
+				}
+			}
+		}
+	}
+}
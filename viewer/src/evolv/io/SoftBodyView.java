@@ -0,0 +1,144 @@
+package evolv.io;
+
+class SoftBodyView {
+	private static final float CROSS_SIZE = 0.022f;
+	private static final float BRIGHTNESS_THRESHOLD = 0.7f;
+	private static final float FIGHT_RANGE = 2.0f;
+
+	/**
+	 * 
+	 */
+	private final EvolvioColor evolvioColor;
+	private final Board board;
+
+	public SoftBodyView(EvolvioColor evolvioColor, Board board) {
+		this.evolvioColor = evolvioColor;
+		this.board = board;
+	}
+
+	/**
+	 * How far from its centre anything drawn for a creature can reach: its
+	 * fight halo, vision lines and name.
+	 */
+	public static double creatureReach(RenderSnapshot snapshot, int creature) {
+		return FIGHT_RANGE * snapshot.radius[snapshot.rockCount + creature] + 1;
+	}
+
+	/**
+	 * Draws a body, or just a dot if it would be under a pixel across in the
+	 * viewport. With no viewport it's always drawn in full.
+	 */
+	public void drawSoftBody(RenderSnapshot snapshot, int body, Viewport viewport, float scaleUp) {
+		double radius = snapshot.radius[body];
+		if (viewport != null && radius * viewport.pixelsPerTile < 1) {
+			// Smaller than a pixel; a dot will do.
+			this.evolvioColor.stroke(snapshot.hue[body], snapshot.saturation[body], snapshot.brightness[body]);
+			this.evolvioColor.strokeWeight(scaleUp / viewport.pixelsPerTile);
+			this.evolvioColor.point((float) (snapshot.px[body] * scaleUp), (float) (snapshot.py[body] * scaleUp));
+			return;
+		}
+		this.evolvioColor.stroke(0);
+		this.evolvioColor.strokeWeight(board.CREATURE_STROKE_WEIGHT);
+		this.evolvioColor.fill(snapshot.hue[body], snapshot.saturation[body], snapshot.brightness[body]);
+		this.evolvioColor.ellipseMode(EvolvioColor.RADIUS);
+		this.evolvioColor.ellipse((float) (snapshot.px[body] * scaleUp), (float) (snapshot.py[body] * scaleUp),
+				(float) (radius * scaleUp), (float) (radius * scaleUp));
+	}
+
+	public void drawCreature(RenderSnapshot snapshot, int creature, Viewport viewport, float scaleUp, float camZoom,
+			boolean showVision) {
+		int body = snapshot.rockCount + creature;
+		double px = snapshot.px[body];
+		double py = snapshot.py[body];
+		this.evolvioColor.ellipseMode(EvolvioColor.RADIUS);
+		double radius = snapshot.radius[body];
+		if (viewport != null && radius * viewport.pixelsPerTile < 1 && creature != snapshot.selectedIndex) {
+			drawSoftBody(snapshot, body, viewport, scaleUp);
+			return;
+		}
+		if (showVision && camZoom > BoardView.MAX_DETAILED_ZOOM) {
+			drawVisionAngles(snapshot, creature, scaleUp);
+		}
+		this.evolvioColor.noStroke();
+		double fightLevel = snapshot.fightLevel[creature];
+		if (fightLevel > 0) {
+			this.evolvioColor.fill(0, 1, 1, (float) (fightLevel * 0.8f));
+			float fightRadius = (float) (FIGHT_RANGE * radius * scaleUp);
+			this.evolvioColor.ellipse((float) (px * scaleUp), (float) (py * scaleUp), fightRadius, fightRadius);
+		}
+		this.evolvioColor.strokeWeight(board.CREATURE_STROKE_WEIGHT);
+		this.evolvioColor.stroke(0, 0, 1);
+		this.evolvioColor.fill(0, 0, 1);
+		if (creature == snapshot.selectedIndex) {
+			this.evolvioColor.ellipse((float) (px * scaleUp), (float) (py * scaleUp),
+					(float) (radius * scaleUp + 1 + 75.0f / camZoom), (float) (radius * scaleUp + 1 + 75.0f / camZoom));
+		}
+		drawSoftBody(snapshot, body, viewport, scaleUp);
+
+		if (camZoom > BoardView.MAX_DETAILED_ZOOM) {
+			drawMouth(px, py, scaleUp, radius, snapshot.rotation[creature], snapshot.mouthHue[creature]);
+			if (showVision) {
+				this.evolvioColor.fill(0, 0, 1);
+				this.evolvioColor.textFont(this.evolvioColor.font, 0.2f * scaleUp);
+				this.evolvioColor.textAlign(EvolvioColor.CENTER);
+				this.evolvioColor.text(snapshot.name[creature], (float) (px * scaleUp),
+						(float) ((py - radius * 1.4f - 0.07f) * scaleUp));
+			}
+		}
+	}
+
+	public void drawVisionAngles(RenderSnapshot snapshot, int creature, float scaleUp) {
+		int body = snapshot.rockCount + creature;
+		float px = (float) snapshot.px[body];
+		float py = (float) snapshot.py[body];
+		double[] visionResults = snapshot.visionResults;
+		double[] visionOccludedX = snapshot.visionOccludedX;
+		double[] visionOccludedY = snapshot.visionOccludedY;
+		float crossSize = CROSS_SIZE;
+		for (int k = 0; k < snapshot.visionRays; k++) {
+			int i = creature * snapshot.visionRays + k;
+			int visionUIcolor = this.evolvioColor.color(0, 0, 1);
+			if (visionResults[i * 3 + 2] > BRIGHTNESS_THRESHOLD) {
+				visionUIcolor = this.evolvioColor.color(0, 0, 0);
+			}
+			this.evolvioColor.stroke(visionUIcolor);
+			this.evolvioColor.strokeWeight(board.CREATURE_STROKE_WEIGHT);
+			float endX = (float) snapshot.visionEndX[i];
+			float endY = (float) snapshot.visionEndY[i];
+			this.evolvioColor.line(px * scaleUp, py * scaleUp, endX * scaleUp, endY * scaleUp);
+			this.evolvioColor.noStroke();
+			this.evolvioColor.fill(visionUIcolor);
+			this.evolvioColor.ellipse((float) (visionOccludedX[i] * scaleUp), (float) (visionOccludedY[i] * scaleUp),
+					2 * crossSize * scaleUp, 2 * crossSize * scaleUp);
+			this.evolvioColor.stroke((float) (visionResults[i * 3]), (float) (visionResults[i * 3 + 1]),
+					(float) (visionResults[i * 3 + 2]));
+			this.evolvioColor.strokeWeight(board.CREATURE_STROKE_WEIGHT);
+			this.evolvioColor.line((float) ((visionOccludedX[i] - crossSize) * scaleUp),
+					(float) ((visionOccludedY[i] - crossSize) * scaleUp),
+					(float) ((visionOccludedX[i] + crossSize) * scaleUp),
+					(float) ((visionOccludedY[i] + crossSize) * scaleUp));
+			this.evolvioColor.line((float) ((visionOccludedX[i] - crossSize) * scaleUp),
+					(float) ((visionOccludedY[i] + crossSize) * scaleUp),
+					(float) ((visionOccludedX[i] + crossSize) * scaleUp),
+					(float) ((visionOccludedY[i] - crossSize) * scaleUp));
+		}
+	}
+
+	public void drawMouth(double px, double py, float scaleUp, double radius, double rotation, double mouthHue) {
+		this.evolvioColor.noFill();
+		this.evolvioColor.strokeWeight(board.CREATURE_STROKE_WEIGHT);
+		this.evolvioColor.stroke(0, 0, 1);
+		this.evolvioColor.ellipseMode(EvolvioColor.RADIUS);
+		this.evolvioColor.ellipse((float) (px * scaleUp), (float) (py * scaleUp),
+				board.MINIMUM_SURVIVABLE_SIZE * scaleUp, board.MINIMUM_SURVIVABLE_SIZE * scaleUp);
+		this.evolvioColor.pushMatrix();
+		this.evolvioColor.translate((float) (px * scaleUp), (float) (py * scaleUp));
+		this.evolvioColor.scale((float) radius);
+		this.evolvioColor.rotate((float) rotation);
+		this.evolvioColor.strokeWeight((float) (board.CREATURE_STROKE_WEIGHT / radius));
+		this.evolvioColor.stroke(0, 0, 0);
+		this.evolvioColor.fill((float) mouthHue, 1.0f, 1.0f);
+		this.evolvioColor.ellipse(0.6f * scaleUp, 0, 0.37f * scaleUp, 0.37f * scaleUp);
+		this.evolvioColor.popMatrix();
+	}
+}
@@ -0,0 +1,163 @@
+package evolv.io;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+import processing.core.PImage;
+
+/**
+ * The terrain as one image with a pixel per tile, drawn stretched over the
+ * board in a single image() call instead of a rect() per tile. Each frame
+ * only the tiles whose color changed since the last one are written, and
+ * only that part of the image is marked for upload. Snapshots only carry
+ * the tiles on screen, so the rest keep the color they had when last seen.
+ *
+ * Halved copies of the image are kept as well. When a tile is smaller than
+ * a screen pixel, the smallest copy that still has a pixel per screen pixel
+ * is drawn, so a zoomed-out view of a big board doesn't squash millions of
+ * pixels every frame.
+ */
+class TileLayer {
+	// Below this many screen pixels a tile, the outlines would hide the tiles.
+	static final float MIN_OUTLINED_TILE_PIXELS = 4;
+
+	/**
+	 *
+	 */
+	private final EvolvioColor evolvioColor;
+
+	private int boardWidth = -1;
+	private int boardHeight = -1;
+	// levels[0] has a pixel per tile; each one after is half the size.
+	private PImage[] levels = new PImage[0];
+
+	public TileLayer(EvolvioColor evolvioColor) {
+		this.evolvioColor = evolvioColor;
+	}
+
+	public void update(RenderSnapshot snapshot) {
+		int width = snapshot.boardWidth;
+		int height = snapshot.boardHeight;
+		if (width != boardWidth || height != boardHeight) {
+			allocate(width, height);
+		}
+		int[] colors = snapshot.tileColors;
+		int[] pixels = levels[0].pixels;
+		int minX = width;
+		int minY = height;
+		int maxX = -1;
+		int maxY = -1;
+		for (int y = snapshot.tileTop; y < snapshot.tileBottom; y++) {
+			for (int x = snapshot.tileLeft; x < snapshot.tileRight; x++) {
+				int color = colors[snapshot.tileIndex(x, y)];
+				int index = y * width + x;
+				if (color != pixels[index]) {
+					pixels[index] = color;
+					minX = Math.min(minX, x);
+					minY = Math.min(minY, y);
+					maxX = Math.max(maxX, x);
+					maxY = Math.max(maxY, y);
+				}
+			}
+		}
+		if (maxX < 0) {
+			return;
+		}
+		levels[0].updatePixels(minX, minY, maxX - minX + 1, maxY - minY + 1);
+		for (int level = 1; level < levels.length; level++) {
+			minX >>= 1;
+			minY >>= 1;
+			maxX >>= 1;
+			maxY >>= 1;
+			shrink(levels[level - 1], levels[level], minX, minY, maxX, maxY);
+		}
+	}
+
+	/**
+	 * Draws the part of the layer the viewport shows, with the tile outlines
+	 * on top once they'd show.
+	 */
+	public void draw(Viewport viewport, float scaleUp) {
+		float pixelsPerTile = viewport.pixelsPerTile;
+		int level = 0;
+		while (level < levels.length - 1 && pixelsPerTile * (2 << level) <= 1) {
+			level++;
+		}
+		// The visible tiles, rounded out to whole pixels of the chosen level
+		int minX = Math.max((int) Math.floor(viewport.minX) >> level, 0);
+		int minY = Math.max((int) Math.floor(viewport.minY) >> level, 0);
+		int maxX = Math.min(((int) Math.floor(viewport.maxX) >> level) + 1, levels[level].width);
+		int maxY = Math.min(((int) Math.floor(viewport.maxY) >> level) + 1, levels[level].height);
+		if (minX >= maxX || minY >= maxY) {
+			return;
+		}
+		float tilesPerPixel = 1 << level;
+		float left = Math.min(minX * tilesPerPixel, boardWidth) * scaleUp;
+		float top = Math.min(minY * tilesPerPixel, boardHeight) * scaleUp;
+		float right = Math.min(maxX * tilesPerPixel, boardWidth) * scaleUp;
+		float bottom = Math.min(maxY * tilesPerPixel, boardHeight) * scaleUp;
+		// Tiles are squares, not blurs, so scale the image up without
+		// smoothing when the renderer allows it.
+		Graphics2D graphics = null;
+		Object oldInterpolation = null;
+		if (this.evolvioColor.g.getNative() instanceof Graphics2D) {
+			graphics = (Graphics2D) this.evolvioColor.g.getNative();
+			oldInterpolation = graphics.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		}
+		this.evolvioColor.image(levels[level], left, top, right, bottom, minX, minY, maxX, maxY);
+		if (graphics != null && oldInterpolation != null) {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldInterpolation);
+		}
+		if (pixelsPerTile >= MIN_OUTLINED_TILE_PIXELS) {
+			this.evolvioColor.stroke(0, 0, 0, 1);
+			this.evolvioColor.strokeWeight(2);
+			for (int x = minX; x <= maxX; x++) {
+				this.evolvioColor.line(x * scaleUp, top, x * scaleUp, bottom);
+			}
+			for (int y = minY; y <= maxY; y++) {
+				this.evolvioColor.line(left, y * scaleUp, right, y * scaleUp);
+			}
+		}
+	}
+
+	private void allocate(int width, int height) {
+		boardWidth = width;
+		boardHeight = height;
+		int levelCount = 1;
+		for (int w = width, h = height; w > 1 || h > 1; w = (w + 1) / 2, h = (h + 1) / 2) {
+			levelCount++;
+		}
+		levels = new PImage[levelCount];
+		for (int level = 0, w = width, h = height; level < levelCount; level++, w = (w + 1) / 2, h = (h + 1) / 2) {
+			levels[level] = this.evolvioColor.createImage(w, h, EvolvioColor.RGB);
+		}
+	}
+
+	/**
+	 * Averages 2x2 blocks of from into one pixel of to, over the given pixel
+	 * range of to.
+	 */
+	private void shrink(PImage from, PImage to, int minX, int minY, int maxX, int maxY) {
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				int red = 0;
+				int green = 0;
+				int blue = 0;
+				int count = 0;
+				for (int fromY = y * 2; fromY <= Math.min(y * 2 + 1, from.height - 1); fromY++) {
+					for (int fromX = x * 2; fromX <= Math.min(x * 2 + 1, from.width - 1); fromX++) {
+						int color = from.pixels[fromY * from.width + fromX];
+						red += (color >> 16) & 0xff;
+						green += (color >> 8) & 0xff;
+						blue += color & 0xff;
+						count++;
+					}
+				}
+				to.pixels[y * to.width + x] = 0xff000000 | (red / count) << 16 | (green / count) << 8 | blue / count;
+			}
+		}
+		to.updatePixels(minX, minY, maxX - minX + 1, maxY - minY + 1);
+	}
+}
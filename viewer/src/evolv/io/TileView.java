@@ -0,0 +1,39 @@
+package evolv.io;
+
+class TileView {
+	/**
+	 * 
+	 */
+	private final EvolvioColor evolvioColor;
+
+	public TileView(EvolvioColor evolvioColor) {
+		this.evolvioColor = evolvioColor;
+	}
+
+	/**
+	 * Writes out the food and climate of the tile under the mouse. The tile
+	 * itself is drawn by TileLayer.
+	 */
+	public void drawTileInfo(RenderSnapshot snapshot, int posX, int posY, float scaleUp, float camZoom) {
+		int index = snapshot.tileIndex(posX, posY);
+		if (index < 0) {
+			return;
+		}
+		int landColor = snapshot.tileColors[index];
+		if (camZoom > BoardView.MAX_DETAILED_ZOOM) {
+			if (this.evolvioColor.brightness(landColor) >= 0.7f) {
+				this.evolvioColor.fill(0, 0, 0, 1);
+			} else {
+				this.evolvioColor.fill(0, 0, 1, 1);
+			}
+			this.evolvioColor.textAlign(EvolvioColor.CENTER);
+			this.evolvioColor.textFont(this.evolvioColor.font, 21);
+			this.evolvioColor.text(EvolvioColor.nf(100 * snapshot.tileFoodLevels[index], 0, 2) + " yums",
+					(posX + 0.5f) * scaleUp, (posY + 0.3f) * scaleUp);
+			this.evolvioColor.text("Clim: " + EvolvioColor.nf(snapshot.tileClimateTypes[index], 0, 2),
+					(posX + 0.5f) * scaleUp, (posY + 0.6f) * scaleUp);
+			this.evolvioColor.text("Food: " + EvolvioColor.nf(snapshot.tileFoodTypes[index], 0, 2),
+					(posX + 0.5f) * scaleUp, (posY + 0.9f) * scaleUp);
+		}
+	}
+}
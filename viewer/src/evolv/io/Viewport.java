@@ -0,0 +1,42 @@
+package evolv.io;
+
+/**
+ * The part of the board the camera currently shows, in board coordinates,
+ * so drawing can skip whatever is off screen.
+ */
+class Viewport {
+	float minX;
+	float minY;
+	float maxX;
+	float maxY;
+	// How many screen pixels wide one tile is drawn
+	float pixelsPerTile;
+
+	/**
+	 * Works out the box around the board area of the screen, from (0, 0) to
+	 * (size, size), by mapping its corners back onto the board. The box is
+	 * bigger than the view when the camera is rotated.
+	 */
+	public void update(EvolvioColor evolvioColor, float size) {
+		minX = minY = Float.POSITIVE_INFINITY;
+		maxX = maxY = Float.NEGATIVE_INFINITY;
+		for (int corner = 0; corner < 4; corner++) {
+			float screenX = (corner & 1) == 0 ? 0 : size;
+			float screenY = (corner & 2) == 0 ? 0 : size;
+			float x = evolvioColor.toWorldXCoordinate(screenX, screenY);
+			float y = evolvioColor.toWorldYCoordinate(screenX, screenY);
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+		pixelsPerTile = evolvioColor.SCALE_TO_FIX_BUG * evolvioColor.zoom * evolvioColor.scaleFactor;
+	}
+
+	/**
+	 * Whether anything within margin of (x, y) could be on screen.
+	 */
+	public boolean shows(double x, double y, double margin) {
+		return x + margin >= minX && x - margin <= maxX && y + margin >= minY && y - margin <= maxY;
+	}
+}